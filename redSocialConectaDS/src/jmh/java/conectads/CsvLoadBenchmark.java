@@ -0,0 +1,95 @@
+package conectads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Carga completa de profiles.csv + connections.csv en un SocialNetworkSystem nuevo.
+// El contador "bytes" (por segundo) da el rendimiento en bytes leídos.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CsvLoadBenchmark {
+
+    @Param({"10000", "1000000"})
+    int users;
+
+    @Param({"8"})
+    double averageDegree;
+
+    // seq: BufferedReader línea a línea; parallel: bloques en el ForkJoinPool; mapped: archivo mapeado
+    @Param({"seq", "parallel", "mapped"})
+    String loader;
+
+    private Path directory;
+    private String profilesFile;
+    private String connectionsFile;
+    private long fileBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PowerLawGraph graph = PowerLawGraph.generate(users, averageDegree, 2.5, 42);
+        directory = Files.createTempDirectory("conectads-jmh");
+        Path profiles = directory.resolve("profiles.csv");
+        Path connections = directory.resolve("connections.csv");
+        graph.writeProfilesCsv(profiles);
+        graph.writeConnectionsCsv(connections);
+        profilesFile = profiles.toString();
+        connectionsFile = connections.toString();
+        fileBytes = Files.size(profiles) + Files.size(connections);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("profiles.csv"));
+        Files.deleteIfExists(directory.resolve("connections.csv"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SocialNetworkSystem load(Bytes counter) {
+        SocialNetworkSystem system = new SocialNetworkSystem(new OpenAddressingProfileTable(16));
+        switch (loader) {
+            case "seq":
+                system.cargarPerfilesDesdeArchivo(profilesFile);
+                system.cargarConexionesDesdeArchivo(connectionsFile);
+                break;
+            case "parallel":
+                system.cargarPerfilesEnParalelo(profilesFile);
+                system.cargarConexionesEnParalelo(connectionsFile);
+                break;
+            case "mapped":
+                system.cargarPerfilesMapeado(profilesFile);
+                system.cargarConexionesMapeado(connectionsFile);
+                break;
+            default:
+                throw new IllegalArgumentException("Cargador desconocido: " + loader);
+        }
+        counter.bytes += fileBytes;
+        return system;
+    }
+}
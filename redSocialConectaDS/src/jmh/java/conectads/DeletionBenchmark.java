@@ -0,0 +1,151 @@
+package conectads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Bajas de amistades y perfiles sobre una red en ley de potencia. Cada operación deshace su baja
+// (vuelve a crear la amistad o el perfil con sus amistades) para que la red no se vacíe durante
+// la medición; la diferencia entre estaConectadosConBajas y eliminarYRecrearAmistad es el costo
+// de una consulta de conectividad justo después de una baja.
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeletionBenchmark {
+
+    @Param({"10000", "1000000"})
+    int users;
+
+    @Param({"8"})
+    double averageDegree;
+
+    @Param({"false", "true"})
+    boolean concurrent;
+
+    private PowerLawGraph graph;
+    private SocialNetworkSystem system;
+    private FriendshipSnapshot original;  // amistades antes de cualquier baja
+    private int[] snapshotIndex;          // usuario de la red sintética -> índice en original
+    private int[] edgeOrder;
+    private int[] queryUsers;
+    private int[] profileOrder;
+    private int hub;
+    private int nextEdge;
+    private int nextQuery;
+    private int nextProfile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        graph = PowerLawGraph.generate(users, averageDegree, 2.5, 42);
+        Path directory = Files.createTempDirectory("conectads-jmh");
+        Path profiles = directory.resolve("profiles.csv");
+        Path connections = directory.resolve("connections.csv");
+        graph.writeProfilesCsv(profiles);
+        graph.writeConnectionsCsv(connections);
+
+        EventLog.clearSink(); // cada baja registra un mensaje INFO
+        system = new SocialNetworkSystem(new OpenAddressingProfileTable(16), concurrent);
+        system.cargarPerfilesMapeado(profiles.toString());
+        system.cargarConexionesMapeado(connections.toString());
+        Files.delete(profiles);
+        Files.delete(connections);
+        Files.delete(directory);
+
+        original = system.obtenerInstantanea();
+        snapshotIndex = new int[users];
+        for (int i = 0; i < original.getUserCount(); i++) {
+            snapshotIndex[Integer.parseInt(system.obtenerUserID(i).substring(1))] = i;
+        }
+
+        hub = graph.hubUser();
+        SplittableRandom random = new SplittableRandom(3);
+        edgeOrder = new int[1 << 16];
+        queryUsers = new int[1 << 16];
+        profileOrder = new int[1 << 12];
+        for (int i = 0; i < edgeOrder.length; i++) {
+            edgeOrder[i] = random.nextInt(graph.edges);
+            queryUsers[i] = random.nextInt(users);
+        }
+        for (int i = 0; i < profileOrder.length; i++) {
+            profileOrder[i] = random.nextInt(users);
+        }
+    }
+
+    // Baja de una amistad existente (búsqueda acotada para saber si el componente se dividió)
+    // seguida del alta que la restaura
+    @Benchmark
+    public boolean eliminarYRecrearAmistad() {
+        nextEdge = (nextEdge + 1) & (edgeOrder.length - 1);
+        int e = edgeOrder[nextEdge];
+        String a = graph.userIDs[graph.usersA[e]];
+        String b = graph.userIDs[graph.usersB[e]];
+        system.eliminarAmistad(a, b);
+        return system.generarLazo(a, b, graph.qualities[e]);
+    }
+
+    // Igual, más una consulta entre un extremo de la amistad quitada y un usuario cualquiera
+    @Benchmark
+    public boolean estaConectadosConBajas() {
+        nextEdge = (nextEdge + 1) & (edgeOrder.length - 1);
+        int e = edgeOrder[nextEdge];
+        String a = graph.userIDs[graph.usersA[e]];
+        String b = graph.userIDs[graph.usersB[e]];
+        system.eliminarAmistad(a, b);
+        nextQuery = (nextQuery + 1) & (queryUsers.length - 1);
+        boolean connected = system.estaConectados(a, graph.userIDs[queryUsers[nextQuery]]);
+        system.generarLazo(a, b, graph.qualities[e]);
+        return connected;
+    }
+
+    // Baja de un perfil elegido al azar (casi siempre de pocos amigos) con todas sus amistades,
+    // y el alta del perfil y de esas amistades
+    @Benchmark
+    public boolean eliminarYRecrearPerfil() {
+        nextProfile = (nextProfile + 1) & (profileOrder.length - 1);
+        return eliminarYRecrear(profileOrder[nextProfile]);
+    }
+
+    // Lo mismo con el usuario de mayor grado: la baja que más componentes puede partir
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean eliminarYRecrearHub() {
+        return eliminarYRecrear(hub);
+    }
+
+    private boolean eliminarYRecrear(int user) {
+        String userID = graph.userIDs[user];
+        int index = snapshotIndex[user];
+        int degree = original.degree(index);
+        String[] friends = new String[degree];
+        int[] qualities = new int[degree];
+        for (int i = 0; i < degree; i++) {
+            int e = original.edgeStart(index) + i;
+            friends[i] = system.obtenerUserID(original.neighbor(e));
+            qualities[i] = original.quality(e);
+        }
+
+        boolean removed = system.eliminarPerfil(userID);
+        system.crearPerfil(userID, graph.fullNames[user], graph.ages[user], graph.genders[user]);
+        for (int i = 0; i < degree; i++) {
+            system.generarLazo(userID, friends[i], qualities[i]);
+        }
+        return removed;
+    }
+}
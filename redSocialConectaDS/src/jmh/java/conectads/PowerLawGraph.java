@@ -0,0 +1,160 @@
+package conectads;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Red sintética para los benchmarks: grados en ley de potencia según el modelo de Chung-Lu.
+// El usuario i tiene peso (i + 1)^(-1 / (exponente - 1)) y cada amistad elige sus dos extremos
+// con probabilidad proporcional al peso, así que el usuario 0 es el más popular y la mayoría
+// tiene pocos amigos, como en una red social real. Con la misma semilla se obtiene la misma red.
+final class PowerLawGraph {
+
+    final int users;
+    final String[] userIDs;
+    final String[] fullNames;
+    final int[] ages;
+    final String[] genders;
+
+    // Amistades (puede haber repetidas, como en un CSV real; la última calidad es la que vale)
+    final int edges;
+    final int[] usersA;
+    final int[] usersB;
+    final byte[] qualities;
+    final int[] degrees;
+
+    private PowerLawGraph(int users, int edges) {
+        this.users = users;
+        this.userIDs = new String[users];
+        this.fullNames = new String[users];
+        this.ages = new int[users];
+        this.genders = new String[users];
+        this.edges = edges;
+        this.usersA = new int[edges];
+        this.usersB = new int[edges];
+        this.qualities = new byte[edges];
+        this.degrees = new int[users];
+    }
+
+    static PowerLawGraph generate(int users, double averageDegree, double exponent, long seed) {
+        if (users < 2 || averageDegree <= 0 || exponent <= 2) {
+            throw new IllegalArgumentException("Se necesitan 2 usuarios, grado medio positivo y exponente > 2");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        PowerLawGraph graph = new PowerLawGraph(users, (int) Math.min(Integer.MAX_VALUE - 8L,
+                (long) (users * averageDegree / 2)));
+
+        for (int i = 0; i < users; i++) {
+            graph.userIDs[i] = "U" + i;
+            graph.fullNames[i] = "Usuario " + Integer.toString(i, 36);
+            graph.ages[i] = 16 + random.nextInt(60);
+            graph.genders[i] = random.nextBoolean() ? "F" : "M";
+        }
+
+        // Pesos acumulados para elegir extremos por búsqueda binaria
+        double[] cumulative = new double[users];
+        double total = 0;
+        double power = -1.0 / (exponent - 1);
+        for (int i = 0; i < users; i++) {
+            total += Math.pow(i + 1, power);
+            cumulative[i] = total;
+        }
+
+        int e = 0;
+        while (e < graph.edges) {
+            int a = pick(cumulative, random.nextDouble() * total);
+            int b = pick(cumulative, random.nextDouble() * total);
+            if (a == b) continue;
+            graph.usersA[e] = a;
+            graph.usersB[e] = b;
+            graph.qualities[e] = (byte) (1 + random.nextInt(5));
+            graph.degrees[a]++;
+            graph.degrees[b]++;
+            e++;
+        }
+        return graph;
+    }
+
+    private static int pick(double[] cumulative, double target) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Usuario con más amistades
+    int hubUser() {
+        int hub = 0;
+        for (int u = 1; u < users; u++) {
+            if (degrees[u] > degrees[hub]) hub = u;
+        }
+        return hub;
+    }
+
+    // Usuario con pocas amistades (entre 1 y 3), buscando desde los menos populares
+    int lowDegreeUser() {
+        for (int u = users - 1; u >= 0; u--) {
+            if (degrees[u] >= 1 && degrees[u] <= 3) return u;
+        }
+        return users - 1;
+    }
+
+    // Registro con los userIDs internados en orden: el índice de cada usuario es su posición
+    UserIdRegistry newRegistry() {
+        UserIdRegistry registry = new UserIdRegistry(users);
+        for (int i = 0; i < users; i++) {
+            registry.intern(userIDs[i]);
+        }
+        return registry;
+    }
+
+    Profile[] newProfiles(UserIdRegistry registry) {
+        Profile[] profiles = new Profile[users];
+        for (int i = 0; i < users; i++) {
+            profiles[i] = new Profile(registry, userIDs[i], fullNames[i], ages[i], genders[i]);
+        }
+        return profiles;
+    }
+
+    // Registro con perfiles y listas de amigos, listo para construir una FriendshipSnapshot
+    UserIdRegistry newPopulatedRegistry() {
+        UserIdRegistry registry = newRegistry();
+        Profile[] profiles = newProfiles(registry);
+        for (int i = 0; i < users; i++) {
+            registry.bindProfile(i, profiles[i]);
+        }
+        for (int e = 0; e < edges; e++) {
+            profiles[usersA[e]].addFriend(usersB[e], qualities[e]);
+            profiles[usersB[e]].addFriend(usersA[e], qualities[e]);
+        }
+        return registry;
+    }
+
+    void writeProfilesCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("userID,fullName,age,gender\n");
+            for (int i = 0; i < users; i++) {
+                writer.write(userIDs[i] + "," + fullNames[i] + "," + ages[i] + "," + genders[i] + "\n");
+            }
+        }
+    }
+
+    void writeConnectionsCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("userID_A,userID_B,calidad\n");
+            for (int e = 0; e < edges; e++) {
+                writer.write(userIDs[usersA[e]] + "," + userIDs[usersB[e]] + "," + qualities[e] + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package conectads;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Tablas de perfiles: búsquedas con y sin acierto, llenado completo y pausas de rehashing.
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProfileTableBenchmark {
+
+    @Param({"10000", "1000000"})
+    int users;
+
+    // hash: encadenamiento; hash-incremental: encadenamiento con rehashing incremental;
+    // open: sondeo lineal; concurrent: locks por franjas
+    @Param({"hash", "hash-incremental", "open", "concurrent"})
+    String table;
+
+    // false mide las tablas sin el registro de sondeos y pausas en Metrics
+    @Param({"true"})
+    boolean metrics;
+
+    // Elementos con los que una tabla de 16 buckets cruza su rehashing a 4096 buckets
+    private static final int PAST_REHASH = 3073;
+
+    private Profile[] profiles;
+    private String[] hitIDs;
+    private String[] missIDs;
+    private ProfileTable loaded;
+    private ProfileTable growing;
+    private int next;
+    private int nextInsert;
+
+    @Setup
+    public void setUp() {
+        Metrics.setEnabled(metrics);
+        PowerLawGraph graph = PowerLawGraph.generate(users, 1, 2.5, 42);
+        profiles = graph.newProfiles(graph.newRegistry());
+        loaded = newTable(table, 16);
+        for (Profile profile : profiles) {
+            loaded.insert(profile);
+        }
+
+        // Orden de consulta aleatorio para no recorrer la tabla en orden de inserción
+        hitIDs = new String[users];
+        missIDs = new String[users];
+        int[] order = shuffled(users);
+        for (int i = 0; i < users; i++) {
+            hitIDs[i] = profiles[order[i]].getUserID();
+            missIDs[i] = "X" + order[i];
+        }
+        growing = newTable(table, 16);
+    }
+
+    static ProfileTable newTable(String kind, int capacity) {
+        switch (kind) {
+            case "hash":
+                return new ProfileHashTable(capacity, false);
+            case "hash-incremental":
+                return new ProfileHashTable(capacity, true);
+            case "open":
+                return new OpenAddressingProfileTable(capacity);
+            case "concurrent":
+                return new ConcurrentProfileHashTable(capacity);
+            default:
+                throw new IllegalArgumentException("Tabla desconocida: " + kind);
+        }
+    }
+
+    static int[] shuffled(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Profile searchHit() {
+        if (++next == users) next = 0;
+        return loaded.search(hitIDs[next]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Profile searchMiss() {
+        if (++next == users) next = 0;
+        return loaded.search(missIDs[next]);
+    }
+
+    // Inserta todos los perfiles en una tabla nueva de capacidad mínima (incluye cada rehashing)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProfileTable fill() {
+        ProfileTable fresh = newTable(table, 16);
+        for (Profile profile : profiles) {
+            fresh.insert(profile);
+        }
+        return fresh;
+    }
+
+    // Una inserción por llamada en una tabla que crece: los percentiles altos muestran las pausas
+    // de rehashing (el rehashing incremental debería recortarlas)
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int insertGrowing() {
+        if (nextInsert == users) {
+            growing = newTable(table, 16);
+            nextInsert = 0;
+        }
+        growing.insert(profiles[nextInsert++]);
+        return growing.size();
+    }
+
+    // Como insertGrowing, pero las tablas se vacían justo después del rehashing a 4096 buckets:
+    // con pocas tablas vivas el GC no tapa las pausas y el p99.9 compara el rehashing completo
+    // (hash) con el incremental (hash-incremental)
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int insertPastRehash() {
+        if (nextInsert >= PAST_REHASH || nextInsert >= users) {
+            growing = newTable(table, 16);
+            nextInsert = 0;
+        }
+        growing.insert(profiles[nextInsert++]);
+        return growing.size();
+    }
+}
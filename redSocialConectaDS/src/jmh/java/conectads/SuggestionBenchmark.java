@@ -0,0 +1,80 @@
+package conectads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// sugerirAmigos para un usuario con pocas amistades y para el usuario de mayor grado.
+// La caché está desactivada (0 bytes) para medir siempre el recorrido del grafo.
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuggestionBenchmark {
+
+    @Param({"10000", "1000000"})
+    int users;
+
+    @Param({"8"})
+    double averageDegree;
+
+    @Param({"low", "hub"})
+    String user;
+
+    @Param({"10"})
+    int limit;
+
+    // BEST_QUALITY, QUALITY_PRODUCT, ADAMIC_ADAR o MUTUAL_FRIENDS
+    @Param({"BEST_QUALITY"})
+    String ranker;
+
+    private FriendSuggestionEngine engine;
+    private String userID;
+
+    @Setup
+    public void setUp() {
+        PowerLawGraph graph = PowerLawGraph.generate(users, averageDegree, 2.5, 42);
+        UserIdRegistry registry = graph.newPopulatedRegistry();
+        FriendshipSnapshot snapshot = FriendshipSnapshot.build(registry);
+        engine = new FriendSuggestionEngine(registry, () -> snapshot, 0);
+        engine.setRanker(rankerNamed(ranker));
+        userID = graph.userIDs["hub".equals(user) ? graph.hubUser() : graph.lowDegreeUser()];
+    }
+
+    static SuggestionRanker rankerNamed(String name) {
+        switch (name) {
+            case "BEST_QUALITY":
+                return SuggestionRanker.BEST_QUALITY;
+            case "QUALITY_PRODUCT":
+                return SuggestionRanker.QUALITY_PRODUCT;
+            case "ADAMIC_ADAR":
+                return SuggestionRanker.ADAMIC_ADAR;
+            case "MUTUAL_FRIENDS":
+                return SuggestionRanker.MUTUAL_FRIENDS;
+            default:
+                throw new IllegalArgumentException("Ranker desconocido: " + name);
+        }
+    }
+
+    @Benchmark
+    public List<FriendSuggestion> sugerirAmigos() {
+        return engine.sugerirAmigos(userID, null, -1, -1, limit);
+    }
+
+    @Benchmark
+    public List<FriendSuggestion> sugerirAmigosFiltrado() {
+        return engine.sugerirAmigos(userID, "F", 20, 30, limit);
+    }
+}
@@ -0,0 +1,154 @@
+package conectads;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Union-find de FriendshipGraph sobre las amistades de una red en ley de potencia.
+// Los métodos *Baseline repiten la medición con la unión anterior a la unión por tamaño
+// (BaselineUnionFind) para comparar las dos con la misma red; no dependen de concurrent.
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UnionFindBenchmark {
+
+    @Param({"10000", "1000000"})
+    int users;
+
+    @Param({"8"})
+    double averageDegree;
+
+    @Param({"false", "true"})
+    boolean concurrent;
+
+    private PowerLawGraph graph;
+    private UserIdRegistry registry;
+    private FriendshipGraph connected;
+    private int[] queriesA;
+    private int[] queriesB;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        graph = PowerLawGraph.generate(users, averageDegree, 2.5, 42);
+        registry = graph.newRegistry();
+        connected = unionAll();
+
+        java.util.SplittableRandom random = new java.util.SplittableRandom(3);
+        queriesA = new int[1 << 16];
+        queriesB = new int[1 << 16];
+        for (int i = 0; i < queriesA.length; i++) {
+            queriesA[i] = random.nextInt(users);
+            queriesB[i] = random.nextInt(users);
+        }
+    }
+
+    // Grafo nuevo con todos los usuarios y todas las amistades unidas
+    private FriendshipGraph unionAll() {
+        FriendshipGraph fresh = new FriendshipGraph(registry, users, concurrent);
+        fresh.registerUser(graph.userIDs[users - 1]); // incorpora los índices 0 .. users - 1
+        for (int e = 0; e < graph.edges; e++) {
+            fresh.union(graph.usersA[e], graph.usersB[e]);
+        }
+        return fresh;
+    }
+
+    // Todas las uniones de la red desde cero; dividir por el número de amistades da el costo por union
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FriendshipGraph unionEdges() {
+        return unionAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BaselineUnionFind unionEdgesBaseline() {
+        BaselineUnionFind fresh = new BaselineUnionFind(users);
+        for (int e = 0; e < graph.edges; e++) {
+            fresh.union(graph.usersA[e], graph.usersB[e]);
+        }
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int find() {
+        next = (next + 1) & (queriesA.length - 1);
+        return connected.find(queriesA[next]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean estaConectados() {
+        next = (next + 1) & (queriesA.length - 1);
+        return connected.estaConectados(queriesA[next], queriesB[next]);
+    }
+
+    // Copia del union-find de FriendshipGraph antes de la unión por tamaño: cuelga la raíz de p
+    // del nodo q (no de su raíz), recorre los ancestros de q buscando ciclos y no mira size[]
+    // al elegir la raíz. find() ya comprimía caminos.
+    public static final class BaselineUnionFind {
+        private final int[] parent;
+        private final int[] size;
+        private int count;
+
+        BaselineUnionFind(int users) {
+            parent = new int[users];
+            size = new int[users];
+            for (int i = 0; i < users; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+            count = users;
+        }
+
+        int find(int p) {
+            int root = p;
+            while (root != parent[root]) {
+                root = parent[root];
+            }
+            while (p != root) {
+                int next = parent[p];
+                parent[p] = root;
+                p = next;
+            }
+            return root;
+        }
+
+        void union(int p, int q) {
+            int rootP = find(p);
+            if (find(rootP) == find(q)) {
+                return;
+            }
+            int current = q;
+            while (current != parent[current]) {
+                if (current == rootP) {
+                    return;
+                }
+                current = parent[current];
+            }
+            parent[rootP] = q;
+            int rootQ = find(q);
+            size[rootQ] += size[rootP];
+            count--;
+        }
+
+        public int getComponentCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package conectads;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Destino asíncrono para EventLog: los eventos se guardan en un buffer circular de tamaño fijo
+// y un hilo en segundo plano los entrega al destino real (por ejemplo EventLog.CONSOLE).
+// Quien publica nunca espera por E/S; si el buffer está lleno el evento se descarta y se cuenta.
+public final class AsyncLogSink implements EventLog.Sink, AutoCloseable {
+
+    private final EventLog.Sink downstream;
+    private final EventLog.Level[] levels;
+    private final String[] messages;
+    private final int mask;
+    private long head;  // próximo evento a entregar
+    private long tail;  // próxima posición libre
+    private boolean closed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+
+    // capacity se redondea a la siguiente potencia de dos
+    public AsyncLogSink(EventLog.Sink downstream, int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.downstream = downstream;
+        this.levels = new EventLog.Level[size];
+        this.messages = new String[size];
+        this.mask = size - 1;
+
+        this.worker = new Thread(this::drainLoop, "event-log");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void publish(EventLog.Level level, String message) {
+        lock.lock();
+        try {
+            if (closed || tail - head == levels.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+            int slot = (int) (tail & mask);
+            levels[slot] = level;
+            messages[slot] = message;
+            tail++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Eventos descartados porque el buffer estaba lleno
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Espera a que se entreguen todos los eventos publicados hasta ahora
+    public void flush() {
+        lock.lock();
+        try {
+            long target = tail;
+            while (head < target && worker.isAlive()) {
+                drained.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            EventLog.Level level;
+            String message;
+            lock.lock();
+            try {
+                while (head == tail && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) {
+                    drained.signalAll();
+                    return;
+                }
+                int slot = (int) (head & mask);
+                level = levels[slot];
+                message = messages[slot];
+                messages[slot] = null;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                downstream.publish(level, message);
+            } catch (RuntimeException e) {
+                // un destino que falla no debe detener la entrega de los demás eventos
+            }
+
+            lock.lock();
+            try {
+                head++;
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package conectads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Columnas compactas de atributos por índice de usuario y un índice por (género, tramo de edad).
+// El motor de sugerencias filtra candidatos con estas columnas sin tocar los perfiles,
+// y con filtros muy selectivos puede partir directamente de los usuarios que los cumplen.
+public final class AttributeIndex {
+
+    // Edad guardada en un byte sin signo; este valor indica que hay que leerla del perfil
+    private static final int AGE_OUT_OF_RANGE = 255;
+    // Tramos de 8 años: 32 tramos cubren 0..255
+    private static final int AGE_BUCKET_SHIFT = 3;
+    private static final int AGE_BUCKETS = 256 >> AGE_BUCKET_SHIFT;
+    // El código 0 significa "sin perfil"
+    private static final int MAX_GENDERS = 255;
+
+    private final UserIdRegistry registry;
+    private byte[] ages = new byte[16];
+    private byte[] genderCodes = new byte[16];
+
+    // Diccionario de géneros: código -> texto tal como aparece en los perfiles
+    private final List<String> genderNames = new ArrayList<>();
+
+    // Usuarios por (código de género, tramo de edad). Al cambiar o quitar el perfil de un índice
+    // se borra su entrada anterior; al leerlas igual se vuelven a comprobar las columnas
+    private int[][] bucketUsers = new int[0][];
+    private int[] bucketSizes = new int[0];
+
+    AttributeIndex(UserIdRegistry registry) {
+        this.registry = registry;
+        genderNames.add(null);
+    }
+
+    void ensureCapacity(int users) {
+        if (users > ages.length) {
+            int length = Math.max(users, ages.length * 2);
+            byte[] newAges = new byte[length];
+            byte[] newCodes = new byte[length];
+            System.arraycopy(ages, 0, newAges, 0, ages.length);
+            System.arraycopy(genderCodes, 0, newCodes, 0, genderCodes.length);
+            ages = newAges;
+            genderCodes = newCodes;
+        }
+    }
+
+    // Registra (o reemplaza) los atributos del perfil asociado al índice; null lo quita del índice
+    void index(int user, Profile profile) {
+        ensureCapacity(user + 1);
+        int previousCode = genderCodes[user] & 0xFF;
+        if (previousCode != 0) {
+            removeFromBucket(previousCode * AGE_BUCKETS + ((ages[user] & 0xFF) >> AGE_BUCKET_SHIFT), user);
+        }
+        if (profile == null) {
+            genderCodes[user] = 0;
+            return;
+        }
+        int age = profile.getAge();
+        int storedAge = age >= 0 && age < AGE_OUT_OF_RANGE ? age : AGE_OUT_OF_RANGE;
+        int code = genderCode(profile.getGender());
+        ages[user] = (byte) storedAge;
+        genderCodes[user] = (byte) code;
+        if (code == 0) {
+            return;
+        }
+
+        int bucket = code * AGE_BUCKETS + (storedAge >> AGE_BUCKET_SHIFT);
+        int[] users = bucketUsers[bucket];
+        if (users == null) {
+            users = new int[4];
+        } else if (bucketSizes[bucket] == users.length) {
+            int[] newUsers = new int[users.length * 2];
+            System.arraycopy(users, 0, newUsers, 0, users.length);
+            users = newUsers;
+        }
+        users[bucketSizes[bucket]++] = user;
+        bucketUsers[bucket] = users;
+    }
+
+    // Un tramo puede tener muchos usuarios, pero quitar uno es un recorrido secuencial de enteros
+    private void removeFromBucket(int bucket, int user) {
+        int[] users = bucketUsers[bucket];
+        for (int i = bucketSizes[bucket] - 1; i >= 0; i--) {
+            if (users[i] == user) {
+                users[i] = users[--bucketSizes[bucket]];
+                return;
+            }
+        }
+    }
+
+    private int genderCode(String gender) {
+        if (gender == null) {
+            gender = "";
+        }
+        int code = genderNames.indexOf(gender);
+        if (code > 0) {
+            return code;
+        }
+        if (genderNames.size() > MAX_GENDERS) {
+            return 0; // sin código: el usuario no pasará ningún filtro de columnas
+        }
+        genderNames.add(gender);
+        int buckets = genderNames.size() * AGE_BUCKETS;
+        int[][] newBucketUsers = new int[buckets][];
+        int[] newBucketSizes = new int[buckets];
+        System.arraycopy(bucketUsers, 0, newBucketUsers, 0, bucketUsers.length);
+        System.arraycopy(bucketSizes, 0, newBucketSizes, 0, bucketSizes.length);
+        bucketUsers = newBucketUsers;
+        bucketSizes = newBucketSizes;
+        return genderNames.size() - 1;
+    }
+
+    // Resuelve un filtro de sugerencias (género sin distinguir mayúsculas, edades <= 0 sin límite)
+    public Filter filter(String genderFilter, int minAge, int maxAge) {
+        long[] genderMask = new long[4];
+        boolean anyGender = genderFilter == null || genderFilter.isEmpty();
+        for (int code = 1; code < genderNames.size(); code++) {
+            if (anyGender || genderNames.get(code).equalsIgnoreCase(genderFilter)) {
+                genderMask[code >>> 6] |= 1L << code;
+            }
+        }
+        return new Filter(genderMask, anyGender, minAge > 0 ? minAge : -1, maxAge > 0 ? maxAge : -1);
+    }
+
+    // Filtro ya resuelto a un conjunto de bits de códigos de género y límites de edad
+    public final class Filter {
+        private final long[] genderMask;
+        private final boolean anyGender;
+        private final int minAge;
+        private final int maxAge;
+
+        private Filter(long[] genderMask, boolean anyGender, int minAge, int maxAge) {
+            this.genderMask = genderMask;
+            this.anyGender = anyGender;
+            this.minAge = minAge;
+            this.maxAge = maxAge;
+        }
+
+        // Sin filtros de género ni de edad
+        public boolean isEmpty() {
+            return anyGender && minAge < 0 && maxAge < 0;
+        }
+
+        // El usuario tiene perfil y cumple el filtro; solo lee el perfil si su edad no cabe en un byte
+        public boolean matches(int user) {
+            if (user >= genderCodes.length) {
+                return false;
+            }
+            int code = genderCodes[user] & 0xFF;
+            if ((genderMask[code >>> 6] >>> code & 1) == 0) {
+                return false;
+            }
+            if (minAge < 0 && maxAge < 0) {
+                return true;
+            }
+            int age = ages[user] & 0xFF;
+            if (age == AGE_OUT_OF_RANGE) {
+                age = registry.profileAt(user).getAge();
+            }
+            return (minAge < 0 || age >= minAge) && (maxAge < 0 || age <= maxAge);
+        }
+
+        // Cota superior de usuarios que cumplen el filtro, sumando los tramos que toca
+        public int estimateMatches() {
+            int firstBucket = minAge < 0 ? 0 : Math.min(minAge, AGE_OUT_OF_RANGE) >> AGE_BUCKET_SHIFT;
+            int lastBucket = maxAge < 0 ? AGE_BUCKETS - 1 : Math.min(maxAge, AGE_OUT_OF_RANGE) >> AGE_BUCKET_SHIFT;
+            int total = 0;
+            for (int code = 1; code < genderNames.size(); code++) {
+                if ((genderMask[code >>> 6] >>> code & 1) == 0) continue;
+                for (int b = firstBucket; b <= lastBucket; b++) {
+                    total += bucketSizes[code * AGE_BUCKETS + b];
+                }
+                // Las edades fuera de rango están en el último tramo
+                if (lastBucket < AGE_BUCKETS - 1) {
+                    total += bucketSizes[code * AGE_BUCKETS + AGE_BUCKETS - 1];
+                }
+            }
+            return total;
+        }
+
+        // Copia en out los usuarios que cumplen el filtro y devuelve cuántos son,
+        // o -1 si son más de out.length
+        public int collectMatches(int[] out) {
+            int firstBucket = minAge < 0 ? 0 : Math.min(minAge, AGE_OUT_OF_RANGE) >> AGE_BUCKET_SHIFT;
+            int lastBucket = maxAge < 0 ? AGE_BUCKETS - 1 : Math.min(maxAge, AGE_OUT_OF_RANGE) >> AGE_BUCKET_SHIFT;
+            int count = 0;
+            for (int code = 1; code < genderNames.size(); code++) {
+                if ((genderMask[code >>> 6] >>> code & 1) == 0) continue;
+                for (int b = firstBucket; b < AGE_BUCKETS; b++) {
+                    if (b > lastBucket && b != AGE_BUCKETS - 1) continue;
+                    int bucket = code * AGE_BUCKETS + b;
+                    int[] users = bucketUsers[bucket];
+                    for (int i = 0; i < bucketSizes[bucket]; i++) {
+                        int user = users[i];
+                        // Descarta entradas obsoletas y edades fuera del rango en los tramos de los bordes
+                        if ((genderCodes[user] & 0xFF) != code || !matches(user)) continue;
+                        if (count == out.length) {
+                            return -1;
+                        }
+                        out[count++] = user;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package conectads;
+
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Tabla hash de perfiles segura para hilos.
+// Las búsquedas no usan locks: leen un arreglo de buckets publicado de forma volátil.
+// Las escrituras toman el lock de su franja (striping) y el redimensionamiento toma todas las franjas,
+// de modo que ningún lector ve un arreglo a medio construir ni un tamaño de tabla desfasado.
+public class ConcurrentProfileHashTable implements ProfileTable {
+
+    private static final class Node {
+        final int hash;
+        final String key;
+        volatile Profile value;
+        volatile Node next;
+
+        Node(int hash, String key, Profile value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // La longitud viaja con el propio arreglo, así que buckets y número de buckets nunca se desfasan
+    private volatile AtomicReferenceArray<Node> table;
+    private final ReentrantLock[] locks;
+    private final AtomicInteger size;
+    private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int STRIPES = 64; // potencia de dos, nunca mayor que la capacidad
+
+    public ConcurrentProfileHashTable(int initialCapacity) {
+        this.table = new AtomicReferenceArray<>(HashTables.tableSizeFor(Math.max(initialCapacity, STRIPES)));
+        this.locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.size = new AtomicInteger();
+    }
+
+    public ConcurrentProfileHashTable() {
+        this(STRIPES);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Como la capacidad es múltiplo de STRIPES, todas las claves de un bucket comparten franja
+    private ReentrantLock lockFor(int h) {
+        return locks[h & (STRIPES - 1)];
+    }
+
+    @Override
+    public void insert(Profile profile) {
+        String key = profile.getUserID();
+        int h = hash(key);
+        int capacity;
+        int newSize;
+
+        ReentrantLock lock = lockFor(h);
+        lock.lock();
+        try {
+            // Con un lock de franja tomado la tabla no puede reemplazarse
+            AtomicReferenceArray<Node> tab = table;
+            capacity = tab.length();
+            int bucketIndex = h & (capacity - 1);
+            Node head = tab.get(bucketIndex);
+
+            for (Node node = head; node != null; node = node.next) {
+                if (node.hash == h && node.key.equals(key)) {
+                    node.value = profile;
+                    if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                        EventLog.debug("Perfil actualizado: " + key);
+                    }
+                    return;
+                }
+            }
+
+            tab.set(bucketIndex, new Node(h, key, profile, head));
+            newSize = size.incrementAndGet();
+            if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                EventLog.debug("Perfil insertado: " + key + " en bucket " + bucketIndex);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if ((double) newSize / capacity >= LOAD_FACTOR_THRESHOLD) {
+            resize(capacity * 2);
+        }
+    }
+
+    @Override
+    public Profile search(String userID) {
+        int h = hash(userID);
+        AtomicReferenceArray<Node> tab = table;
+
+        int probes = 0;
+        for (Node node = tab.get(h & (tab.length() - 1)); node != null; node = node.next) {
+            probes++;
+            if (node.hash == h && node.key.equals(userID)) {
+                Metrics.profileLookup(probes, true);
+                return node.value;
+            }
+        }
+        Metrics.profileLookup(probes, false);
+        return null;
+    }
+
+    @Override
+    public boolean delete(String userID) {
+        int h = hash(userID);
+
+        ReentrantLock lock = lockFor(h);
+        lock.lock();
+        try {
+            AtomicReferenceArray<Node> tab = table;
+            int bucketIndex = h & (tab.length() - 1);
+            Node prev = null;
+
+            for (Node node = tab.get(bucketIndex); node != null; node = node.next) {
+                if (node.hash == h && node.key.equals(userID)) {
+                    // Los lectores que ya recorren la cadena siguen viendo nodos válidos
+                    if (prev == null) {
+                        tab.set(bucketIndex, node.next);
+                    } else {
+                        prev.next = node.next;
+                    }
+                    size.decrementAndGet();
+                    if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                        EventLog.debug("Perfil eliminado: " + userID);
+                    }
+                    return true;
+                }
+                prev = node;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedProfiles) {
+        resize((int) (expectedProfiles / LOAD_FACTOR_THRESHOLD) + 1);
+    }
+
+    // Toma todas las franjas, copia las cadenas a un arreglo nuevo y lo publica de una sola vez.
+    // Los nodos antiguos no se modifican, así que los lectores en curso terminan sobre la tabla anterior.
+    private void resize(int minCapacity) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            AtomicReferenceArray<Node> oldTable = table;
+            int capacity = HashTables.tableSizeFor(minCapacity);
+            // Otro hilo pudo haber crecido la tabla mientras se esperaban los locks
+            if (capacity <= oldTable.length()) {
+                return;
+            }
+            EventLog.info("Rehashing... Tamaño anterior: " + oldTable.length());
+            long start = Metrics.start();
+
+            AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < oldTable.length(); i++) {
+                for (Node node = oldTable.get(i); node != null; node = node.next) {
+                    int bucketIndex = node.hash & (capacity - 1);
+                    newTable.set(bucketIndex, new Node(node.hash, node.key, node.value, newTable.get(bucketIndex)));
+                }
+            }
+            table = newTable;
+
+            Metrics.resized("ConcurrentProfileHashTable", oldTable.length(), capacity, start);
+            EventLog.info("Rehashing completado. Nuevo tamaño: " + capacity);
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    // Vista débilmente consistente: refleja la tabla publicada en el momento de la llamada
+    @Override
+    public LinkedList<Profile> getAllProfiles() {
+        LinkedList<Profile> allProfiles = new LinkedList<>();
+        AtomicReferenceArray<Node> tab = table;
+
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node node = tab.get(i); node != null; node = node.next) {
+                allProfiles.add(node.value);
+            }
+        }
+        return allProfiles;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void printStatistics() {
+        AtomicReferenceArray<Node> tab = table;
+        int count = size.get();
+
+        System.out.println("\nEstadísticas de la Tabla Hash (concurrente)");
+        System.out.println("Número de buckets: " + tab.length());
+        System.out.println("Número de franjas de locks: " + STRIPES);
+        System.out.println("Número de elementos: " + count);
+        System.out.println("Factor de carga: " + String.format("%.2f", (double) count / tab.length()));
+
+        int maxChainLength = 0;
+        int nonEmptyBuckets = 0;
+
+        for (int i = 0; i < tab.length(); i++) {
+            int chainLength = 0;
+            for (Node node = tab.get(i); node != null; node = node.next) {
+                chainLength++;
+            }
+            if (chainLength > 0) {
+                nonEmptyBuckets++;
+                maxChainLength = Math.max(maxChainLength, chainLength);
+            }
+        }
+
+        System.out.println("Buckets ocupados: " + nonEmptyBuckets);
+        System.out.println("Longitud máxima de cadena: " + maxChainLength);
+    }
+}
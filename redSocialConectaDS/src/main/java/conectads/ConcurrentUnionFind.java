@@ -0,0 +1,119 @@
+package conectads;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Union-find sin locks para uniones y consultas concurrentes (estilo Jayanti–Tarjan).
+// - Enlace por prioridad aleatoria: la raíz de menor prioridad se cuelga de la de mayor
+//   con un CAS que solo tiene éxito si sigue siendo raíz. Las prioridades forman un orden
+//   total fijo, así que los caminos siempre suben de prioridad y no pueden formarse ciclos.
+// - find() aplica división de caminos (path halving) también con CAS; si el CAS falla
+//   otro hilo ya acortó ese tramo y se continúa igual.
+public class ConcurrentUnionFind {
+
+    private AtomicIntegerArray parent;
+    private final AtomicInteger merges; // uniones efectivas realizadas
+
+    public ConcurrentUnionFind(int capacity) {
+        this.parent = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            parent.set(i, i);
+        }
+        this.merges = new AtomicInteger();
+    }
+
+    // Biyección sobre int: ordena los nodos de forma pseudoaleatoria pero determinista
+    private static int priority(int node) {
+        int h = node * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean lowerPriority(int a, int b) {
+        int pa = priority(a);
+        int pb = priority(b);
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    public int find(int p) {
+        int current = p;
+        int pathLength = 0;
+        while (true) {
+            int next = parent.get(current);
+            if (next == current) {
+                Metrics.findPath(pathLength);
+                return current;
+            }
+            int grandParent = parent.get(next);
+            if (next != grandParent) {
+                parent.compareAndSet(current, next, grandParent);
+            }
+            pathLength += next == grandParent ? 1 : 2;
+            current = grandParent;
+        }
+    }
+
+    // Devuelve true si esta llamada unió dos componentes distintos
+    public boolean union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) {
+                return false;
+            }
+            if (lowerPriority(rootQ, rootP)) {
+                int tmp = rootP;
+                rootP = rootQ;
+                rootQ = tmp;
+            }
+            // rootP tiene menor prioridad: solo se enlaza si nadie lo enlazó antes
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                merges.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Consulta linealizable: si las raíces difieren, se confirma que la primera sigue siendo raíz
+    public boolean connected(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) {
+                return true;
+            }
+            if (parent.get(rootP) == rootP) {
+                return false;
+            }
+        }
+    }
+
+    public int parentOf(int p) {
+        return parent.get(p);
+    }
+
+    public int getMergeCount() {
+        return merges.get();
+    }
+
+    public int capacity() {
+        return parent.length();
+    }
+
+    // Copia los primeros users padres de un bosque guardado; no debe ejecutarse a la vez que uniones
+    public void restore(int[] parents, int users, int mergeCount) {
+        for (int i = 0; i < users; i++) {
+            parent.set(i, parents[i]);
+        }
+        merges.set(mergeCount);
+    }
+
+    // Amplía la capacidad; no debe ejecutarse a la vez que uniones o consultas
+    public void grow(int newCapacity) {
+        AtomicIntegerArray newParent = new AtomicIntegerArray(newCapacity);
+        int oldCapacity = parent.length();
+        for (int i = 0; i < newCapacity; i++) {
+            newParent.set(i, i < oldCapacity ? parent.get(i) : i);
+        }
+        parent = newParent;
+    }
+}
@@ -0,0 +1,72 @@
+package conectads;
+
+// Registro de eventos del sistema con niveles y un destino (sink) intercambiable.
+// Por defecto no hay destino: isEnabled() devuelve false y las estructuras de datos no
+// formatean mensajes ni hacen E/S. Las llamadas en caminos calientes se protegen con
+// isEnabled() para que ni siquiera se concatene el texto si nadie está escuchando.
+public final class EventLog {
+
+    public enum Level {
+        DEBUG,  // una línea por operación (inserciones, uniones, ...)
+        INFO,   // progreso y cambios de estado (cargas, rehashing, persistencia)
+        WARN,   // operaciones rechazadas por validación
+        ERROR   // fallos de E/S o de formato
+    }
+
+    public interface Sink {
+        void publish(Level level, String message);
+    }
+
+    // Escribe cada mensaje tal cual, los errores por System.err y el resto por System.out
+    public static final Sink CONSOLE = (level, message) -> {
+        if (level == Level.ERROR) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    };
+
+    private static volatile Sink sink;
+    private static volatile int minimumLevel = Integer.MAX_VALUE; // ordinal mínimo publicado
+
+    private EventLog() {
+    }
+
+    // Publica en sink los eventos de nivel minimum o superior
+    public static void setSink(Sink newSink, Level minimum) {
+        sink = newSink;
+        minimumLevel = newSink == null ? Integer.MAX_VALUE : minimum.ordinal();
+    }
+
+    // Vuelve al modo silencioso (sin destino)
+    public static void clearSink() {
+        setSink(null, Level.ERROR);
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= minimumLevel;
+    }
+
+    public static void log(Level level, String message) {
+        Sink current = sink;
+        if (current != null && level.ordinal() >= minimumLevel) {
+            current.publish(level, message);
+        }
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+}
@@ -1,20 +1,34 @@
+package conectads;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class FriendSuggestion implements Comparable<FriendSuggestion> {
     private Profile suggestedProfile;
     private int priority; // Basada en la calidad de amistad X-A (no A-B)
-    private String throughFriend; // ID del amigo a través del cual se sugiere
+    private String throughFriend; // Nombre del amigo que más aporta a la sugerencia
+    private double score; // Puntuación del SuggestionRanker usado; ordena las sugerencias
+    private List<String> topContributors; // Hasta 3 amigos comunes, del que más aporta al que menos
     
     public FriendSuggestion(Profile suggestedProfile, int priority, String throughFriend) {
+        this(suggestedProfile, priority, priority, new String[] {throughFriend});
+    }
+    
+    public FriendSuggestion(Profile suggestedProfile, int priority, double score, String[] topContributors) {
         this.suggestedProfile = suggestedProfile;
         this.priority = priority;
-        this.throughFriend = throughFriend;
+        this.throughFriend = topContributors[0];
+        this.score = score;
+        this.topContributors = Collections.unmodifiableList(Arrays.asList(topContributors));
     }
     
     @Override
     public int compareTo(FriendSuggestion other) {
-        // Primero comparar por prioridad en orden descendente
-        if (this.priority != other.priority) {
-            return other.priority - this.priority; // Orden inverso para max heap
+        // Primero comparar por puntuación en orden descendente
+        if (this.score != other.score) {
+            return Double.compare(other.score, this.score); // Orden inverso para max heap
         }
         // En caso de empate, ordena alfabéticamente por nombre
         return this.suggestedProfile.getFullName().compareTo(
@@ -30,6 +44,12 @@ public class FriendSuggestion implements Comparable<FriendSuggestion> {
     public String getThroughFriend() {
         return throughFriend;
     }
+    public double getScore() {
+        return score;
+    }
+    public List<String> getTopContributors() {
+        return topContributors;
+    }
     
     @Override
     public String toString() {
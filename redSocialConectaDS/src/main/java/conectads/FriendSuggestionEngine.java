@@ -0,0 +1,748 @@
+package conectads;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+public class FriendSuggestionEngine {
+    
+    private UserIdRegistry registry;
+    private Supplier<FriendshipSnapshot> adjacency; // instantánea CSR vigente de las amistades
+    
+    // Memoria de trabajo de las consultas individuales
+    private final Scratch scratch = new Scratch();
+    // Memorias de trabajo de los lotes: cada tarea toma una libre y la devuelve al terminar,
+    // así hay a lo sumo una por hilo del pool y no se reserva nada por usuario
+    private final ConcurrentLinkedQueue<Scratch> batchScratch = new ConcurrentLinkedQueue<>();
+    
+    // Usuarios por tarea hoja en los lotes
+    private static final int BATCH_LEAF_USERS = 256;
+    
+    // Listas ya calculadas por (usuario, filtros); los lotes no pasan por la caché
+    private static final long DEFAULT_CACHE_BYTES = 16L << 20;
+    private final SuggestionCache cache;
+    
+    // Criterio de puntuación de los candidatos
+    private volatile SuggestionRanker ranker = SuggestionRanker.BEST_QUALITY;
+    // Saltos y límites de la búsqueda de candidatos
+    private volatile HopExpansion expansion = HopExpansion.TWO_HOPS;
+    
+    // Recibe las sugerencias de cada usuario de un lote. Se llama desde varios hilos a la vez;
+    // los arreglos se reutilizan después de la llamada, así que hay que copiar lo que se conserve.
+    // El orden es el del ranker configurado; throughFriends es el amigo común que más aporta.
+    public interface SuggestionSink {
+        void accept(int userIndex, int count, int[] suggestedUsers, int[] priorities, int[] throughFriends);
+    }
+    
+    // Amigos comunes que se guardan por sugerencia (los que más aportan a la puntuación)
+    static final int CONTRIBUTORS = 3;
+    
+    // Arreglos que necesita una consulta: unos por índice de usuario y otros por candidato
+    static final class Scratch {
+        // Marcas de usuarios procesados por índice; se reutilizan entre llamadas cambiando de época
+        int[] processedStamp = new int[0];
+        int currentStamp = 0;
+        
+        // Posición del usuario en los arreglos por candidato: válida solo si candidateStamp == currentStamp
+        int[] candidateStamp = new int[0];
+        int[] candidateSlot = new int[0];
+        int[] viaRank = new int[0];       // posición de cada amigo en la lista del usuario (-1 sin perfil)
+        int[] matches = new int[0];       // usuarios que cumplen un filtro selectivo
+        long[] paths = new long[0];       // caminos de un candidato en el recorrido inverso
+        
+        // Por candidato (crecen según el número de candidatos, no de usuarios)
+        int[] candidates = new int[0];    // índice de usuario del candidato
+        int[] bestQuality = new int[0];   // mejor calidad X-A que lleva al candidato
+        double[] score = new double[0];   // puntuación acumulada del ranker
+        int[] contributors = new int[0];  // CONTRIBUTORS amigos por candidato, -1 si hay menos
+        double[] contribution = new double[0];
+        boolean[] eligible = new boolean[0]; // false: alcanzado pero no cumple el filtro (solo a más de 2 saltos)
+        int candidateCount;               // usuarios alcanzados (posiciones ocupadas)
+        int eligibleCount;                // los que se pueden sugerir
+        
+        // Heap acotado de candidatos y resultado ordenado (top[0] es la mejor sugerencia)
+        int[] heap = new int[0];
+        int[] top = new int[0];
+        int[] topQuality = new int[0];
+        int[] topVia = new int[0];
+        double[] topScore = new double[0];
+        int[] topContributors = new int[0];
+        
+        // Inicia una nueva época de marcas: todo lo marcado antes deja de contar como procesado
+        void reset(int users) {
+            if (processedStamp.length < users) {
+                int length = Math.max(users, processedStamp.length * 2);
+                processedStamp = new int[length];
+                candidateStamp = new int[length];
+                candidateSlot = new int[length];
+                viaRank = new int[length];
+                currentStamp = 0;
+            }
+            if (++currentStamp == 0) {
+                Arrays.fill(processedStamp, 0);
+                Arrays.fill(candidateStamp, 0);
+                currentStamp = 1;
+            }
+            candidateCount = 0;
+            eligibleCount = 0;
+        }
+        
+        // Reserva el siguiente candidato para user con su primer camino
+        void addCandidate(int user, int friend, int quality, double pathScore) {
+            int slot = candidateCount++;
+            if (slot == candidates.length) {
+                int length = Math.max(16, slot * 2);
+                candidates = Arrays.copyOf(candidates, length);
+                bestQuality = Arrays.copyOf(bestQuality, length);
+                score = Arrays.copyOf(score, length);
+                contributors = Arrays.copyOf(contributors, length * CONTRIBUTORS);
+                contribution = Arrays.copyOf(contribution, length * CONTRIBUTORS);
+                eligible = Arrays.copyOf(eligible, length);
+            }
+            candidateStamp[user] = currentStamp;
+            candidateSlot[user] = slot;
+            candidates[slot] = user;
+            eligible[slot] = true;
+            eligibleCount++;
+            bestQuality[slot] = quality;
+            score[slot] = pathScore;
+            int base = slot * CONTRIBUTORS;
+            contributors[base] = friend;
+            contribution[base] = pathScore;
+            for (int i = 1; i < CONTRIBUTORS; i++) {
+                contributors[base + i] = -1;
+            }
+        }
+        
+        // Suma (o compara) un camino sin tocar los amigos que más aportan
+        void addScore(int slot, int quality, double pathScore, boolean sums) {
+            if (quality > bestQuality[slot]) {
+                bestQuality[slot] = quality;
+            }
+            if (sums) {
+                score[slot] += pathScore;
+            } else if (pathScore > score[slot]) {
+                score[slot] = pathScore;
+            }
+        }
+        
+        boolean hasContributor(int slot, int friend) {
+            int base = slot * CONTRIBUTORS;
+            for (int i = 0; i < CONTRIBUTORS; i++) {
+                if (contributors[base + i] == friend) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        // El usuario sigue propagando puntuación a los siguientes saltos, pero no se sugiere
+        void markIneligible(int slot) {
+            eligible[slot] = false;
+            eligibleCount--;
+        }
+        
+        // Suma (o compara) un camino más del candidato y actualiza sus amigos que más aportan;
+        // a igual aporte se queda el que llegó antes
+        void addPath(int slot, int friend, int quality, double pathScore, boolean sums) {
+            addScore(slot, quality, pathScore, sums);
+            int base = slot * CONTRIBUTORS;
+            int pos = CONTRIBUTORS;
+            while (pos > 0 && (contributors[base + pos - 1] < 0 || pathScore > contribution[base + pos - 1])) {
+                pos--;
+            }
+            if (pos == CONTRIBUTORS) {
+                return;
+            }
+            for (int i = CONTRIBUTORS - 1; i > pos; i--) {
+                contributors[base + i] = contributors[base + i - 1];
+                contribution[base + i] = contribution[base + i - 1];
+            }
+            contributors[base + pos] = friend;
+            contribution[base + pos] = pathScore;
+        }
+        
+        void ensureMatches(int n) {
+            if (matches.length < n) {
+                matches = new int[Math.max(n, matches.length * 2)];
+            }
+        }
+        
+        void ensurePaths(int n) {
+            if (paths.length < n) {
+                paths = new long[Math.max(n, paths.length * 2)];
+            }
+        }
+        
+        void ensureTop(int k) {
+            if (top.length < k) {
+                int length = Math.max(k, top.length * 2);
+                heap = new int[length];
+                top = new int[length];
+                topQuality = new int[length];
+                topVia = new int[length];
+                topScore = new double[length];
+                topContributors = new int[length * CONTRIBUTORS];
+            }
+        }
+    }
+    
+    public FriendSuggestionEngine(UserIdRegistry registry, Supplier<FriendshipSnapshot> adjacency) {
+        this(registry, adjacency, DEFAULT_CACHE_BYTES);
+    }
+    
+    // cacheBytes acota la memoria estimada de la caché de sugerencias (0 la desactiva)
+    public FriendSuggestionEngine(UserIdRegistry registry, Supplier<FriendshipSnapshot> adjacency,
+                                  long cacheBytes) {
+        this.registry = registry;
+        this.adjacency = adjacency;
+        this.cache = new SuggestionCache(cacheBytes);
+    }
+    
+    public SuggestionCache getCache() {
+        return cache;
+    }
+    
+    // Cambia el criterio de puntuación; las listas en caché se calcularon con el anterior
+    public void setRanker(SuggestionRanker ranker) {
+        this.ranker = Objects.requireNonNull(ranker);
+        cache.clear();
+    }
+    
+    public SuggestionRanker getRanker() {
+        return ranker;
+    }
+    
+    // Cambia la profundidad de la búsqueda; también vacía la caché
+    public void setExpansion(HopExpansion expansion) {
+        this.expansion = Objects.requireNonNull(expansion);
+        cache.clear();
+    }
+    
+    public HopExpansion getExpansion() {
+        return expansion;
+    }
+    
+    // Llamar después de crear o actualizar la amistad A-B: a 2 saltos cambian las sugerencias de A,
+    // de B y de los amigos de ambos; las demás entradas de la caché siguen siendo válidas
+    public void invalidarAmistad(int userA, int userB) {
+        if (expansion.getMaxHops() > 2) {
+            // A más saltos el vecindario afectado crece demasiado: se descarta todo
+            cache.clear();
+            return;
+        }
+        Profile profileA = registry.profileAt(userA);
+        Profile profileB = registry.profileAt(userB);
+        if (profileA != null) cache.invalidateNeighborhood(profileA);
+        if (profileB != null) cache.invalidateNeighborhood(profileB);
+    }
+    
+    // Llamar después de eliminar el perfil del usuario; sus amistades ya se invalidaron con invalidarAmistad
+    public void invalidarUsuario(int user) {
+        cache.invalidateUser(user);
+    }
+    
+    // Llamar después de cambios masivos de amistades (cargas, restauraciones)
+    public void invalidarTodo() {
+        cache.clear();
+    }
+    
+    public List<FriendSuggestion> sugerirAmigos(String userID, String genderFilter,
+                                                 int minAge, int maxAge) {
+        return sugerirAmigos(userID, genderFilter, minAge, maxAge, Integer.MAX_VALUE);
+    }
+    
+    // Sugerencias ordenadas por la puntuación del ranker descendente y luego por nombre
+    // (con el ranker por defecto la puntuación es la prioridad, la mejor calidad X-A).
+    // Cada candidato B acumula su puntuación en arreglos primitivos durante un único recorrido,
+    // y solo los limit mejores pasan por un heap acotado: O(C log limit) para C candidatos.
+    // Una lista en caché calculada con un límite mayor (o completa) se reutiliza sin recorrer el grafo.
+    public List<FriendSuggestion> sugerirAmigos(String userID, String genderFilter,
+                                                 int minAge, int maxAge, int limit) {
+        long start = Metrics.start();
+        int userIndex = registry.indexOf(userID);
+        Profile userProfile = userIndex < 0 ? null : registry.profileAt(userIndex);
+        if (userProfile == null) {
+            EventLog.warn("Usuario no encontrado: " + userID);
+            Metrics.operation(Metrics.Operation.SUGERIR_AMIGOS, userID, start, false);
+            return new ArrayList<>();
+        }
+        
+        limit = Math.max(limit, 0);
+        SuggestionCache.Key key = new SuggestionCache.Key(userIndex, genderFilter, minAge, maxAge);
+        SuggestionCache.Entry entry = cache.get(key, limit);
+        if (entry == null) {
+            entry = calcularSugerencias(userIndex, genderFilter, minAge, maxAge, limit);
+            cache.put(key, entry);
+        }
+        
+        if (EventLog.isEnabled(EventLog.Level.INFO)) {
+            EventLog.info("\nGenerando sugerencias para " + userProfile.getFullName());
+            EventLog.info("Amigos directos: " + userProfile.getFriendCount());
+            EventLog.info("Total de sugerencias generadas: " + entry.candidateCount);
+        }
+        
+        List<FriendSuggestion> suggestions = entry.suggestions;
+        List<FriendSuggestion> result = new ArrayList<>(limit < suggestions.size() ? suggestions.subList(0, limit) : suggestions);
+        Metrics.operation(Metrics.Operation.SUGERIR_AMIGOS, userID, start, true);
+        return result;
+    }
+    
+    private SuggestionCache.Entry calcularSugerencias(int userIndex, String genderFilter,
+                                                      int minAge, int maxAge, int limit) {
+        FriendshipSnapshot graph = adjacency.get();
+        AttributeIndex.Filter filter = registry.getAttributes().filter(genderFilter, minAge, maxAge);
+        int count = computeTop(scratch, graph, userIndex, filter, ranker, expansion, limit);
+        Metrics.suggestionCandidates(scratch.candidateCount);
+        
+        List<FriendSuggestion> sortedSuggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int contributorCount = 0;
+            while (contributorCount < CONTRIBUTORS && scratch.topContributors[i * CONTRIBUTORS + contributorCount] >= 0) {
+                contributorCount++;
+            }
+            String[] contributors = new String[contributorCount];
+            for (int c = 0; c < contributorCount; c++) {
+                contributors[c] = registry.profileAt(scratch.topContributors[i * CONTRIBUTORS + c]).getFullName();
+            }
+            sortedSuggestions.add(new FriendSuggestion(registry.profileAt(scratch.top[i]), scratch.topQuality[i],
+                    scratch.topScore[i], contributors));
+        }
+        return new SuggestionCache.Entry(sortedSuggestions, limit, scratch.eligibleCount);
+    }
+    
+    // Calcula las topK sugerencias de todos los usuarios con perfil y las entrega a sink
+    public void sugerirParaTodos(int topK, String genderFilter, int minAge, int maxAge, SuggestionSink sink) {
+        int users = registry.size();
+        int[] withProfile = new int[users];
+        int count = 0;
+        for (int u = 0; u < users; u++) {
+            if (registry.profileAt(u) != null) {
+                withProfile[count++] = u;
+            }
+        }
+        sugerirEnLote(Arrays.copyOf(withProfile, count), topK, genderFilter, minAge, maxAge, sink);
+    }
+    
+    // Calcula en paralelo (ForkJoinPool común) las topK sugerencias de cada índice de users.
+    // Todo el lote usa la misma instantánea de amistades y da los mismos resultados que sugerirAmigos.
+    // Los usuarios sin perfil se omiten. No debe haber altas de usuarios mientras se ejecuta.
+    public void sugerirEnLote(int[] users, int topK, String genderFilter, int minAge, int maxAge,
+                              SuggestionSink sink) {
+        FriendshipSnapshot graph = adjacency.get();
+        int limit = Math.max(topK, 0);
+        AttributeIndex.Filter filter = registry.getAttributes().filter(genderFilter, minAge, maxAge);
+        ForkJoinPool.commonPool().invoke(new BatchTask(users, 0, users.length, graph, limit, filter, ranker,
+                expansion, sink));
+    }
+    
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int[] users;
+        private final int from;
+        private final int to;
+        private final FriendshipSnapshot graph;
+        private final int limit;
+        private final AttributeIndex.Filter filter;
+        private final SuggestionRanker ranker;
+        private final HopExpansion expansion;
+        private final SuggestionSink sink;
+        
+        BatchTask(int[] users, int from, int to, FriendshipSnapshot graph, int limit, AttributeIndex.Filter filter,
+                  SuggestionRanker ranker, HopExpansion expansion, SuggestionSink sink) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.graph = graph;
+            this.limit = limit;
+            this.filter = filter;
+            this.ranker = ranker;
+            this.expansion = expansion;
+            this.sink = sink;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_LEAF_USERS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(users, from, mid, graph, limit, filter, ranker, expansion, sink),
+                          new BatchTask(users, mid, to, graph, limit, filter, ranker, expansion, sink));
+                return;
+            }
+            
+            Scratch work = batchScratch.poll();
+            if (work == null) {
+                work = new Scratch();
+            }
+            try {
+                for (int i = from; i < to; i++) {
+                    int user = users[i];
+                    if (registry.profileAt(user) == null) continue;
+                    int count = computeTop(work, graph, user, filter, ranker, expansion, limit);
+                    Metrics.suggestionCandidates(work.candidateCount);
+                    sink.accept(user, count, work.top, work.topQuality, work.topVia);
+                }
+            } finally {
+                batchScratch.offer(work);
+            }
+        }
+    }
+    
+    // Recorrido del usuario (2 saltos o los que indique expansion) y selección de los limit mejores
+    // según el ranker en work.top/topQuality/topVia/topScore/topContributors.
+    // Devuelve cuántas sugerencias quedaron; work.eligibleCount es el total de candidatos.
+    private int computeTop(Scratch work, FriendshipSnapshot graph, int userIndex, AttributeIndex.Filter filter,
+                           SuggestionRanker ranker, HopExpansion expansion, int limit) {
+        work.reset(registry.size());
+        int stamp = work.currentStamp;
+        int[] processedStamp = work.processedStamp;
+        int[] viaRank = work.viaRank;
+        int userStart = graph.edgeStart(userIndex);
+        int userEnd = graph.edgeEnd(userIndex);
+        
+        processedStamp[userIndex] = stamp; // No sugerir al mismo usuario
+        viaRank[userIndex] = -1;
+        
+        // Añade amigos directos a los procesados (no sugeridos) y estima el costo de expandirlos
+        long expansionCost = 0;
+        for (int e = userStart; e < userEnd; e++) {
+            int friendIndex = graph.neighbor(e);
+            processedStamp[friendIndex] = stamp;
+            if (registry.profileAt(friendIndex) == null) {
+                viaRank[friendIndex] = -1;
+            } else {
+                viaRank[friendIndex] = e - userStart;
+                expansionCost += graph.degree(friendIndex);
+            }
+        }
+        
+        if (expansion.isExactTwoHops()) {
+            if (filter.isEmpty() || !expandFromMatches(work, graph, userStart, filter, ranker, expansionCost)) {
+                expandFromFriends(work, graph, userStart, userEnd, filter, ranker, Integer.MAX_VALUE, false);
+            }
+        } else {
+            boolean further = expansion.getMaxHops() > 2;
+            expandFromFriends(work, graph, userStart, userEnd, filter, ranker, expansion.fanOut(2), further);
+            if (further) {
+                expandFurther(work, graph, filter, ranker, expansion, limit);
+            }
+        }
+        
+        return selectTop(work, Math.max(0, Math.min(limit, work.eligibleCount)));
+    }
+    
+    // Recorre los amigos de los amigos (los primeros fanOut de cada amigo) y descarta con las
+    // columnas de atributos a quien no cumple el filtro. Con keepFiltered esos usuarios se guardan
+    // igualmente, sin poder sugerirse, porque los siguientes saltos se expanden a partir de ellos.
+    private void expandFromFriends(Scratch work, FriendshipSnapshot graph, int userStart, int userEnd,
+                                   AttributeIndex.Filter filter, SuggestionRanker ranker,
+                                   int fanOut, boolean keepFiltered) {
+        int stamp = work.currentStamp;
+        int[] processedStamp = work.processedStamp;
+        int[] candidateStamp = work.candidateStamp;
+        boolean sums = ranker.sumsPaths();
+        
+        // Itera sobre todos los amigos directos del usuario
+        for (int e = userStart; e < userEnd; e++) {
+            int friendIndex = graph.neighbor(e);
+            int friendshipQuality = graph.quality(e); // Q = calidad(X, A)
+            
+            if (work.viaRank[friendIndex] < 0) continue;
+            
+            // Iterar sobre los amigos del amigo
+            int fofStart = graph.edgeStart(friendIndex);
+            int fofEnd = graph.edgeEnd(friendIndex);
+            int friendDegree = fofEnd - fofStart;
+            if (friendDegree > fanOut) {
+                fofEnd = fofStart + fanOut;
+            }
+            
+            for (int f = fofStart; f < fofEnd; f++) {
+                int fofIndex = graph.neighbor(f);
+                // Si B no es X, no es amigo directo de X y no fue descartado por los filtros
+                if (processedStamp[fofIndex] == stamp) continue;
+                
+                double pathScore = ranker.pathScore(friendshipQuality, graph.quality(f), friendDegree);
+                if (candidateStamp[fofIndex] == stamp) {
+                    // Ya es candidato: suma este camino (la prioridad se queda con la mejor calidad X-A)
+                    work.addPath(work.candidateSlot[fofIndex], friendIndex, friendshipQuality, pathScore, sums);
+                    continue;
+                }
+                
+                // Los filtros se evalúan una sola vez por usuario y sin leer su perfil
+                if (!filter.matches(fofIndex)) {
+                    if (keepFiltered) {
+                        work.addCandidate(fofIndex, friendIndex, friendshipQuality, pathScore);
+                        work.markIneligible(work.candidateCount - 1);
+                    } else {
+                        processedStamp[fofIndex] = stamp;
+                    }
+                    continue;
+                }
+                work.addCandidate(fofIndex, friendIndex, friendshipQuality, pathScore); // Prioridad basada en X-A, no A-B
+            }
+        }
+    }
+    
+    // Saltos 3..maxHops. Las posiciones de candidatos se ocupan en orden de salto, así que la
+    // frontera de cada salto es un rango de posiciones y no hace falta ningún conjunto aparte.
+    // Cada usuario nuevo recibe decay × la puntuación de quien lo alcanzó (dividida entre los vecinos
+    // expandidos si el ranker suma caminos), hereda su amigo intermedio y su prioridad, y solo
+    // acumula caminos desde el salto anterior. Como la puntuación total de una frontera nunca crece,
+    // decay × (suma o máximo de la frontera) acota a todo lo que falta por descubrir: cuando ya hay
+    // limit sugerencias y esa cota no supera a la última, se termina sin expandir más.
+    private void expandFurther(Scratch work, FriendshipSnapshot graph, AttributeIndex.Filter filter,
+                               SuggestionRanker ranker, HopExpansion expansion, int limit) {
+        int stamp = work.currentStamp;
+        int[] processedStamp = work.processedStamp;
+        int[] candidateStamp = work.candidateStamp;
+        boolean sums = ranker.sumsPaths();
+        double decay = expansion.getDecay();
+        int frontierStart = 0;
+        int frontierEnd = work.candidateCount;
+        
+        for (int hop = 3; hop <= expansion.getMaxHops() && frontierStart < frontierEnd; hop++) {
+            double bound = 0;
+            for (int slot = frontierStart; slot < frontierEnd; slot++) {
+                bound = sums ? bound + work.score[slot] : Math.max(bound, work.score[slot]);
+            }
+            bound *= decay;
+            if (limit == 0) {
+                return;
+            }
+            if (work.eligibleCount >= limit && selectTop(work, limit) == limit
+                    && bound < work.topScore[limit - 1]) {
+                return;
+            }
+            
+            int fanOut = expansion.fanOut(hop);
+            for (int slot = frontierStart; slot < frontierEnd; slot++) {
+                int user = work.candidates[slot];
+                int start = graph.edgeStart(user);
+                int end = graph.edgeEnd(user);
+                int expanded = Math.min(end - start, fanOut);
+                if (expanded == 0) continue;
+                end = start + expanded;
+                
+                double pathScore = sums ? decay * work.score[slot] / expanded : decay * work.score[slot];
+                int via = work.contributors[slot * CONTRIBUTORS];
+                int quality = work.bestQuality[slot];
+                for (int f = start; f < end; f++) {
+                    int next = graph.neighbor(f);
+                    if (processedStamp[next] == stamp) continue;
+                    if (candidateStamp[next] == stamp) {
+                        // Solo suma caminos desde el salto anterior, sin repetir amigo intermedio
+                        int nextSlot = work.candidateSlot[next];
+                        if (nextSlot >= frontierEnd && !work.hasContributor(nextSlot, via)) {
+                            work.addPath(nextSlot, via, quality, pathScore, sums);
+                        } else if (nextSlot >= frontierEnd) {
+                            work.addScore(nextSlot, quality, pathScore, sums);
+                        }
+                        continue;
+                    }
+                    work.addCandidate(next, via, quality, pathScore);
+                    if (!filter.matches(next)) {
+                        work.markIneligible(work.candidateCount - 1);
+                    }
+                }
+            }
+            frontierStart = frontierEnd;
+            frontierEnd = work.candidateCount;
+        }
+    }
+    
+    // Con un filtro selectivo es más barato partir de los usuarios que lo cumplen (índice por
+    // género y tramo de edad) y buscar en su lista a los amigos del usuario. Los caminos de cada
+    // candidato se aplican en el orden de la lista de X, el mismo de expandFromFriends, así que
+    // puntuaciones y amigos que más aportan coinciden exactamente.
+    // Devuelve false, sin tocar los candidatos, si esto costaría más que la expansión normal.
+    private boolean expandFromMatches(Scratch work, FriendshipSnapshot graph, int userStart,
+                                      AttributeIndex.Filter filter, SuggestionRanker ranker,
+                                      long expansionCost) {
+        int estimate = filter.estimateMatches();
+        if (estimate >= expansionCost) {
+            return false;
+        }
+        work.ensureMatches(estimate);
+        int matchCount = filter.collectMatches(work.matches);
+        if (matchCount < 0) {
+            return false;
+        }
+        long reverseCost = matchCount;
+        for (int i = 0; i < matchCount && reverseCost < expansionCost; i++) {
+            reverseCost += graph.degree(work.matches[i]);
+        }
+        if (reverseCost >= expansionCost) {
+            return false;
+        }
+        
+        int stamp = work.currentStamp;
+        int[] processedStamp = work.processedStamp;
+        int[] viaRank = work.viaRank;
+        boolean sums = ranker.sumsPaths();
+        for (int i = 0; i < matchCount; i++) {
+            int candidate = work.matches[i];
+            if (processedStamp[candidate] == stamp || work.candidateStamp[candidate] == stamp) continue;
+            
+            // Caminos X - A - candidato como (posición de A en la lista de X, calidad A-candidato)
+            int start = graph.edgeStart(candidate);
+            int end = graph.edgeEnd(candidate);
+            work.ensurePaths(end - start);
+            long[] paths = work.paths;
+            int pathCount = 0;
+            for (int f = start; f < end; f++) {
+                int friendIndex = graph.neighbor(f);
+                if (processedStamp[friendIndex] != stamp || viaRank[friendIndex] < 0) continue;
+                paths[pathCount++] = (long) viaRank[friendIndex] << 32 | graph.quality(f);
+            }
+            if (pathCount == 0) continue;
+            Arrays.sort(paths, 0, pathCount);
+            
+            for (int p = 0; p < pathCount; p++) {
+                int edge = userStart + (int) (paths[p] >>> 32);
+                int friendIndex = graph.neighbor(edge);
+                int friendshipQuality = graph.quality(edge);
+                double pathScore = ranker.pathScore(friendshipQuality, (int) paths[p], graph.degree(friendIndex));
+                if (p == 0) {
+                    work.addCandidate(candidate, friendIndex, friendshipQuality, pathScore);
+                } else {
+                    work.addPath(work.candidateSlot[candidate], friendIndex, friendshipQuality, pathScore, sums);
+                }
+            }
+        }
+        return true;
+    }
+    
+    // Min-heap acotado con los k mejores candidatos (la raíz es el peor de ellos);
+    // al final se vacía de peor a mejor para dejarlos ordenados en work.top
+    private int selectTop(Scratch work, int k) {
+        if (k == 0) {
+            return 0;
+        }
+        work.ensureTop(k);
+        int[] heap = work.heap;
+        int heapSize = 0;
+        for (int slot = 0; slot < work.candidateCount; slot++) {
+            if (!work.eligible[slot]) continue;
+            if (heapSize < k) {
+                heap[heapSize] = slot;
+                siftUp(work, heapSize++);
+            } else if (ranksBefore(work, slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(work, heapSize);
+            }
+        }
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int slot = heap[0];
+            work.top[i] = work.candidates[slot];
+            work.topQuality[i] = work.bestQuality[slot];
+            work.topVia[i] = work.contributors[slot * CONTRIBUTORS];
+            work.topScore[i] = work.score[slot];
+            System.arraycopy(work.contributors, slot * CONTRIBUTORS, work.topContributors, i * CONTRIBUTORS,
+                    CONTRIBUTORS);
+            heap[0] = heap[--heapSize];
+            siftDown(work, heapSize);
+        }
+        return k;
+    }
+    
+    // Orden de las sugerencias: mayor puntuación primero y, a igual puntuación, por nombre
+    private boolean ranksBefore(Scratch work, int slotA, int slotB) {
+        if (work.score[slotA] != work.score[slotB]) {
+            return work.score[slotA] > work.score[slotB];
+        }
+        int a = work.candidates[slotA];
+        int b = work.candidates[slotB];
+        int byName = registry.profileAt(a).getFullName().compareTo(registry.profileAt(b).getFullName());
+        return byName != 0 ? byName < 0 : a < b;
+    }
+    
+    private void siftUp(Scratch work, int pos) {
+        int[] heap = work.heap;
+        int value = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!ranksBefore(work, heap[parent], value)) break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = value;
+    }
+    
+    private void siftDown(Scratch work, int size) {
+        if (size == 0) return;
+        int[] heap = work.heap;
+        int pos = 0;
+        int value = heap[0];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ranksBefore(work, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksBefore(work, value, heap[child])) break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = value;
+    }
+    
+    public void mostrarTopSugerencias(String userID, int topN) {
+        List<FriendSuggestion> suggestions = sugerirAmigos(userID, null, -1, -1, topN);
+        
+        System.out.println("TOP " + topN + " SUGERENCIAS DE AMIGOS");
+
+        int count = 0;
+        for (FriendSuggestion suggestion : suggestions) {
+            if (count >= topN) break;
+            
+            Profile profile = suggestion.getSuggestedProfile();
+            String stars = "★".repeat(suggestion.getPriority()) + "☆".repeat(5 - suggestion.getPriority());
+            
+            System.out.printf("%d. %-20s | %s | A través de: %-15s\n",
+                    count + 1,
+                    profile.getFullName(),
+                    stars,
+                    suggestion.getThroughFriend());
+            System.out.printf("Edad: %d | Género: %s | ID: %-10s\n",
+                    profile.getAge(),
+                    profile.getGender(),
+                    profile.getUserID());
+            
+            if (count < topN - 1 && count < suggestions.size() - 1) {
+            }
+            count++;
+        }
+        if (count == 0) {
+            System.out.println("No hay sugerencias disponibles");
+        }
+    }
+    
+    public void mostrarSugerenciasConFiltros(String userID, String genderFilter, int minAge, int maxAge) {
+        List<FriendSuggestion> suggestions = sugerirAmigos(userID, genderFilter, minAge, maxAge);
+        
+        System.out.println("\nSUGERENCIAS CON FILTROS");
+        if (genderFilter != null) {
+            System.out.println("Filtro de género: " + genderFilter);
+        }
+        if (minAge > 0) {
+            System.out.println("Edad mínima: " + minAge);
+        }
+        if (maxAge > 0) {
+            System.out.println("Edad máxima: " + maxAge);
+        }
+        System.out.println("Total de sugerencias: " + suggestions.size());
+
+        for (int i = 0; i < suggestions.size(); i++) {
+            FriendSuggestion suggestion = suggestions.get(i);
+            System.out.println((i + 1) + ". " + suggestion);
+        }
+        
+        if (suggestions.isEmpty()) {
+            System.out.println("No hay sugerencias que cumplan con los filtros especificados.");
+        }
+    }
+}
@@ -0,0 +1,904 @@
+package conectads;
+
+import java.util.Arrays;
+
+// Componentes conectados de la red con union-find ponderado (WQU), con bajas de amistades y usuarios.
+// Un union-find no puede separar componentes, así que cada usuario apunta a un nodo del bosque
+// (nodeOf) y al quedar separado pasa a un nodo nuevo: el anterior queda abandonado en el árbol
+// para que los caminos de los demás usuarios sigan siendo válidos. Tras cada baja una búsqueda
+// bidireccional acotada sobre las listas de amigos decide qué pasó:
+//  - los extremos siguen conectados: no cambia nada;
+//  - un lado se agotó: ese lado es un componente nuevo y sus usuarios se separan en el acto;
+//  - se acabó el presupuesto: el componente queda pendiente y se reconstruye todo de una vez,
+//    para todas las bajas acumuladas, cuando una consulta necesita ese componente.
+// Al eliminar un usuario no se busca tras cada amistad: sus antiguos amigos se resuelven en una
+// sola pasada contra una zona conocida del componente que queda (ver separateFormerFriends).
+public class FriendshipGraph {
+
+    // Entradas de listas de amigos que puede leer la búsqueda posterior a una baja
+    private static final int SEARCH_BUDGET = 1 << 16;
+    // Al eliminar un usuario, la zona conocida de su componente empieza con una búsqueda corta
+    private static final int ANCHOR_BUDGET = 1 << 10;
+    private static final int CONNECTED = 0;
+    private static final int SEPARATED = 1;
+    private static final int UNKNOWN = 2;
+    // Nodos abandonados tolerados antes de compactar el bosque (además de uno por usuario)
+    private static final int MIN_ABANDONED_FOR_COMPACTION = 1024;
+
+    private UserIdRegistry registry;             // mapeo compartido UserID <-> índice numérico
+    private int[] nodeOf;                        // índice de usuario -> nodo del bosque, -1 si se eliminó
+    private int[] parent;                        // parent of node i
+    private int[] size;                          // usuarios (sin nodos abandonados) en el subárbol con raíz en i
+    private int[] nodeUser;                      // nodo -> usuario para el que se creó
+    private boolean[] pendingRoot;               // raíz de un componente que quizás se dividió
+    private volatile int pendingRoots;           // cuántas raíces pendientes hay
+    private int count;                           // número de componentes
+    private int nextIndex;                       // próximo índice disponible
+    private int capacity;                        // capacidad máxima actual
+    private int nodeCount;                       // nodos en uso, incluidos los abandonados
+    private int nodeCapacity;
+    private int removedUsers;
+    private int abandonedNodes;                  // nodos que ya no pertenecen a ningún usuario
+
+    // Histograma de tamaños de componentes: componentsBySize[s] = componentes con s usuarios.
+    // Cada unión secuencial lo actualiza en O(1); en modo concurrente se reconstruye junto con size[]
+    private int[] componentsBySize;
+    private int largestComponent;
+
+    // Modo concurrente: las uniones y consultas usan un union-find sin locks y
+    // size[] se recalcula a partir de las raíces cuando alguien lo necesita
+    private ConcurrentUnionFind concurrentSets;  // null en modo secuencial
+    private volatile boolean sizesStale;
+
+    // Búsqueda posterior a una baja; se crea con la primera baja
+    private SearchSide searchFrom;
+    private SearchSide searchTo;
+    private int searchStamp;
+
+    private static final class SearchSide {
+        int[] mark = new int[0];     // == searchStamp si este lado ya visitó al usuario
+        int[] queue = new int[0];
+        int head;
+        int tail;
+        long work;                   // entradas de listas de amigos leídas
+    }
+
+    public FriendshipGraph(UserIdRegistry registry, int initialCapacity) {
+        this(registry, initialCapacity, false);
+    }
+
+    // Con concurrent = true, varios hilos pueden llamar a conectarUsuarios/estaConectados a la vez
+    // sobre usuarios ya registrados. El registro de usuarios, ensureCapacity y las bajas siguen
+    // siendo operaciones de un solo hilo que no deben solaparse con las uniones ni las consultas.
+    public FriendshipGraph(UserIdRegistry registry, int initialCapacity, boolean concurrent) {
+        this.capacity = initialCapacity;
+        this.nodeCapacity = initialCapacity;
+        this.registry = registry;
+        this.nodeOf = new int[capacity];
+        this.size = new int[capacity];
+        this.nodeUser = new int[capacity];
+        this.pendingRoot = new boolean[capacity];
+        this.componentsBySize = new int[capacity + 1];
+        this.count = 0;
+        this.nextIndex = 0;
+
+        if (concurrent) {
+            this.concurrentSets = new ConcurrentUnionFind(capacity);
+        } else {
+            this.parent = new int[capacity];
+        }
+    }
+
+    public FriendshipGraph(int initialCapacity) {
+        this(new UserIdRegistry(initialCapacity), initialCapacity);
+    }
+
+    public FriendshipGraph() {
+        this(1000);
+    }
+
+    public int registerUser(String userID) {
+        int index = registry.intern(userID);
+
+        // Los índices los asigna el registro compartido; se incorporan al grafo
+        // todos los que aún no estaban, cada uno como su propio componente
+        while (index >= capacity) {
+            expandCapacity();
+        }
+        if (index >= nextIndex) {
+            for (int u = nextIndex; u <= index; u++) {
+                nodeOf[u] = newNode(u);
+            }
+            int added = index + 1 - nextIndex;
+            count += added;
+            componentsBySize[1] += added;
+            largestComponent = Math.max(largestComponent, 1);
+            nextIndex = index + 1;
+        } else if (nodeOf[index] < 0) {
+            // Usuario eliminado que vuelve a registrarse: empieza solo, en un nodo nuevo
+            nodeOf[index] = newNode(index);
+            removedUsers--;
+            count++;
+            componentsBySize[1]++;
+            largestComponent = Math.max(largestComponent, 1);
+        }
+        return index;
+    }
+
+    // Índice del usuario dentro del grafo o -1 si no está registrado o fue eliminado
+    private int indexOf(String userID) {
+        int index = registry.indexOf(userID);
+        return index < nextIndex && index >= 0 && nodeOf[index] >= 0 ? index : -1;
+    }
+
+    // Reserva espacio para expectedUsers usuarios sin expansiones intermedias
+    public void ensureCapacity(int expectedUsers) {
+        if (expectedUsers > capacity) {
+            expandCapacity(expectedUsers);
+        }
+    }
+
+    private void expandCapacity() {
+        expandCapacity(capacity * 2);
+    }
+
+    private void expandCapacity(int newCapacity) {
+        long start = Metrics.start();
+        nodeOf = Arrays.copyOf(nodeOf, newCapacity);
+        componentsBySize = Arrays.copyOf(componentsBySize, newCapacity + 1);
+        if (nodeCapacity < newCapacity) {
+            growNodes(newCapacity);
+        }
+        Metrics.resized("FriendshipGraph", capacity, newCapacity, start);
+        capacity = newCapacity;
+        EventLog.info("Capacidad del grafo expandida a: " + capacity);
+    }
+
+    private void growNodes(int newNodeCapacity) {
+        size = Arrays.copyOf(size, newNodeCapacity);
+        nodeUser = Arrays.copyOf(nodeUser, newNodeCapacity);
+        pendingRoot = Arrays.copyOf(pendingRoot, newNodeCapacity);
+        if (concurrentSets != null) {
+            concurrentSets.grow(newNodeCapacity);
+        } else {
+            parent = Arrays.copyOf(parent, newNodeCapacity);
+        }
+        nodeCapacity = newNodeCapacity;
+    }
+
+    // Nodo nuevo del bosque, como raíz de un componente de un usuario
+    private int newNode(int user) {
+        if (nodeCount == nodeCapacity) {
+            long start = Metrics.start();
+            growNodes(nodeCapacity * 2);
+            Metrics.resized("FriendshipGraph.nodos", nodeCapacity / 2, nodeCapacity, start);
+        }
+        int node = nodeCount++;
+        if (parent != null) {
+            parent[node] = node;
+        }
+        size[node] = 1;
+        nodeUser[node] = user;
+        pendingRoot[node] = false;
+        return node;
+    }
+
+    public boolean isConcurrent() {
+        return concurrentSets != null;
+    }
+
+    public int getComponentCount() {
+        resolvePendingSplits();
+        if (concurrentSets != null) {
+            return count - concurrentSets.getMergeCount();
+        }
+        return count;
+    }
+
+    // Usuarios incorporados al grafo (índices 0 .. getUserCount() - 1, incluidos los eliminados)
+    public int getUserCount() {
+        return nextIndex;
+    }
+
+    // Copia parent/size de los usuarios del grafo para guardarlos en una instantánea.
+    // Un usuario eliminado se guarda como raíz de tamaño 0.
+    public void exportSets(int[] parentOut, int[] sizeOut) {
+        // El formato guardado es un bosque por índice de usuario: sin bajas pendientes ni nodos extra
+        if (pendingRoots > 0 || abandonedNodes > 0 || nodeCount != nextIndex) {
+            rebuild();
+        }
+        refreshSizesIfStale();
+        for (int i = 0; i < nextIndex; i++) {
+            if (nodeOf[i] < 0) {
+                parentOut[i] = i;
+                sizeOut[i] = 0;
+            } else {
+                parentOut[i] = parentOf(i);
+                sizeOut[i] = size[i];
+            }
+        }
+    }
+
+    // Carga un bosque guardado con exportSets en un grafo vacío, sin repetir las uniones
+    public void restoreSets(int[] parents, int[] sizes, int users) {
+        if (nextIndex != 0) {
+            throw new IllegalStateException("Solo se puede restaurar un grafo vacío");
+        }
+        ensureCapacity(users);
+
+        int components = 0;
+        int removed = 0;
+        for (int i = 0; i < users; i++) {
+            if (parents[i] < 0 || parents[i] >= users) {
+                throw new IllegalArgumentException("Padre inválido para el índice " + i + ": " + parents[i]);
+            }
+            if (parents[i] == i) {
+                if (sizes[i] == 0) {
+                    removed++;
+                } else {
+                    components++;
+                }
+            }
+        }
+
+        for (int i = 0; i < users; i++) {
+            nodeOf[i] = parents[i] == i && sizes[i] == 0 ? -1 : i;
+            nodeUser[i] = i;
+        }
+        System.arraycopy(sizes, 0, size, 0, users);
+        if (concurrentSets != null) {
+            concurrentSets.restore(parents, users, users - removed - components);
+            count = users - removed;
+        } else {
+            System.arraycopy(parents, 0, parent, 0, users);
+            count = components;
+        }
+        nextIndex = users;
+        nodeCount = users;
+        removedUsers = removed;
+        rebuildComponentHistogram();
+    }
+
+    // Recalcula el histograma a partir de los tamaños de las raíces (size[] debe estar al día)
+    private void rebuildComponentHistogram() {
+        Arrays.fill(componentsBySize, 0);
+        largestComponent = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (parentOf(node) == node && size[node] > 0) {
+                componentsBySize[size[node]]++;
+                largestComponent = Math.max(largestComponent, size[node]);
+            }
+        }
+    }
+
+    // Raíz (nodo representante) del componente del usuario p
+    public int find(int p) {
+        validate(p);
+        if (concurrentSets != null) {
+            return concurrentSets.find(nodeOf[p]);
+        }
+        return findNode(nodeOf[p]);
+    }
+
+    private int findNode(int node) {
+        int root = node;
+        int pathLength = 0;
+
+        // Encontrar la raíz
+        while (root != parent[root]) {
+            root = parent[root];
+            pathLength++;
+        }
+        Metrics.findPath(pathLength);
+
+        // Compresión de caminos: hacer que todos los nodos apunten directamente a la raíz
+        while (node != root) {
+            int next = parent[node];
+            parent[node] = root;
+            node = next;
+        }
+
+        return root;
+    }
+
+    public boolean estaConectados(String userID1, String userID2) {
+        int index1 = indexOf(userID1);
+        int index2 = indexOf(userID2);
+        if (index1 < 0 || index2 < 0) {
+            return false;
+        }
+
+        return estaConectados(index1, index2);
+    }
+
+    // Raíces distintas son una respuesta exacta (las bajas nunca unen componentes); la misma raíz
+    // solo obliga a reconstruir si ese componente tiene bajas pendientes
+    public boolean estaConectados(int index1, int index2) {
+        validate(index1);
+        validate(index2);
+        if (concurrentSets != null) {
+            resolvePendingSplits();
+            return concurrentSets.connected(nodeOf[index1], nodeOf[index2]);
+        }
+        int root = findNode(nodeOf[index1]);
+        if (root != findNode(nodeOf[index2])) {
+            return false;
+        }
+        if (pendingRoots > 0 && pendingRoot[root]) {
+            resolvePendingSplits();
+            return findNode(nodeOf[index1]) == findNode(nodeOf[index2]);
+        }
+        return true;
+    }
+
+    // Unión ponderada por tamaño: la raíz del árbol menor se cuelga de la raíz del mayor.
+    // Junto con la compresión de caminos de find() mantiene los árboles casi planos.
+    // Devuelve false si ya estaban en el mismo componente.
+    public boolean union(int p, int q) {
+        validate(p);
+        validate(q);
+        if (concurrentSets != null) {
+            // Las raíces pendientes no se pueden seguir con uniones sin locks: se resuelven antes
+            resolvePendingSplits();
+            if (concurrentSets.union(nodeOf[p], nodeOf[q])) {
+                sizesStale = true;
+                return true;
+            }
+            return false;
+        }
+        return unionNodes(nodeOf[p], nodeOf[q]);
+    }
+
+    private boolean unionNodes(int nodeP, int nodeQ) {
+        int rootP = findNode(nodeP);
+        int rootQ = findNode(nodeQ);
+
+        // Verificar si ya están en el mismo componente
+        if (rootP == rootQ) {
+            return false;
+        }
+
+        int sizeP = size[rootP];
+        int sizeQ = size[rootQ];
+        int root = rootP;
+        int child = rootQ;
+        if (sizeP < sizeQ) {
+            root = rootQ;
+            child = rootP;
+        }
+        parent[child] = root;
+        size[root] = sizeP + sizeQ;
+
+        // El componente unido sigue pendiente si alguna de sus partes lo estaba
+        if (pendingRoots > 0 && pendingRoot[child]) {
+            pendingRoot[child] = false;
+            if (pendingRoot[root]) {
+                pendingRoots--;
+            } else {
+                pendingRoot[root] = true;
+            }
+        }
+
+        componentsBySize[sizeP]--;
+        componentsBySize[sizeQ]--;
+        componentsBySize[sizeP + sizeQ]++;
+        largestComponent = Math.max(largestComponent, sizeP + sizeQ);
+        count--;
+        return true;
+    }
+
+    public void conectarUsuarios(String userID1, String userID2) {
+        int index1 = indexOf(userID1);
+        int index2 = indexOf(userID2);
+        // Los usuarios ya registrados no modifican el registro, lo que permite uniones en paralelo
+        if (index1 < 0) {
+            index1 = registerUser(userID1);
+        }
+        if (index2 < 0) {
+            index2 = registerUser(userID2);
+        }
+
+        if (union(index1, index2)) {
+            if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                EventLog.debug("Conexión establecida entre " + userID1 + " y " + userID2);
+            }
+        }
+    }
+
+    // Llamar después de quitar la amistad p-q de las listas de amigos de ambos perfiles
+    public void removeConnection(int p, int q) {
+        validate(p);
+        validate(q);
+        if (p == q) {
+            return;
+        }
+        // La reconstrucción ya parte de las listas sin esta amistad
+        if (compactIfNeeded()) {
+            return;
+        }
+
+        int result = searchAfterRemoval(p, q);
+        if (result == SEPARATED) {
+            SearchSide separated = searchFrom.head == searchFrom.tail ? searchFrom : searchTo;
+            detach(separated.queue, separated.tail);
+            if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                EventLog.debug("Componente dividido: " + separated.tail + " usuario(s) separados");
+            }
+        } else if (result == UNKNOWN) {
+            markPending(rootOf(nodeOf[p]));
+        }
+    }
+
+    // Quita al usuario del grafo; llamar después de quitar todas sus amistades de las listas de
+    // amigos. formerFriends son los friendCount amigos que tenía: se separan de una vez los
+    // componentes en que queda dividido el suyo, en lugar de buscar tras cada amistad quitada.
+    public void removeUser(int p, int[] formerFriends, int friendCount) {
+        validate(p);
+        // Una compactación ya parte de las listas sin sus amistades: queda solo en su componente
+        boolean othersRemain = !compactIfNeeded() && friendCount > 0 &&
+                separateFormerFriends(p, formerFriends, friendCount);
+        int root = rootOf(nodeOf[p]);
+        nodeOf[p] = -1;
+        removedUsers++;
+        abandonedNodes++;
+
+        if (concurrentSets != null) {
+            // Si su componente queda pendiente, la reconstrucción recalcula el conteo
+            if (!othersRemain && !pendingRoot[root]) {
+                count--;
+            }
+            sizesStale = true;
+            return;
+        }
+        int oldSize = size[root];
+        size[root] = oldSize - 1;
+        componentsBySize[oldSize]--;
+        if (oldSize > 1) {
+            componentsBySize[oldSize - 1]++;
+        } else {
+            count--;
+            if (pendingRoot[root]) {
+                pendingRoot[root] = false;
+                pendingRoots--;
+            }
+        }
+        shrinkLargestComponent();
+    }
+
+    public void desconectarUsuarios(String userID1, String userID2) {
+        int index1 = indexOf(userID1);
+        int index2 = indexOf(userID2);
+        if (index1 >= 0 && index2 >= 0) {
+            removeConnection(index1, index2);
+        }
+    }
+
+    private int rootOf(int node) {
+        return concurrentSets != null ? concurrentSets.find(node) : findNode(node);
+    }
+
+    // BFS bidireccional entre los extremos de la amistad quitada sobre las listas de amigos actuales.
+    // En cada paso expande un usuario del lado con menos trabajo acumulado (contando al siguiente
+    // en cola), así un lado pequeño, como un usuario que se quedó sin amigos, se agota enseguida.
+    private int searchAfterRemoval(int a, int b) {
+        prepareSearch(1);
+        int stamp = ++searchStamp;
+        startSide(searchFrom, a, stamp);
+        startSide(searchTo, b, stamp);
+
+        int result = UNKNOWN;
+        while (searchFrom.work + searchTo.work <= SEARCH_BUDGET) {
+            if (searchFrom.head == searchFrom.tail || searchTo.head == searchTo.tail) {
+                result = SEPARATED;
+                break;
+            }
+            boolean forward = searchFrom.work + nextDegree(searchFrom) <= searchTo.work + nextDegree(searchTo);
+            SearchSide side = forward ? searchFrom : searchTo;
+            SearchSide other = forward ? searchTo : searchFrom;
+
+            Profile profile = registry.profileAt(side.queue[side.head++]);
+            int degree = profile == null ? 0 : profile.getFriendCount();
+            side.work += degree + 1;
+            for (int i = 0; i < degree; i++) {
+                int friend = profile.getFriendIndexAt(i);
+                if (other.mark[friend] == stamp) {
+                    result = CONNECTED;
+                    break;
+                }
+                if (side.mark[friend] != stamp) {
+                    side.mark[friend] = stamp;
+                    side.queue[side.tail++] = friend;
+                }
+            }
+            if (result == CONNECTED) {
+                break;
+            }
+        }
+        Metrics.connectivitySearch(searchFrom.tail + searchTo.tail);
+        return result;
+    }
+
+    // Deja espacio para stamps sellos nuevos sin que searchStamp se desborde
+    private void prepareSearch(int stamps) {
+        if (searchFrom == null) {
+            searchFrom = new SearchSide();
+            searchTo = new SearchSide();
+        }
+        if (searchFrom.mark.length < nextIndex) {
+            for (SearchSide side : new SearchSide[] {searchFrom, searchTo}) {
+                side.mark = Arrays.copyOf(side.mark, capacity);
+                side.queue = new int[capacity];
+            }
+        }
+        if (searchStamp > Integer.MAX_VALUE - stamps - 1) {
+            Arrays.fill(searchFrom.mark, 0);
+            Arrays.fill(searchTo.mark, 0);
+            searchStamp = 0;
+        }
+    }
+
+    // Separa los componentes que deja un usuario eliminado. La zona conocida (searchFrom.mark ==
+    // known) empieza con lo recorrido desde el primer amigo cuya búsqueda corta (ANCHOR_BUDGET)
+    // no se agotó: ese componente es el que se queda con los nodos originales. Cada otro
+    // amigo hace un BFS de un solo lado hasta tocarla (sigue unido), agotarse (se separa) o pasar
+    // el presupuesto (el componente queda pendiente). Devuelve true si en el componente original
+    // quedan otros usuarios o quedó pendiente.
+    private boolean separateFormerFriends(int p, int[] friends, int k) {
+        prepareSearch(k + 1);
+        int known = ++searchStamp;
+        int oldRoot = rootOf(nodeOf[p]);
+        boolean anchored = false;
+        long work = 0;
+        SearchSide side = searchTo;
+
+        for (int i = 0; i < k; i++) {
+            int friend = friends[i];
+            // Ya resuelto: es el propio usuario, está en la zona conocida o se separó antes
+            if (friend == p || searchFrom.mark[friend] == known || rootOf(nodeOf[friend]) != oldRoot) {
+                continue;
+            }
+            if (work > (long) SEARCH_BUDGET * 16) {
+                markPending(oldRoot);
+                return true;
+            }
+            int result = exploreFrom(friend, ++searchStamp, known, anchored ? SEARCH_BUDGET : ANCHOR_BUDGET);
+            work += side.work;
+            if (result == SEPARATED) {
+                detach(side.queue, side.tail);
+            } else if (result == CONNECTED || !anchored) {
+                anchored = true;
+                for (int j = 0; j < side.tail; j++) {
+                    searchFrom.mark[side.queue[j]] = known;
+                }
+            } else {
+                markPending(oldRoot);
+                return true;
+            }
+        }
+        return anchored;
+    }
+
+    // BFS de un solo lado desde user sobre searchTo: CONNECTED si toca la zona conocida,
+    // SEPARATED si recorrió todo su componente y UNKNOWN si pasó el presupuesto
+    private int exploreFrom(int user, int stamp, int known, int budget) {
+        SearchSide side = searchTo;
+        startSide(side, user, stamp);
+        int result = SEPARATED;
+        while (side.head < side.tail) {
+            if (side.work > budget) {
+                result = UNKNOWN;
+                break;
+            }
+            Profile profile = registry.profileAt(side.queue[side.head++]);
+            int degree = profile == null ? 0 : profile.getFriendCount();
+            side.work += degree + 1;
+            for (int i = 0; i < degree; i++) {
+                int friend = profile.getFriendIndexAt(i);
+                if (searchFrom.mark[friend] == known) {
+                    result = CONNECTED;
+                    break;
+                }
+                if (side.mark[friend] != stamp) {
+                    side.mark[friend] = stamp;
+                    side.queue[side.tail++] = friend;
+                }
+            }
+            if (result == CONNECTED) {
+                break;
+            }
+        }
+        Metrics.connectivitySearch(side.tail);
+        return result;
+    }
+
+    private void markPending(int root) {
+        if (!pendingRoot[root]) {
+            pendingRoot[root] = true;
+            pendingRoots++;
+        }
+    }
+
+    private static void startSide(SearchSide side, int user, int stamp) {
+        side.mark[user] = stamp;
+        side.queue[0] = user;
+        side.head = 0;
+        side.tail = 1;
+        side.work = 0;
+    }
+
+    private int nextDegree(SearchSide side) {
+        Profile profile = registry.profileAt(side.queue[side.head]);
+        return profile == null ? 0 : profile.getFriendCount();
+    }
+
+    // Pasa los usuarios (un componente completo según las listas de amigos) a nodos nuevos y
+    // los une entre sí; el componente del que salen conserva a los demás usuarios
+    private void detach(int[] users, int k) {
+        int oldRoot = rootOf(nodeOf[users[0]]);
+        for (int i = 0; i < k; i++) {
+            nodeOf[users[i]] = newNode(users[i]);
+        }
+        abandonedNodes += k;
+        count += k;
+        if (concurrentSets == null) {
+            int oldSize = size[oldRoot];
+            size[oldRoot] = oldSize - k;
+            componentsBySize[oldSize]--;
+            if (oldSize > k) {
+                componentsBySize[oldSize - k]++;
+            } else {
+                count--;
+            }
+            componentsBySize[1] += k;
+        }
+
+        for (int i = 0; i < k; i++) {
+            int user = users[i];
+            Profile profile = registry.profileAt(user);
+            if (profile == null) continue;
+            for (int slot = 0; slot < profile.getFriendCount(); slot++) {
+                int friend = profile.getFriendIndexAt(slot);
+                if (friend > user) {
+                    if (concurrentSets != null) {
+                        concurrentSets.union(nodeOf[user], nodeOf[friend]);
+                    } else {
+                        unionNodes(nodeOf[user], nodeOf[friend]);
+                    }
+                }
+            }
+        }
+
+        if (concurrentSets != null) {
+            sizesStale = true;
+        } else {
+            shrinkLargestComponent();
+        }
+    }
+
+    private void shrinkLargestComponent() {
+        while (largestComponent > 0 && componentsBySize[largestComponent] == 0) {
+            largestComponent--;
+        }
+    }
+
+    // Con demasiados nodos abandonados el bosque se reconstruye para no crecer sin límite
+    private boolean compactIfNeeded() {
+        if (abandonedNodes > Math.max(nextIndex, MIN_ABANDONED_FOR_COMPACTION)) {
+            rebuild();
+            return true;
+        }
+        return false;
+    }
+
+    private void resolvePendingSplits() {
+        if (pendingRoots > 0) {
+            rebuildPending();
+        }
+    }
+
+    private synchronized void rebuildPending() {
+        if (pendingRoots > 0) {
+            rebuild();
+        }
+    }
+
+    // Recalcula los componentes desde cero con las listas de amigos de los perfiles: resuelve de
+    // una vez todas las bajas pendientes y descarta los nodos abandonados. O(usuarios + amistades).
+    // El bosque se arma con índices de usuario como nodos, sin métricas ni histograma por unión.
+    private void rebuild() {
+        long start = Metrics.start();
+        int[] forest = concurrentSets != null ? new int[nextIndex] : parent;
+        for (int u = 0; u < nextIndex; u++) {
+            if (nodeOf[u] >= 0) {
+                nodeOf[u] = u;
+            }
+            nodeUser[u] = u;
+            forest[u] = u;
+            size[u] = nodeOf[u] >= 0 ? 1 : 0;
+        }
+        Arrays.fill(pendingRoot, false);
+        nodeCount = nextIndex;
+        abandonedNodes = 0;
+
+        int merges = 0;
+        for (int u = 0; u < nextIndex; u++) {
+            Profile profile = nodeOf[u] >= 0 ? registry.profileAt(u) : null;
+            if (profile == null) continue;
+            for (int slot = 0; slot < profile.getFriendCount(); slot++) {
+                int friend = profile.getFriendIndexAt(slot);
+                if (friend <= u) continue;
+                int rootU = rebuildFind(forest, u);
+                int rootF = rebuildFind(forest, friend);
+                if (rootU == rootF) continue;
+                if (size[rootU] < size[rootF]) {
+                    int tmp = rootU;
+                    rootU = rootF;
+                    rootF = tmp;
+                }
+                forest[rootF] = rootU;
+                size[rootU] += size[rootF];
+                merges++;
+            }
+        }
+
+        if (concurrentSets != null) {
+            concurrentSets = new ConcurrentUnionFind(nodeCapacity);
+            concurrentSets.restore(forest, nextIndex, merges);
+            count = nextIndex - removedUsers;
+        } else {
+            count = nextIndex - removedUsers - merges;
+        }
+        rebuildComponentHistogram();
+        // Se escribe al final: quien vea 0 ve también el bosque ya reconstruido
+        pendingRoots = 0;
+        Metrics.connectivityRebuilt(start);
+        EventLog.debug("Componentes reconstruidos tras bajas de amistades");
+    }
+
+    private static int rebuildFind(int[] forest, int node) {
+        while (forest[node] != node) {
+            forest[node] = forest[forest[node]];
+            node = forest[node];
+        }
+        return node;
+    }
+
+    private void validate(int p) {
+        if (p < 0 || p >= nextIndex) {
+            throw new IllegalArgumentException("Índice " + p + " no está entre 0 y " + (nextIndex - 1));
+        }
+        if (nodeOf[p] < 0) {
+            throw new IllegalArgumentException("El usuario con índice " + p + " fue eliminado del grafo");
+        }
+    }
+
+    public int getComponentSize(String userID) {
+        int index = indexOf(userID);
+        if (index < 0) {
+            return 0;
+        }
+
+        refreshSizesIfStale();
+        int root = find(index);
+        if (pendingRoots > 0 && pendingRoot[root]) {
+            resolvePendingSplits();
+            refreshSizesIfStale();
+            root = find(index);
+        }
+        return size[root];
+    }
+
+    // En modo concurrente los tamaños se recalculan contando los usuarios de cada raíz
+    private synchronized void refreshSizesIfStale() {
+        if (!sizesStale) {
+            return;
+        }
+        // Se limpia antes de contar: una unión concurrente volverá a marcarlo
+        sizesStale = false;
+        Arrays.fill(size, 0, nodeCount, 0);
+        for (int i = 0; i < nextIndex; i++) {
+            if (nodeOf[i] >= 0) {
+                size[concurrentSets.find(nodeOf[i])]++;
+            }
+        }
+        rebuildComponentHistogram();
+    }
+
+    public int getLargestComponentSize() {
+        resolvePendingSplits();
+        refreshSizesIfStale();
+        return largestComponent;
+    }
+
+    // Número de componentes con exactamente componentSize usuarios
+    public int getComponentCountOfSize(int componentSize) {
+        resolvePendingSplits();
+        refreshSizesIfStale();
+        if (componentSize < 1 || componentSize > largestComponent) {
+            return 0;
+        }
+        return componentsBySize[componentSize];
+    }
+
+    // Cuenta los componentes recorriendo todos los usuarios y compara con el histograma mantenido.
+    // Es O(usuarios): solo para verificar, las consultas normales usan el histograma.
+    public boolean verifyComponentStatistics() {
+        resolvePendingSplits();
+        refreshSizesIfStale();
+        int[] usersByRoot = new int[nodeCount];
+        for (int i = 0; i < nextIndex; i++) {
+            if (nodeOf[i] >= 0) {
+                usersByRoot[find(i)]++;
+            }
+        }
+
+        int[] expected = new int[nextIndex + 1];
+        int components = 0;
+        int largest = 0;
+        for (int root = 0; root < nodeCount; root++) {
+            if (usersByRoot[root] > 0) {
+                expected[usersByRoot[root]]++;
+                components++;
+                largest = Math.max(largest, usersByRoot[root]);
+            }
+        }
+
+        boolean ok = components == getComponentCount() && largest == largestComponent;
+        for (int s = 1; ok && s <= nextIndex; s++) {
+            ok = expected[s] == componentsBySize[s];
+        }
+        if (!ok) {
+            EventLog.warn("Histograma de componentes inconsistente: " + components + " componentes, " +
+                    "mayor " + largest + " (mantenido: " + getComponentCount() + ", " + largestComponent + ")");
+        }
+        return ok;
+    }
+
+    public void printComponentInfo() {
+        System.out.println("\nInformación de Componentes Conectados");
+        System.out.println("Número total de usuarios: " + (nextIndex - removedUsers));
+        System.out.println("Número de componentes: " + getComponentCount());
+
+        refreshSizesIfStale();
+        System.out.println("Tamaños de componentes:");
+        for (int s = largestComponent; s >= 1; s--) {
+            if (componentsBySize[s] > 0) {
+                System.out.println("  " + componentsBySize[s] + " componente(s) de " + s + " usuarios");
+            }
+        }
+    }
+
+    private int parentOf(int node) {
+        return concurrentSets != null ? concurrentSets.parentOf(node) : parent[node];
+    }
+
+    // userID del usuario del nodo; los nodos abandonados se marcan como tales
+    private String nodeLabel(int node) {
+        int user = nodeUser[node];
+        String userID = registry.userIdAt(user);
+        return nodeOf[user] == node ? userID : userID + " (nodo abandonado)";
+    }
+
+    public void visualizarArbolUsuario(String userID) {
+        int userIndex = indexOf(userID);
+        if (userIndex < 0) {
+            System.out.println("Usuario no encontrado: " + userID);
+            return;
+        }
+
+        int componentSize = getComponentSize(userID);
+        int root = find(userIndex);
+
+        System.out.println("\nÁrbol de Conexiones para " + userID);
+        System.out.println("Raíz del componente: " + nodeLabel(root));
+        System.out.println("Tamaño del componente: " + componentSize);
+
+        // Muestra el camino hasta la raíz
+        System.out.print("Camino hasta la raíz: " + userID);
+        int current = nodeOf[userIndex];
+        while (parentOf(current) != current) {
+            current = parentOf(current);
+            System.out.print(" -> " + nodeLabel(current));
+        }
+    }
+}
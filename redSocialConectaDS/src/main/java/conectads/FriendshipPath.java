@@ -0,0 +1,57 @@
+package conectads;
+
+// Camino de amistades entre dos usuarios: userIDs[0] es el origen y userIDs[getHops()] el destino.
+// qualities[i] es la calidad (1-5) de la amistad entre userIDs[i] y userIDs[i + 1].
+public class FriendshipPath {
+
+    private final String[] userIDs;
+    private final int[] qualities;
+
+    public FriendshipPath(String[] userIDs, int[] qualities) {
+        if (userIDs.length != qualities.length + 1) {
+            throw new IllegalArgumentException("Un camino de " + qualities.length +
+                    " amistades necesita " + (qualities.length + 1) + " usuarios");
+        }
+        this.userIDs = userIDs;
+        this.qualities = qualities;
+    }
+
+    // Grados de separación (0 si origen y destino son el mismo usuario)
+    public int getHops() {
+        return qualities.length;
+    }
+
+    public String getUserID(int position) {
+        return userIDs[position];
+    }
+
+    public int getQuality(int hop) {
+        return qualities[hop];
+    }
+
+    public String[] getUserIDs() {
+        return userIDs.clone();
+    }
+
+    public int[] getQualities() {
+        return qualities.clone();
+    }
+
+    // Costo con el peso de PathFinder.edgeCost: 1 por amistad de 5 estrellas hasta 5 por una de 1
+    public int getCost() {
+        int cost = 0;
+        for (int quality : qualities) {
+            cost += PathFinder.edgeCost(quality);
+        }
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(userIDs[0]);
+        for (int i = 0; i < qualities.length; i++) {
+            sb.append(" -[").append(qualities[i]).append("]-> ").append(userIDs[i + 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,191 @@
+package conectads;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Instantánea de la red de amistades en formato CSR (Compressed Sparse Row).
+// Los amigos del usuario u están en neighbors[offsets[u] .. offsets[u + 1]) y la calidad
+// de cada amistad en la misma posición de quality, así que recorrer el grafo son lecturas
+// secuenciales de arreglos sin crear objetos.
+// La que devuelve build es inmutable. withOverlay crea una vista que comparte sus arreglos y se
+// pone al día por usuario: la lista actual de cada usuario modificado se copia a una zona de
+// parches y sus aristas pasan a numerarse desde neighbors.length, sin reconstruir toda la CSR.
+public final class FriendshipSnapshot {
+
+    private final int userCount;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final byte[] quality;
+    private int coveredUsers;
+    private int edgeCount;
+
+    // Solo en las vistas de withOverlay (patchStart es null en las instantáneas inmutables)
+    private int[] patchStart;      // primera arista del usuario en la zona de parches, -1 si usa la base
+    private int[] patchEnd;
+    private int[] patchNeighbors;
+    private byte[] patchQuality;
+    private int patchEdges;        // posiciones ocupadas de la zona de parches
+    private int[] changed;         // usuarios modificados desde el último applyChanges
+    private int changedCount;
+    private BitSet changedSet;
+
+    FriendshipSnapshot(int userCount, int[] offsets, int[] neighbors, byte[] quality) {
+        this.userCount = userCount;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.quality = quality;
+        this.coveredUsers = userCount;
+        this.edgeCount = neighbors.length;
+    }
+
+    // Construye la instantánea a partir de las listas de amigos de los perfiles registrados
+    public static FriendshipSnapshot build(UserIdRegistry registry) {
+        int userCount = registry.size();
+        int[] offsets = new int[userCount + 1];
+
+        for (int u = 0; u < userCount; u++) {
+            Profile profile = registry.profileAt(u);
+            offsets[u + 1] = offsets[u] + (profile == null ? 0 : profile.getFriendCount());
+        }
+
+        int[] neighbors = new int[offsets[userCount]];
+        byte[] quality = new byte[offsets[userCount]];
+
+        for (int u = 0; u < userCount; u++) {
+            Profile profile = registry.profileAt(u);
+            if (profile == null) continue;
+            int edge = offsets[u];
+            for (int i = 0; i < profile.getFriendCount(); i++) {
+                neighbors[edge] = profile.getFriendIndexAt(i);
+                quality[edge] = (byte) profile.getFriendQualityAt(i);
+                edge++;
+            }
+        }
+        return new FriendshipSnapshot(userCount, offsets, neighbors, quality);
+    }
+
+    // Vista sobre esta instantánea (que no cambia) a la que se le aplican los usuarios modificados
+    FriendshipSnapshot withOverlay() {
+        FriendshipSnapshot view = new FriendshipSnapshot(userCount, offsets, neighbors, quality);
+        view.patchStart = new int[userCount];
+        view.patchEnd = new int[userCount];
+        Arrays.fill(view.patchStart, -1);
+        view.patchNeighbors = new int[16];
+        view.patchQuality = new byte[16];
+        view.changed = new int[16];
+        view.changedSet = new BitSet(userCount);
+        return view;
+    }
+
+    // Anota que la lista de amigos del usuario cambió; se copia en el próximo applyChanges
+    void markChanged(int user) {
+        if (changedSet.get(user)) {
+            return;
+        }
+        changedSet.set(user);
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        }
+        changed[changedCount++] = user;
+    }
+
+    // Copia a la zona de parches la lista actual de cada usuario anotado: O(suma de sus grados)
+    void applyChanges(UserIdRegistry registry) {
+        for (int i = 0; i < changedCount; i++) {
+            patch(registry, changed[i]);
+        }
+        changedSet.clear();
+        changedCount = 0;
+    }
+
+    private void patch(UserIdRegistry registry, int user) {
+        if (user >= patchStart.length) {
+            int length = Math.max(user + 1, patchStart.length * 2);
+            int previous = patchStart.length;
+            patchStart = Arrays.copyOf(patchStart, length);
+            patchEnd = Arrays.copyOf(patchEnd, length);
+            Arrays.fill(patchStart, previous, length, -1);
+        }
+        Profile profile = registry.profileAt(user);
+        int count = profile == null ? 0 : profile.getFriendCount();
+        if (patchEdges + count > patchNeighbors.length) {
+            int length = Math.max(patchEdges + count, patchNeighbors.length * 2);
+            patchNeighbors = Arrays.copyOf(patchNeighbors, length);
+            patchQuality = Arrays.copyOf(patchQuality, length);
+        }
+
+        edgeCount -= degree(user);
+        patchStart[user] = patchEdges;
+        for (int i = 0; i < count; i++) {
+            patchNeighbors[patchEdges] = profile.getFriendIndexAt(i);
+            patchQuality[patchEdges] = (byte) profile.getFriendQualityAt(i);
+            patchEdges++;
+        }
+        patchEnd[user] = patchEdges;
+        edgeCount += count;
+        coveredUsers = Math.max(coveredUsers, user + 1);
+    }
+
+    // La zona de parches ya ocupa más de la mitad de la base: conviene construir una CSR nueva
+    boolean shouldCompact() {
+        return patchEdges > neighbors.length / 2 + 1024;
+    }
+
+    // Usuarios cubiertos; los registrados después de construirla (y sin parche) se ven sin amigos
+    public int getUserCount() {
+        return coveredUsers;
+    }
+
+    public int degree(int user) {
+        return edgeEnd(user) - edgeStart(user);
+    }
+
+    // Rango de aristas del usuario: [edgeStart(u), edgeEnd(u))
+    public int edgeStart(int user) {
+        if (patchStart != null && user < patchStart.length && patchStart[user] >= 0) {
+            return neighbors.length + patchStart[user];
+        }
+        return user < userCount ? offsets[user] : 0;
+    }
+
+    public int edgeEnd(int user) {
+        if (patchStart != null && user < patchStart.length && patchStart[user] >= 0) {
+            return neighbors.length + patchEnd[user];
+        }
+        return user < userCount ? offsets[user + 1] : 0;
+    }
+
+    public int neighbor(int edge) {
+        return edge < neighbors.length ? neighbors[edge] : patchNeighbors[edge - neighbors.length];
+    }
+
+    public int quality(int edge) {
+        return edge < quality.length ? quality[edge] : patchQuality[edge - quality.length];
+    }
+
+    // Cada amistad aparece dos veces (una por extremo)
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // Arreglos internos para serializarlos sin copiarlos (NetworkSnapshot); solo sin parches
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] neighbors() {
+        return neighbors;
+    }
+
+    byte[] qualities() {
+        return quality;
+    }
+
+    public long getMemoryBytes() {
+        long bytes = 4L * offsets.length + 4L * neighbors.length + quality.length;
+        if (patchStart != null) {
+            bytes += 8L * patchStart.length + 5L * patchNeighbors.length + 4L * changed.length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,22 @@
+package conectads;
+
+// Tamaños de las tablas hash con capacidad potencia de dos (perfiles, registro de userIDs)
+final class HashTables {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashTables() {
+    }
+
+    // Menor potencia de dos >= capacity, entre 2 y MAX_CAPACITY. Pedir 0 o 1 (p. ej. reservar
+    // espacio para un archivo vacío) devuelve 2, no la capacidad máxima.
+    static int tableSizeFor(int capacity) {
+        if (capacity <= 2) {
+            return 2;
+        }
+        if (capacity > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
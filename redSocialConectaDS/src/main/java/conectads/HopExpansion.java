@@ -0,0 +1,57 @@
+package conectads;
+
+import java.util.Arrays;
+
+// Hasta cuántos saltos buscan sugerencias y cuánto se expande cada salto.
+// El salto 2 (amigos de amigos) se puntúa con el SuggestionRanker; desde el salto 3 cada usuario
+// hereda la puntuación de quienes lo alcanzaron multiplicada por decay (repartida entre los
+// vecinos expandidos si el ranker suma caminos), así que nunca supera a la del salto anterior.
+public final class HopExpansion {
+
+    // Solo amigos de amigos y sin límites: el comportamiento clásico
+    public static final HopExpansion TWO_HOPS = new HopExpansion(2, new int[] {Integer.MAX_VALUE}, 1.0);
+
+    private final int maxHops;
+    private final int[] fanOutCaps;
+    private final double decay;
+
+    // fanOutCaps[i] es cuántos vecinos de cada usuario se recorren para llegar al salto i + 2
+    // (se toman los primeros de su lista); si hay menos valores que saltos se repite el último
+    public HopExpansion(int maxHops, int[] fanOutCaps, double decay) {
+        if (maxHops < 2) {
+            throw new IllegalArgumentException("La expansión necesita al menos 2 saltos");
+        }
+        if (fanOutCaps.length == 0) {
+            throw new IllegalArgumentException("Falta el límite de vecinos por salto");
+        }
+        for (int cap : fanOutCaps) {
+            if (cap < 1) {
+                throw new IllegalArgumentException("El límite de vecinos por salto debe ser positivo");
+            }
+        }
+        if (!(decay > 0 && decay <= 1)) {
+            throw new IllegalArgumentException("El decaimiento debe estar en (0, 1]");
+        }
+        this.maxHops = maxHops;
+        this.fanOutCaps = Arrays.copyOf(fanOutCaps, fanOutCaps.length);
+        this.decay = decay;
+    }
+
+    public int getMaxHops() {
+        return maxHops;
+    }
+
+    public double getDecay() {
+        return decay;
+    }
+
+    // Vecinos por usuario que se recorren para llegar al salto hop (>= 2)
+    public int fanOut(int hop) {
+        return fanOutCaps[Math.min(hop - 2, fanOutCaps.length - 1)];
+    }
+
+    // Amigos de amigos completos: admite el recorrido inverso por filtros selectivos
+    boolean isExactTwoHops() {
+        return maxHops == 2 && fanOut(2) == Integer.MAX_VALUE;
+    }
+}
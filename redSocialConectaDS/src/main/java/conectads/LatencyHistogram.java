@@ -0,0 +1,128 @@
+package conectads;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma de valores no negativos (latencias en ns, longitudes de sondeo, ...) con buckets
+// logarítmicos: los valores 0..7 tienen bucket propio y cada potencia de dos mayor se divide
+// en 8 sub-buckets, así que un percentil se informa con un error relativo máximo de 12.5%.
+// record() no toma locks: cada hilo incrementa su propia franja del arreglo de contadores
+// (buckets y suma) y snapshot() suma las franjas. El máximo solo se escribe cuando crece.
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    // Cada franja: BUCKETS contadores, la suma y relleno para que dos franjas no compartan línea de caché
+    private static final int STRIDE = BUCKETS + 16;
+    private static final int STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+    private final AtomicLong max = new AtomicLong();
+
+    private static int stripesFor(int processors) {
+        int stripes = Integer.highestOneBit(Math.max(processors, 1));
+        return Math.min(stripes, 8);
+    }
+
+    static int bucketFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Mayor valor que cae en el bucket
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    public void record(long value) {
+        int base = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+        counts.getAndIncrement(base + bucketFor(value));
+        counts.getAndAdd(base + BUCKETS, value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    // Los registros concurrentes con reset() pueden perderse o sobrevivir; es solo para estadísticas
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int base = stripe * STRIDE;
+            for (int b = 0; b < BUCKETS; b++) {
+                long c = counts.get(base + b);
+                merged[b] += c;
+                count += c;
+            }
+            sum += counts.get(base + BUCKETS);
+        }
+        return new Snapshot(merged, count, sum, max.get());
+    }
+
+    // Copia inmutable de un histograma en un instante dado
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Valor bajo el que queda la fracción q de las muestras (q = 0.99 para p99).
+        // Devuelve el límite superior del bucket, acotado por el máximo observado.
+        public long percentile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= rank) {
+                    return Math.min(upperBound(b), max);
+                }
+            }
+            return max;
+        }
+    }
+}
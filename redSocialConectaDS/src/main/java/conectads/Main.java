@@ -1,3 +1,5 @@
+package conectads;
+
 import java.util.Scanner;
 
 public class Main {
@@ -5,7 +7,11 @@ public class Main {
     private static SocialNetworkSystem system;
     private static Scanner scanner;
     
+    private static final String DIRECTORIO_DATOS = "/home/bee/Documents/University/UPB/estructuraDyA/CuartoParcial/IdeaProject/redSocialConectaDS/src/main/resources/datos";
+    
     public static void main(String[] args) {
+        // El menú muestra todos los eventos del sistema en consola, como siempre
+        EventLog.setSink(EventLog.CONSOLE, EventLog.Level.DEBUG);
         system = new SocialNetworkSystem();
         scanner = new Scanner(System.in);
         
@@ -19,6 +25,12 @@ public class Main {
     //Carga los datos iniciales desde archivos CSV
     private static void cargarDatosIniciales() {
         System.out.println("CARGANDO DATOS INICIALES");
+        
+        // Si hay datos guardados se recupera la instantánea y el log sin procesar los CSV
+        if (SocialNetworkSystem.hayDatosGuardados(DIRECTORIO_DATOS)) {
+            system.iniciarPersistencia(DIRECTORIO_DATOS, WriteAheadLog.Durability.BATCH);
+            return;
+        }
 
         System.out.println("Cargando perfiles...");
         int perfilesCargados = system.cargarPerfilesDesdeArchivo("/home/bee/Documents/University/UPB/estructuraDyA/CuartoParcial/IdeaProject/redSocialConectaDS/src/main/resources/profiles.csv");
@@ -38,6 +50,9 @@ public class Main {
             System.out.println("No se encontró el archivo profiles.csv");
             System.out.println("  El sistema iniciará vacío.\n");
         }
+        
+        // Desde aquí los cambios quedan en el log del directorio de datos
+        system.iniciarPersistencia(DIRECTORIO_DATOS, WriteAheadLog.Durability.BATCH);
     }
     
     //menú interactivo
@@ -55,6 +70,11 @@ public class Main {
             System.out.println("7. Cargar perfiles desde archivo");
             System.out.println("8. Cargar conexiones desde archivo");
             System.out.println("9. Visualizar árbol de usuario");
+            System.out.println("10. Compactar registro (guardar instantánea)");
+            System.out.println("11. Mostrar métricas de rendimiento");
+            System.out.println("12. Grados de separación");
+            System.out.println("13. Eliminar amistad");
+            System.out.println("14. Eliminar perfil");
             System.out.println("0. Salir");
             System.out.print("\nSeleccione una opción: ");
             
@@ -89,8 +109,24 @@ public class Main {
                 case 9:
                     visualizarArbolInteractivo();
                     break;
+                case 10:
+                    system.compactarRegistro();
+                    break;
+                case 11:
+                    system.mostrarMetricas();
+                    break;
+                case 12:
+                    gradosDeSeparacionInteractivo();
+                    break;
+                case 13:
+                    eliminarAmistadInteractivo();
+                    break;
+                case 14:
+                    eliminarPerfilInteractivo();
+                    break;
                 case 0:
                     continuar = false;
+                    system.cerrarPersistencia();
                     System.out.println("\nGracias por usar Conecta-DS!");
                     break;
                 default:
@@ -167,6 +203,35 @@ public class Main {
         system.verificarConexion(id1, id2);
     }
     
+    private static void eliminarAmistadInteractivo() {
+        System.out.print("ID del primer usuario: ");
+        String id1 = scanner.nextLine();
+        System.out.print("ID del segundo usuario: ");
+        String id2 = scanner.nextLine();
+        
+        system.eliminarAmistad(id1, id2);
+    }
+    
+    private static void eliminarPerfilInteractivo() {
+        System.out.print("ID del usuario a eliminar: ");
+        String id = scanner.nextLine();
+        System.out.print("Se eliminarán el perfil y todas sus amistades. ¿Continuar? (S/N): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("S")) {
+            system.eliminarPerfil(id);
+        }
+    }
+    
+    private static void gradosDeSeparacionInteractivo() {
+        System.out.print("ID del primer usuario: ");
+        String id1 = scanner.nextLine();
+        System.out.print("ID del segundo usuario: ");
+        String id2 = scanner.nextLine();
+        System.out.print("¿Priorizar amistades de mayor calidad? (S/N): ");
+        boolean ponderado = scanner.nextLine().trim().equalsIgnoreCase("S");
+        
+        system.mostrarGradosDeSeparacion(id1, id2, ponderado);
+    }
+    
     private static void cargarPerfilesInteractivo() {
         System.out.print("Nombre del archivo de perfiles: ");
         String archivo = scanner.nextLine();
@@ -0,0 +1,195 @@
+package conectads;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Recorre un CSV directamente sobre sus bytes (normalmente un MappedByteBuffer).
+// Cada línea se divide en campos guardando solo sus posiciones, los enteros se leen sin crear
+// substrings y los Strings se materializan únicamente para los campos que se conservan.
+// Reproduce la semántica de line.split(",") + trim() de los cargadores originales.
+public final class MappedCsvScanner {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private int lineStart;
+    private int lineEnd;
+    private int[] fieldStarts = new int[8];
+    private int[] fieldEnds = new int[8];
+    private int fieldCount;
+
+    private byte[] scratch = new byte[64];
+
+    public MappedCsvScanner(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    // Avanza a la siguiente línea y separa sus campos; devuelve false al final del buffer
+    public boolean nextLine() {
+        if (position >= limit) {
+            return false;
+        }
+        lineStart = position;
+        int end = position;
+        while (end < limit && buffer.get(end) != '\n') {
+            end++;
+        }
+        position = end + 1;
+        // Como BufferedReader.readLine, el '\r' de un fin de línea CRLF no es parte de la línea
+        // (si quedara, "a,b,c,\r\n" tendría cuatro campos en lugar de tres)
+        if (end > lineStart && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        lineEnd = end;
+        splitFields();
+        return true;
+    }
+
+    private void splitFields() {
+        fieldCount = 0;
+        int start = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buffer.get(i) == ',') {
+                if (fieldCount == fieldStarts.length) {
+                    int[] newStarts = new int[fieldCount * 2];
+                    int[] newEnds = new int[fieldCount * 2];
+                    System.arraycopy(fieldStarts, 0, newStarts, 0, fieldCount);
+                    System.arraycopy(fieldEnds, 0, newEnds, 0, fieldCount);
+                    fieldStarts = newStarts;
+                    fieldEnds = newEnds;
+                }
+                fieldStarts[fieldCount] = start;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+        // Como String.split, se descartan los campos vacíos del final (una línea vacía conserva uno)
+        while (fieldCount > 1 && fieldStarts[fieldCount - 1] == fieldEnds[fieldCount - 1]) {
+            fieldCount--;
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // Límites del campo sin los espacios de los extremos, como String.trim()
+    private int trimmedStart(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimmedEnd(int field, int start) {
+        int end = fieldEnds[field];
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    // Entero decimal del campo; lanza NumberFormatException igual que Integer.parseInt
+    public int intField(int field) {
+        int start = trimmedStart(field);
+        int end = trimmedEnd(field, start);
+        if (start == end) {
+            throw new NumberFormatException("Campo vacío");
+        }
+
+        boolean negative = false;
+        int i = start;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                throw new NumberFormatException("Número inválido");
+            }
+        }
+
+        // Se acumula en negativo para poder representar Integer.MIN_VALUE
+        int limitValue = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < limitValue / 10) {
+                throw new NumberFormatException("Número inválido");
+            }
+            result *= 10;
+            if (result < limitValue + digit) {
+                throw new NumberFormatException("Número inválido");
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    public String stringField(int field) {
+        int start = trimmedStart(field);
+        int end = trimmedEnd(field, start);
+        return decode(start, end);
+    }
+
+    // Campo de género en mayúsculas; "M" y "F" devuelven constantes sin crear Strings
+    public String upperCaseField(int field) {
+        int start = trimmedStart(field);
+        int end = trimmedEnd(field, start);
+        if (end - start == 1) {
+            byte b = buffer.get(start);
+            if (b == 'M' || b == 'm') return "M";
+            if (b == 'F' || b == 'f') return "F";
+        }
+        return decode(start, end).toUpperCase();
+    }
+
+    // Índice del userID del campo en el registro sin materializar el String cuando es ASCII
+    public int lookupField(UserIdRegistry registry, int field) {
+        int start = trimmedStart(field);
+        int end = trimmedEnd(field, start);
+        int index = registry.indexOfAscii(buffer, start, end);
+        if (index == UserIdRegistry.NOT_ASCII) {
+            index = registry.indexOf(decode(start, end));
+        }
+        return index;
+    }
+
+    // Búsqueda sin distinguir mayúsculas de una palabra ASCII en minúsculas dentro de la línea actual
+    public boolean lineContainsIgnoreCase(String lowerCaseNeedle) {
+        int length = lowerCaseNeedle.length();
+        for (int i = lineStart; i + length <= lineEnd; i++) {
+            int j = 0;
+            while (j < length) {
+                int b = buffer.get(i + j);
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != lowerCaseNeedle.charAt(j)) {
+                    break;
+                }
+                j++;
+            }
+            if (j == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package conectads;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de operación del sistema: contadores LongAdder (por franjas) e histogramas
+// logarítmicos sin locks. Las estructuras de datos registran aquí sus sondeos, caminos,
+// redimensionamientos y latencias; snapshot() devuelve una copia consultable.
+// Con una grabación JFR activa las operaciones y los redimensionamientos también se emiten
+// como eventos conectads.Operation y conectads.Resize.
+public final class Metrics {
+
+    public enum Operation {
+        CREAR_PERFIL("crearPerfil"),
+        GENERAR_LAZO("generarLazo"),
+        SUGERIR_AMIGOS("sugerirAmigos"),
+        ELIMINAR_AMISTAD("eliminarAmistad"),
+        ELIMINAR_PERFIL("eliminarPerfil");
+
+        private final String methodName;
+        private final LatencyHistogram latency;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+            this.latency = new LatencyHistogram();
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private static final Map<String, LongAdder> COUNTERS = new LinkedHashMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new LinkedHashMap<>();
+
+    private static final LongAdder PROFILE_MISSES = counter("perfiles.busquedas_fallidas");
+    private static final LongAdder RESIZES = counter("redimensionamientos");
+    private static final LongAdder REJECTED = counter("operaciones.rechazadas");
+    private static final LongAdder REBUILDS = counter("grafo.reconstrucciones");
+
+    private static final LatencyHistogram PROFILE_PROBES = histogram("perfiles.sondeos");
+    private static final LatencyHistogram FIND_PATH = histogram("grafo.camino_find");
+    private static final LatencyHistogram RESIZE_PAUSE = histogram("redimensionamiento.pausa_ns");
+    private static final LatencyHistogram CANDIDATES = histogram("sugerencias.candidatos");
+    private static final LatencyHistogram REMOVAL_SEARCH = histogram("grafo.busqueda_baja");
+    private static final LatencyHistogram REBUILD_PAUSE = histogram("grafo.reconstruccion_ns");
+
+    static {
+        for (Operation operation : Operation.values()) {
+            HISTOGRAMS.put(operation.methodName + ".latencia_ns", operation.latency);
+        }
+    }
+
+    private static volatile boolean enabled = true;
+
+    private Metrics() {
+    }
+
+    private static LongAdder counter(String name) {
+        LongAdder adder = new LongAdder();
+        COUNTERS.put(name, adder);
+        return adder;
+    }
+
+    private static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        HISTOGRAMS.put(name, histogram);
+        return histogram;
+    }
+
+    // Con false las llamadas de registro retornan sin tocar contadores ni llamar a nanoTime
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // Marca de tiempo para operation()/resized(); 0 si las métricas están desactivadas
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // probes: entradas examinadas por una búsqueda en una tabla de perfiles
+    // (el número de búsquedas es el conteo del histograma perfiles.sondeos)
+    public static void profileLookup(int probes, boolean found) {
+        if (!enabled) return;
+        if (!found) {
+            PROFILE_MISSES.increment();
+        }
+        PROFILE_PROBES.record(probes);
+    }
+
+    // length: saltos de find() hasta la raíz antes de comprimir el camino
+    public static void findPath(int length) {
+        if (!enabled) return;
+        FIND_PATH.record(length);
+    }
+
+    // visited: usuarios que recorrió la búsqueda que decide si una baja dividió un componente
+    public static void connectivitySearch(int visited) {
+        if (!enabled) return;
+        REMOVAL_SEARCH.record(visited);
+    }
+
+    // Reconstrucción completa del union-find para resolver bajas pendientes o compactarlo
+    public static void connectivityRebuilt(long startNanos) {
+        if (!enabled || startNanos == 0) return;
+        REBUILDS.increment();
+        REBUILD_PAUSE.record(System.nanoTime() - startNanos);
+    }
+
+    public static void suggestionCandidates(int candidates) {
+        if (!enabled) return;
+        CANDIDATES.record(candidates);
+    }
+
+    public static void resized(String structure, long oldCapacity, long newCapacity, long startNanos) {
+        if (!enabled || startNanos == 0) return;
+        long duration = System.nanoTime() - startNanos;
+        RESIZES.increment();
+        RESIZE_PAUSE.record(duration);
+
+        ResizeEvent event = new ResizeEvent();
+        if (event.isEnabled()) {
+            event.structure = structure;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.elapsed = duration;
+            event.commit();
+        }
+    }
+
+    public static void operation(Operation operation, String userID, long startNanos, boolean success) {
+        // startNanos == 0: la operación empezó con las métricas desactivadas
+        if (!enabled || startNanos == 0) return;
+        long duration = System.nanoTime() - startNanos;
+        operation.latency.record(duration);
+        if (!success) {
+            REJECTED.increment();
+        }
+
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation.methodName;
+            event.userID = userID;
+            event.success = success;
+            event.elapsed = duration;
+            event.commit();
+        }
+    }
+
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            counters.put(entry.getKey(), entry.getValue().sum());
+        }
+        Map<String, LatencyHistogram.Snapshot> histograms = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            histograms.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new MetricsSnapshot(Collections.unmodifiableMap(counters),
+                Collections.unmodifiableMap(histograms));
+    }
+
+    public static void reset() {
+        for (LongAdder adder : COUNTERS.values()) {
+            adder.reset();
+        }
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+}
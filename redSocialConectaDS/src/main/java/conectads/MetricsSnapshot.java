@@ -0,0 +1,54 @@
+package conectads;
+
+import java.util.Map;
+
+// Valores de todas las métricas en el momento de Metrics.snapshot()
+public final class MetricsSnapshot {
+
+    private final Map<String, Long> counters;
+    private final Map<String, LatencyHistogram.Snapshot> histograms;
+
+    MetricsSnapshot(Map<String, Long> counters, Map<String, LatencyHistogram.Snapshot> histograms) {
+        this.counters = counters;
+        this.histograms = histograms;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    // 0 si no existe un contador con ese nombre
+    public long getCounter(String name) {
+        Long value = counters.get(name);
+        return value == null ? 0 : value;
+    }
+
+    // null si no existe un histograma con ese nombre
+    public LatencyHistogram.Snapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public LatencyHistogram.Snapshot getLatency(Metrics.Operation operation) {
+        return histograms.get(operation.getMethodName() + ".latencia_ns");
+    }
+
+    public void print() {
+        System.out.println("\nMétricas de operación");
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            System.out.println(String.format("%-32s %d", entry.getKey(), entry.getValue()));
+        }
+
+        System.out.println(String.format("%-32s %10s %10s %10s %10s %10s %10s",
+                "Histograma", "n", "media", "p50", "p99", "p999", "máx"));
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : histograms.entrySet()) {
+            LatencyHistogram.Snapshot h = entry.getValue();
+            System.out.println(String.format("%-32s %10d %10.1f %10d %10d %10d %10d", entry.getKey(),
+                    h.getCount(), h.getMean(), h.percentile(0.50), h.percentile(0.99),
+                    h.percentile(0.999), h.getMax()));
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package conectads;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Instantánea binaria versionada de toda la red: tabla de userIDs, atributos de los perfiles,
+// adyacencia CSR con las calidades y los arreglos parent/size del union-find.
+// Cada sección se guarda como arreglos contiguos, así que la carga mapea el archivo y copia
+// los arreglos en bloque en lugar de repetir crearPerfil/generarLazo fila por fila.
+//
+// Formato (big-endian):
+//   int MAGIC, int VERSION
+//   int usuarios, int perfiles, int usuariosDelGrafo, int aristas, long LSN (desde la versión 2)
+//   textos userIDs, byte[usuarios] tienePerfil, textos nombres, textos géneros, int[usuarios] edades
+//   int[usuarios + 1] offsets, int[aristas] vecinos, byte[aristas] calidades
+//   int[usuariosDelGrafo] parent, int[usuariosDelGrafo] size
+//   int MAGIC (marca de fin para detectar archivos truncados)
+// Un bloque de textos es int[n] con el fin de cada texto, int bytesTotales y los bytes UTF-8.
+public final class NetworkSnapshot {
+
+    private static final int MAGIC = 0x434E4453; // "CNDS"
+    private static final int VERSION = 2;
+
+    private final String[] userIDs;
+    private final boolean[] hasProfile;
+    private final String[] fullNames;
+    private final String[] genders;
+    private final int[] ages;
+    private final int profileCount;
+    private final FriendshipSnapshot adjacency;
+    private final int graphUsers;
+    private final int[] parents;
+    private final int[] sizes;
+    private final long lastLsn;
+
+    private NetworkSnapshot(String[] userIDs, boolean[] hasProfile, String[] fullNames, String[] genders,
+                            int[] ages, int profileCount, FriendshipSnapshot adjacency,
+                            int graphUsers, int[] parents, int[] sizes, long lastLsn) {
+        this.userIDs = userIDs;
+        this.hasProfile = hasProfile;
+        this.fullNames = fullNames;
+        this.genders = genders;
+        this.ages = ages;
+        this.profileCount = profileCount;
+        this.adjacency = adjacency;
+        this.graphUsers = graphUsers;
+        this.parents = parents;
+        this.sizes = sizes;
+        this.lastLsn = lastLsn;
+    }
+
+    // Toma el estado actual de la red; adjacency debe reflejar todas las amistades del registro.
+    // lastLsn es el último registro del WAL incluido en este estado (0 si no hay WAL).
+    public static NetworkSnapshot capture(UserIdRegistry registry, FriendshipGraph graph,
+                                          FriendshipSnapshot adjacency, long lastLsn) {
+        int users = registry.size();
+        String[] userIDs = new String[users];
+        boolean[] hasProfile = new boolean[users];
+        String[] fullNames = new String[users];
+        String[] genders = new String[users];
+        int[] ages = new int[users];
+        int profileCount = 0;
+
+        for (int u = 0; u < users; u++) {
+            userIDs[u] = registry.userIdAt(u);
+            Profile profile = registry.profileAt(u);
+            if (profile != null) {
+                hasProfile[u] = true;
+                fullNames[u] = profile.getFullName();
+                genders[u] = profile.getGender();
+                ages[u] = profile.getAge();
+                profileCount++;
+            } else {
+                fullNames[u] = "";
+                genders[u] = "";
+            }
+        }
+        if (adjacency.getUserCount() != users) {
+            throw new IllegalArgumentException("La adyacencia no cubre a todos los usuarios registrados");
+        }
+
+        int graphUsers = graph.getUserCount();
+        int[] parents = new int[graphUsers];
+        int[] sizes = new int[graphUsers];
+        graph.exportSets(parents, sizes);
+
+        return new NetworkSnapshot(userIDs, hasProfile, fullNames, genders, ages, profileCount,
+                adjacency, graphUsers, parents, sizes, lastLsn);
+    }
+
+    public int getUserCount() {
+        return userIDs.length;
+    }
+
+    public int getProfileCount() {
+        return profileCount;
+    }
+
+    // Último registro del WAL contenido en la instantánea; la recuperación reproduce los siguientes
+    public long getLastLsn() {
+        return lastLsn;
+    }
+
+    public FriendshipSnapshot getAdjacency() {
+        return adjacency;
+    }
+
+    // Escribe en un archivo temporal y lo renombra, así una caída nunca deja una instantánea a medias
+    public void writeTo(String filename) throws IOException {
+        Path target = Paths.get(filename);
+        Path temp = Paths.get(filename + ".tmp");
+        int users = userIDs.length;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BlockWriter out = new BlockWriter(channel);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(users);
+            out.writeInt(profileCount);
+            out.writeInt(graphUsers);
+            out.writeInt(adjacency.getEdgeCount());
+            out.writeLong(lastLsn);
+
+            out.writeStrings(userIDs);
+            byte[] flags = new byte[users];
+            for (int u = 0; u < users; u++) {
+                flags[u] = (byte) (hasProfile[u] ? 1 : 0);
+            }
+            out.writeBytes(flags, flags.length);
+            out.writeStrings(fullNames);
+            out.writeStrings(genders);
+            out.writeInts(ages, users);
+
+            out.writeInts(adjacency.offsets(), users + 1);
+            out.writeInts(adjacency.neighbors(), adjacency.getEdgeCount());
+            out.writeBytes(adjacency.qualities(), adjacency.getEdgeCount());
+
+            out.writeInts(parents, graphUsers);
+            out.writeInts(sizes, graphUsers);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Lee una instantánea mapeando el archivo en memoria. Los archivos de más de 2 GB no se
+    // pueden mapear en un solo buffer y se rechazan.
+    public static NetworkSnapshot readFrom(String filename) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea demasiado grande para mapearla: " + channel.size() + " bytes");
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("El archivo no es una instantánea de Conecta-DS");
+            }
+            int version = in.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            int users = checkedLength(in.getInt());
+            int profileCount = checkedLength(in.getInt());
+            int graphUsers = checkedLength(in.getInt());
+            int edges = checkedLength(in.getInt());
+            long lastLsn = version >= 2 ? in.getLong() : 0;
+            if (graphUsers > users) {
+                throw new IOException("Instantánea inconsistente: más usuarios en el grafo que registrados");
+            }
+
+            String[] userIDs = readStrings(in, users);
+            boolean[] hasProfile = new boolean[users];
+            for (int u = 0; u < users; u++) {
+                hasProfile[u] = in.get() != 0;
+            }
+            String[] fullNames = readStrings(in, users);
+            String[] genders = readStrings(in, users);
+            int[] ages = readInts(in, users);
+
+            int[] offsets = readInts(in, users + 1);
+            int[] neighbors = readInts(in, edges);
+            byte[] qualities = new byte[edges];
+            in.get(qualities);
+            if (offsets[0] != 0 || offsets[users] != edges) {
+                throw new IOException("Instantánea inconsistente: offsets de adyacencia inválidos");
+            }
+            for (int e = 0; e < edges; e++) {
+                if (neighbors[e] < 0 || neighbors[e] >= users || qualities[e] < 1 || qualities[e] > 5) {
+                    throw new IOException("Instantánea corrupta: amistad inválida en la posición " + e);
+                }
+            }
+
+            int[] parents = readInts(in, graphUsers);
+            int[] sizes = readInts(in, graphUsers);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Instantánea corrupta: falta la marca de fin");
+            }
+            checkForest(parents, sizes, graphUsers);
+
+            FriendshipSnapshot adjacency = new FriendshipSnapshot(users, offsets, neighbors, qualities);
+            return new NetworkSnapshot(userIDs, hasProfile, fullNames, genders, ages, profileCount,
+                    adjacency, graphUsers, parents, sizes, lastLsn);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Instantánea truncada: " + filename);
+        }
+    }
+
+    // El bosque de componentes tal como lo deja exportSets: padres dentro de rango, sin ciclos,
+    // nadie colgado de un usuario eliminado (raíz de tamaño 0) y cada raíz con el tamaño real
+    // de su componente. Se comprueba en O(n) guardando la raíz de cada cadena ya recorrida.
+    private static void checkForest(int[] parents, int[] sizes, int users) throws IOException {
+        for (int i = 0; i < users; i++) {
+            if (parents[i] < 0 || parents[i] >= users) {
+                throw new IOException("Instantánea corrupta: padre inválido para el índice " + i);
+            }
+        }
+        int[] rootOf = new int[users];
+        Arrays.fill(rootOf, -1);
+        int[] members = new int[users];
+        for (int i = 0; i < users; i++) {
+            int root = i;
+            int steps = 0;
+            while (rootOf[root] < 0 && parents[root] != root) {
+                root = parents[root];
+                if (++steps > users) {
+                    throw new IOException("Instantánea corrupta: ciclo en el bosque de componentes");
+                }
+            }
+            if (rootOf[root] >= 0) {
+                root = rootOf[root];
+            }
+            for (int u = i; rootOf[u] < 0; u = parents[u]) {
+                rootOf[u] = root;
+            }
+            members[root]++;
+        }
+        for (int i = 0; i < users; i++) {
+            if (parents[i] != i) continue;
+            int expected = sizes[i] == 0 ? 1 : sizes[i];
+            if (members[i] != expected) {
+                throw new IOException("Instantánea inconsistente: el componente de " + i + " tiene " +
+                        members[i] + " usuarios y su tamaño guardado es " + sizes[i]);
+            }
+        }
+    }
+
+    // Carga la instantánea en un sistema vacío: los índices del registro quedan iguales a los guardados
+    public void restoreInto(UserIdRegistry registry, ProfileTable profileTable, FriendshipGraph graph) {
+        if (registry.size() != 0) {
+            throw new IllegalStateException("Solo se puede cargar una instantánea en una red vacía");
+        }
+        int users = userIDs.length;
+        registry.ensureCapacity(users);
+        profileTable.ensureCapacity(profileTable.size() + profileCount);
+
+        for (int u = 0; u < users; u++) {
+            registry.intern(userIDs[u]);
+        }
+
+        int[] offsets = adjacency.offsets();
+        for (int u = 0; u < users; u++) {
+            if (!hasProfile[u]) continue;
+            Profile profile = new Profile(registry, userIDs[u], fullNames[u], ages[u], genders[u]);
+            profile.restoreFriends(adjacency.neighbors(), adjacency.qualities(), offsets[u], offsets[u + 1]);
+            profileTable.insert(profile);
+            registry.bindProfile(u, profile);
+        }
+
+        graph.restoreSets(parents, sizes, graphUsers);
+    }
+
+    private static int checkedLength(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Instantánea corrupta: longitud negativa " + length);
+        }
+        return length;
+    }
+
+    // Se comprueba el espacio restante antes de reservar para no crear arreglos enormes con un archivo corrupto
+    private static int[] readInts(ByteBuffer in, int length) {
+        if (4L * length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int[] values = new int[length];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * length);
+        return values;
+    }
+
+    private static String[] readStrings(ByteBuffer in, int count) throws IOException {
+        int[] ends = readInts(in, count);
+        int totalBytes = checkedLength(in.getInt());
+        if (totalBytes > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[totalBytes];
+        in.get(bytes);
+
+        String[] values = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            if (ends[i] < start || ends[i] > totalBytes) {
+                throw new IOException("Instantánea corrupta: bloque de textos inválido");
+            }
+            values[i] = text(bytes, start, ends[i]);
+            start = ends[i];
+        }
+        return values;
+    }
+
+    // Los géneros se repiten en cada perfil; se reutilizan las mismas constantes que el cargador CSV
+    private static String text(byte[] bytes, int start, int end) {
+        if (end - start == 1) {
+            if (bytes[start] == 'M') return "M";
+            if (bytes[start] == 'F') return "F";
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // Escritura secuencial a través de un buffer directo que se vuelca al canal cuando se llena
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensureRoom(4);
+            buffer.putInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensureRoom(8);
+            buffer.putLong(value);
+        }
+
+        void writeInts(int[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRoom(4);
+                int chunk = Math.min(length - offset, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, offset, chunk);
+                buffer.position(buffer.position() + 4 * chunk);
+                offset += chunk;
+            }
+        }
+
+        void writeBytes(byte[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRoom(1);
+                int chunk = Math.min(length - offset, buffer.remaining());
+                buffer.put(values, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        void writeStrings(String[] values) throws IOException {
+            byte[][] encoded = new byte[values.length][];
+            int[] ends = new int[values.length];
+            int total = 0;
+            for (int i = 0; i < values.length; i++) {
+                encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                total += encoded[i].length;
+                ends[i] = total;
+            }
+            writeInts(ends, ends.length);
+            writeInt(total);
+            for (byte[] value : encoded) {
+                writeBytes(value, value.length);
+            }
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package conectads;
+
+import java.util.Arrays;
+
+// Agregados de la red mantenidos en cada alta y baja de perfil o amistad, legibles en O(1):
+// número de amistades, suma de grados (promedio de amigos) y el usuario de mayor grado.
+// El máximo sale de un heap indexado por usuario (grado descendente, índice ascendente en
+// empates), así que coincide con el primer usuario de mayor grado en orden de índice.
+public class NetworkStatistics {
+
+    private int[] degree;        // índice de usuario -> número de amigos
+    private int[] heap;          // índices de usuarios con perfil, ordenados como max-heap
+    private int[] heapPosition;  // índice de usuario -> posición en heap o -1
+    private int heapSize;
+    private long friendships;    // pares de amigos distintos
+    private long totalDegree;    // suma de los grados de todos los perfiles
+
+    public NetworkStatistics(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.degree = new int[capacity];
+        this.heap = new int[capacity];
+        this.heapPosition = new int[capacity];
+        Arrays.fill(heapPosition, -1);
+    }
+
+    private void ensureCapacity(int userIndex) {
+        if (userIndex < degree.length) {
+            return;
+        }
+        int newLength = Math.max(degree.length * 2, userIndex + 1);
+        degree = Arrays.copyOf(degree, newLength);
+        heap = Arrays.copyOf(heap, newLength);
+        int oldLength = heapPosition.length;
+        heapPosition = Arrays.copyOf(heapPosition, newLength);
+        Arrays.fill(heapPosition, oldLength, newLength, -1);
+    }
+
+    // Un perfil nuevo entra al heap con grado 0
+    public void profileAdded(int userIndex) {
+        ensureCapacity(userIndex);
+        if (heapPosition[userIndex] >= 0) {
+            return;
+        }
+        heap[heapSize] = userIndex;
+        heapPosition[userIndex] = heapSize;
+        heapSize++;
+        siftUp(heapPosition[userIndex]);
+    }
+
+    // Llamar solo cuando la amistad es nueva (no al actualizar la calidad de una existente)
+    public void friendshipAdded(int userA, int userB) {
+        friendships++;
+        increaseDegree(userA);
+        if (userB != userA) {
+            increaseDegree(userB);
+        }
+    }
+
+    // Llamar solo cuando la amistad existía
+    public void friendshipRemoved(int userA, int userB) {
+        friendships--;
+        decreaseDegree(userA);
+        if (userB != userA) {
+            decreaseDegree(userB);
+        }
+    }
+
+    // El perfil sale del heap; sus amistades ya deben haberse quitado con friendshipRemoved
+    public void profileRemoved(int userIndex) {
+        if (userIndex >= heapPosition.length || heapPosition[userIndex] < 0) {
+            return;
+        }
+        totalDegree -= degree[userIndex];
+        degree[userIndex] = 0;
+        int position = heapPosition[userIndex];
+        heapPosition[userIndex] = -1;
+        heapSize--;
+        if (position < heapSize) {
+            int moved = heap[heapSize];
+            place(moved, position);
+            siftUp(position);
+            siftDown(heapPosition[moved]);
+        }
+    }
+
+    private void decreaseDegree(int userIndex) {
+        degree[userIndex]--;
+        totalDegree--;
+        if (heapPosition[userIndex] >= 0) {
+            siftDown(heapPosition[userIndex]);
+        }
+    }
+
+    private void increaseDegree(int userIndex) {
+        ensureCapacity(userIndex);
+        degree[userIndex]++;
+        totalDegree++;
+        if (heapPosition[userIndex] >= 0) {
+            siftUp(heapPosition[userIndex]);
+        }
+    }
+
+    // Recalcula todo desde el registro y la instantánea CSR (tras restaurar una instantánea)
+    public void rebuild(UserIdRegistry registry, FriendshipSnapshot graph) {
+        int users = registry.size();
+        ensureCapacity(Math.max(users - 1, 0));
+        Arrays.fill(degree, 0);
+        Arrays.fill(heapPosition, -1);
+        heapSize = 0;
+        friendships = 0;
+        totalDegree = 0;
+
+        for (int u = 0; u < users; u++) {
+            if (registry.profileAt(u) == null) continue;
+            int userDegree = u < graph.getUserCount() ? graph.degree(u) : 0;
+            degree[u] = userDegree;
+            totalDegree += userDegree;
+            if (userDegree > 0) {
+                // Cada par se cuenta desde su extremo de menor índice
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    if (graph.neighbor(e) >= u) {
+                        friendships++;
+                    }
+                }
+            }
+            heap[heapSize] = u;
+            heapPosition[u] = heapSize;
+            heapSize++;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    public long getFriendshipCount() {
+        return friendships;
+    }
+
+    public long getTotalDegree() {
+        return totalDegree;
+    }
+
+    public int getDegree(int userIndex) {
+        return userIndex < degree.length ? degree[userIndex] : 0;
+    }
+
+    // Índice del usuario con más amigos o -1 si no hay perfiles
+    public int getMaxDegreeUser() {
+        return heapSize == 0 ? -1 : heap[0];
+    }
+
+    public int getMaxDegree() {
+        return heapSize == 0 ? 0 : degree[heap[0]];
+    }
+
+    // a va antes que b en el heap
+    private boolean ranksBefore(int a, int b) {
+        return degree[a] > degree[b] || (degree[a] == degree[b] && a < b);
+    }
+
+    private void siftUp(int position) {
+        int user = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!ranksBefore(user, heap[parent])) break;
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(user, position);
+    }
+
+    private void siftDown(int position) {
+        int user = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && ranksBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!ranksBefore(heap[child], user)) break;
+            place(heap[child], position);
+            position = child;
+        }
+        place(user, position);
+    }
+
+    private void place(int user, int position) {
+        heap[position] = user;
+        heapPosition[user] = position;
+    }
+}
@@ -0,0 +1,204 @@
+package conectads;
+
+import java.util.LinkedList;
+
+// Tabla hash de perfiles con direccionamiento abierto (sondeo lineal).
+// Usa arreglos paralelos de claves, hashes y valores en lugar de listas por bucket,
+// por lo que cada entrada no crea nodos ni iteradores y las búsquedas recorren memoria contigua.
+public class OpenAddressingProfileTable implements ProfileTable {
+
+    private String[] keys;
+    private int[] hashes;       // hash ya mezclado de cada clave, evita equals en colisiones
+    private Profile[] values;
+    private int mask;           // capacidad - 1 (la capacidad siempre es potencia de dos)
+    private int size;
+    private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+
+    public OpenAddressingProfileTable(int initialCapacity) {
+        int capacity = HashTables.tableSizeFor(Math.max(initialCapacity, 2));
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.values = new Profile[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    public OpenAddressingProfileTable() {
+        this(16);
+    }
+
+    // Mezcla de Fibonacci: reparte bien los bits altos antes de aplicar la máscara
+    // (del paquete para que las pruebas elijan claves con una posición ideal dada)
+    static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Devuelve la posición de la clave o -1 si no está
+    private int findSlot(String key, int h) {
+        int slot = h & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public void insert(Profile profile) {
+        String key = profile.getUserID();
+        int h = hash(key);
+        int slot = h & mask;
+
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].equals(key)) {
+                values[slot] = profile;
+                if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                    EventLog.debug("Perfil actualizado: " + key);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        hashes[slot] = h;
+        values[slot] = profile;
+        size++;
+        if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+            EventLog.debug("Perfil insertado: " + key + " en slot " + slot);
+        }
+
+        if ((double) size / keys.length >= LOAD_FACTOR_THRESHOLD) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    @Override
+    public Profile search(String userID) {
+        int h = hash(userID);
+        int slot = h & mask;
+        int probes = 1;
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].equals(userID)) {
+                Metrics.profileLookup(probes, true);
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+            probes++;
+        }
+        Metrics.profileLookup(probes, false);
+        return null;
+    }
+
+    @Override
+    public boolean delete(String userID) {
+        int slot = findSlot(userID, hash(userID));
+        if (slot < 0) {
+            return false;
+        }
+
+        // Borrado con desplazamiento hacia atrás: no deja lápidas que alarguen los sondeos
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != null) {
+            int home = hashes[next] & mask;
+            // Mueve la entrada si su posición ideal no está entre el hueco y su posición actual
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hashes[hole] = hashes[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        hashes[hole] = 0;
+        values[hole] = null;
+        size--;
+        if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+            EventLog.debug("Perfil eliminado: " + userID);
+        }
+        return true;
+    }
+
+    @Override
+    public void ensureCapacity(int expectedProfiles) {
+        int capacity = HashTables.tableSizeFor((int) (expectedProfiles / LOAD_FACTOR_THRESHOLD) + 1);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    private void rehash(int capacity) {
+        EventLog.info("Rehashing... Tamaño anterior: " + keys.length);
+        long start = Metrics.start();
+
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Profile[] oldValues = values;
+
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new Profile[capacity];
+        mask = capacity - 1;
+
+        // Mueve las entradas directamente usando el hash guardado, sin volver a llamar a insert
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        Metrics.resized("OpenAddressingProfileTable", oldKeys.length, capacity, start);
+        EventLog.info("Rehashing completado. Nuevo tamaño: " + capacity);
+    }
+
+    @Override
+    public LinkedList<Profile> getAllProfiles() {
+        LinkedList<Profile> allProfiles = new LinkedList<>();
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                allProfiles.add(values[i]);
+            }
+        }
+        return allProfiles;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printStatistics() {
+        System.out.println("\nEstadísticas de la Tabla Hash (direccionamiento abierto)");
+        System.out.println("Número de slots: " + keys.length);
+        System.out.println("Número de elementos: " + size);
+        System.out.println("Factor de carga: " + String.format("%.2f", (double) size / keys.length));
+
+        int maxProbeLength = 0;
+        long totalProbeLength = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                int probeLength = ((i - (hashes[i] & mask)) & mask) + 1;
+                totalProbeLength += probeLength;
+                maxProbeLength = Math.max(maxProbeLength, probeLength);
+            }
+        }
+
+        System.out.println("Longitud media de sondeo: " +
+                String.format("%.2f", size > 0 ? (double) totalProbeLength / size : 0));
+        System.out.println("Longitud máxima de sondeo: " + maxProbeLength);
+    }
+}
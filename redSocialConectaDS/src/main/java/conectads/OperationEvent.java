@@ -0,0 +1,33 @@
+package conectads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Evento JFR por cada crearPerfil, generarLazo o sugerirAmigos; solo se crea si hay una
+// grabación que lo tenga activado (ver Metrics.operation)
+@Name("conectads.Operation")
+@Label("Operación")
+@Category("Conecta-DS")
+@Description("Latencia de una operación del sistema")
+@StackTrace(false)
+final class OperationEvent extends Event {
+
+    @Label("Operación")
+    String operation;
+
+    @Label("Usuario")
+    String userID;
+
+    @Label("Exitosa")
+    boolean success;
+
+    // La duración propia del evento queda en 0: se confirma al terminar, con el tiempo ya medido
+    @Label("Tiempo medido")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,225 @@
+package conectads;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Lectura de CSV por bloques en paralelo.
+// El archivo se divide en rangos de bytes que empiezan y terminan en un salto de línea,
+// cada rango se mapea en memoria y se analiza con MappedCsvScanner en el ForkJoinPool común,
+// y los resultados se entregan en orden de archivo, de modo que quien los aplica puede ir
+// procesando un bloque mientras se analizan los siguientes.
+public final class ParallelCsvLoader {
+
+    // Tamaño mínimo de un bloque; las pruebas lo bajan para repartir archivos pequeños en varios bloques
+    static int minChunkBytes = 1 << 20;
+
+    private ParallelCsvLoader() {
+    }
+
+    // Filas de perfiles de un bloque; numberFormatError indica que el análisis se detuvo
+    // en una fila con un número inválido (las filas anteriores son válidas)
+    public static final class ProfileRows {
+        final List<String> userIDs = new ArrayList<>();
+        final List<String> fullNames = new ArrayList<>();
+        final List<String> genders = new ArrayList<>();
+        int[] ages = new int[16];
+        boolean numberFormatError;
+
+        int size() {
+            return userIDs.size();
+        }
+
+        void add(String userID, String fullName, int age, String gender) {
+            if (userIDs.size() == ages.length) {
+                int[] newAges = new int[ages.length * 2];
+                System.arraycopy(ages, 0, newAges, 0, ages.length);
+                ages = newAges;
+            }
+            ages[userIDs.size()] = age;
+            userIDs.add(userID);
+            fullNames.add(fullName);
+            genders.add(gender);
+        }
+    }
+
+    // Conexiones de un bloque con los userIDs ya resueltos a índices (-1 si no existen)
+    public static final class ConnectionRows {
+        int[] usersA = new int[16];
+        int[] usersB = new int[16];
+        int[] qualities = new int[16];
+        int size;
+        boolean numberFormatError;
+
+        int size() {
+            return size;
+        }
+
+        void add(int userA, int userB, int quality) {
+            if (size == qualities.length) {
+                usersA = grow(usersA);
+                usersB = grow(usersB);
+                qualities = grow(qualities);
+            }
+            usersA[size] = userA;
+            usersB[size] = userB;
+            qualities[size] = quality;
+            size++;
+        }
+
+        private static int[] grow(int[] values) {
+            int[] newValues = new int[values.length * 2];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            return newValues;
+        }
+    }
+
+    // Lanza el análisis de todos los bloques del archivo de perfiles
+    public static List<ForkJoinTask<ProfileRows>> parseProfiles(String filename) throws IOException {
+        List<ForkJoinTask<ProfileRows>> tasks = new ArrayList<>();
+        for (long[] range : splitAtLines(filename)) {
+            long start = range[0];
+            long end = range[1];
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                try {
+                    return parseProfileChunk(filename, start, end);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    // Los userIDs se resuelven en los hilos de análisis: el registro no debe modificarse mientras tanto
+    public static List<ForkJoinTask<ConnectionRows>> parseConnections(String filename,
+                                                                      UserIdRegistry registry) throws IOException {
+        List<ForkJoinTask<ConnectionRows>> tasks = new ArrayList<>();
+        for (long[] range : splitAtLines(filename)) {
+            long start = range[0];
+            long end = range[1];
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                try {
+                    return parseConnectionChunk(filename, start, end, registry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    // Divide el archivo en rangos [inicio, fin) cuyos límites caen justo después de un '\n'
+    static List<long[]> splitAtLines(String filename) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int parallelism = ForkJoinPool.commonPool().getParallelism();
+            long chunkSize = Math.max(minChunkBytes, fileSize / (parallelism * 4L) + 1);
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+
+            long start = 0;
+            while (start < fileSize) {
+                long end = Math.min(fileSize, start + chunkSize);
+                // Avanza el límite hasta el siguiente fin de línea
+                while (end < fileSize) {
+                    probe.clear();
+                    int read = channel.read(probe, end);
+                    if (read <= 0) {
+                        end = fileSize;
+                        break;
+                    }
+                    int newline = -1;
+                    for (int i = 0; i < read; i++) {
+                        if (probe.get(i) == '\n') {
+                            newline = i;
+                            break;
+                        }
+                    }
+                    if (newline >= 0) {
+                        end += newline + 1;
+                        break;
+                    }
+                    end += read;
+                }
+                ranges.add(new long[] {start, end});
+                start = end;
+            }
+        }
+        return ranges;
+    }
+
+    // Mapea en memoria el rango [start, end) del archivo
+    static MappedByteBuffer map(String filename, long start, long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+    }
+
+    // Indica si la línea actual es la de encabezados
+    static boolean isHeader(MappedCsvScanner scanner, String keyword) {
+        return scanner.lineContainsIgnoreCase("userid") || scanner.lineContainsIgnoreCase(keyword);
+    }
+
+    static ProfileRows parseProfileChunk(String filename, long start, long end) throws IOException {
+        MappedCsvScanner scanner = new MappedCsvScanner(map(filename, start, end));
+        ProfileRows rows = new ProfileRows();
+        boolean isFirstLine = start == 0;
+
+        while (scanner.nextLine()) {
+            // Saltar la línea de encabezados si existe (solo al inicio del archivo)
+            if (isFirstLine) {
+                isFirstLine = false;
+                if (isHeader(scanner, "id")) {
+                    continue;
+                }
+            }
+
+            if (scanner.fieldCount() >= 4) {
+                try {
+                    int age = scanner.intField(2);
+                    rows.add(scanner.stringField(0), scanner.stringField(1), age, scanner.upperCaseField(3));
+                } catch (NumberFormatException e) {
+                    rows.numberFormatError = true;
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+
+    static ConnectionRows parseConnectionChunk(String filename, long start, long end,
+                                               UserIdRegistry registry) throws IOException {
+        MappedCsvScanner scanner = new MappedCsvScanner(map(filename, start, end));
+        ConnectionRows rows = new ConnectionRows();
+        boolean isFirstLine = start == 0;
+
+        while (scanner.nextLine()) {
+            if (isFirstLine) {
+                isFirstLine = false;
+                if (isHeader(scanner, "calidad")) {
+                    continue;
+                }
+            }
+
+            if (scanner.fieldCount() >= 3) {
+                try {
+                    int quality = scanner.intField(2);
+                    rows.add(scanner.lookupField(registry, 0), scanner.lookupField(registry, 1), quality);
+                } catch (NumberFormatException e) {
+                    rows.numberFormatError = true;
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+}
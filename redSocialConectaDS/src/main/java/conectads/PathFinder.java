@@ -0,0 +1,294 @@
+package conectads;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Caminos más cortos entre dos usuarios sobre la instantánea CSR de amistades.
+// shortestPath: BFS bidireccional que en cada paso expande el nivel completo de la frontera
+// más pequeña. cheapestPath: Dijkstra bidireccional con peso 6 - calidad; como los pesos son
+// enteros de 1 a 5 usa colas por cubetas (Dial) en lugar de un heap.
+// Las marcas de visita son sellos por época y las colas arreglos reutilizados, así que una
+// consulta solo reserva memoria para el camino que devuelve. No es seguro entre hilos.
+public class PathFinder {
+
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+    private static final int BUCKETS = 6; // distancias en cola: [nivel, nivel + 5]
+
+    private final UserIdRegistry registry;
+    private final Supplier<FriendshipSnapshot> adjacency;
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int currentStamp;
+
+    // Extremos de la amistad donde se encontraron las dos búsquedas (a del lado del origen)
+    private int meetA;
+    private int meetB;
+    private int meetQuality;
+
+    // Estado de una de las dos búsquedas, indexado por usuario
+    private static final class Side {
+        int[] labelStamp = new int[0];   // == currentStamp si el usuario tiene distancia
+        int[] settledStamp = new int[0]; // == currentStamp si su distancia ya es definitiva (Dijkstra)
+        int[] distance = new int[0];
+        int[] previous = new int[0];     // usuario anterior en el camino desde el extremo de este lado
+        byte[] previousQuality = new byte[0];
+        int[] queue = new int[0];        // BFS: cada usuario entra una sola vez
+        int head;
+        int tail;
+        int depth;
+
+        // Dijkstra: una pila de usuarios por distancia módulo BUCKETS, con entradas obsoletas
+        final int[][] buckets = new int[BUCKETS][16];
+        final int[] bucketSizes = new int[BUCKETS];
+        int queued;
+        int level;
+
+        void ensureCapacity(int users) {
+            if (labelStamp.length >= users) {
+                return;
+            }
+            int length = Math.max(users, labelStamp.length * 2);
+            labelStamp = Arrays.copyOf(labelStamp, length);
+            settledStamp = Arrays.copyOf(settledStamp, length);
+            distance = Arrays.copyOf(distance, length);
+            previous = Arrays.copyOf(previous, length);
+            previousQuality = Arrays.copyOf(previousQuality, length);
+            queue = Arrays.copyOf(queue, length);
+        }
+
+        void clearStamps() {
+            Arrays.fill(labelStamp, 0);
+            Arrays.fill(settledStamp, 0);
+        }
+
+        void start(int user, int stamp) {
+            labelStamp[user] = stamp;
+            distance[user] = 0;
+            previous[user] = -1;
+            queue[0] = user;
+            head = 0;
+            tail = 1;
+            depth = 0;
+            Arrays.fill(bucketSizes, 0);
+            queued = 0;
+            level = 0;
+        }
+
+        void push(int user, int dist) {
+            int b = dist % BUCKETS;
+            if (bucketSizes[b] == buckets[b].length) {
+                buckets[b] = Arrays.copyOf(buckets[b], bucketSizes[b] * 2);
+            }
+            buckets[b][bucketSizes[b]++] = user;
+            queued++;
+        }
+    }
+
+    public PathFinder(UserIdRegistry registry, Supplier<FriendshipSnapshot> adjacency) {
+        this.registry = registry;
+        this.adjacency = adjacency;
+    }
+
+    // Peso de una amistad para cheapestPath: las amistades de mayor calidad acercan más
+    public static int edgeCost(int quality) {
+        return 6 - quality;
+    }
+
+    // Camino con menos amistades entre source y target, o null si no hay ninguno de como
+    // mucho maxHops amistades (NO_LIMIT para no acotar)
+    public FriendshipPath shortestPath(int source, int target, int maxHops) {
+        if (source == target) {
+            return trivialPath(source);
+        }
+        FriendshipSnapshot graph = adjacency.get();
+        if (!hasEdges(graph, source) || !hasEdges(graph, target)) {
+            return null;
+        }
+        int stamp = begin(source, target);
+        int best = Integer.MAX_VALUE;
+
+        while (forward.head < forward.tail && backward.head < backward.tail) {
+            // Un camino que aún no se encontró tiene al menos depth + depth + 1 amistades
+            if ((long) forward.depth + backward.depth + 1 > maxHops) {
+                break;
+            }
+            boolean expandForward = forward.tail - forward.head <= backward.tail - backward.head;
+            Side side = expandForward ? forward : backward;
+            Side other = expandForward ? backward : forward;
+
+            int levelEnd = side.tail;
+            int nextDepth = side.depth + 1;
+            for (int i = side.head; i < levelEnd; i++) {
+                int user = side.queue[i];
+                for (int e = graph.edgeStart(user); e < graph.edgeEnd(user); e++) {
+                    int friend = graph.neighbor(e);
+                    if (other.labelStamp[friend] == stamp) {
+                        int length = nextDepth + other.distance[friend];
+                        if (length < best) {
+                            best = length;
+                            setMeeting(expandForward, user, friend, graph.quality(e));
+                        }
+                    }
+                    if (side.labelStamp[friend] != stamp) {
+                        side.labelStamp[friend] = stamp;
+                        side.distance[friend] = nextDepth;
+                        side.previous[friend] = user;
+                        side.previousQuality[friend] = (byte) graph.quality(e);
+                        side.queue[side.tail++] = friend;
+                    }
+                }
+            }
+            side.head = levelEnd;
+            side.depth = nextDepth;
+
+            // Al terminar el primer nivel con encuentros, el mejor de ellos es el más corto
+            if (best != Integer.MAX_VALUE) {
+                return buildPath();
+            }
+        }
+        return null;
+    }
+
+    // Camino de menor costo total (edgeCost por amistad) entre source y target, o null si no hay
+    public FriendshipPath cheapestPath(int source, int target) {
+        if (source == target) {
+            return trivialPath(source);
+        }
+        FriendshipSnapshot graph = adjacency.get();
+        if (!hasEdges(graph, source) || !hasEdges(graph, target)) {
+            return null;
+        }
+        int stamp = begin(source, target);
+        forward.push(source, 0);
+        backward.push(target, 0);
+        long best = Long.MAX_VALUE;
+
+        while (true) {
+            if (!advanceLevel(forward) || !advanceLevel(backward)) {
+                break;
+            }
+            // Ningún camino aún no visto puede costar menos que la suma de los niveles actuales
+            if (forward.level + backward.level >= best) {
+                break;
+            }
+            boolean expandForward = forward.queued <= backward.queued;
+            Side side = expandForward ? forward : backward;
+            Side other = expandForward ? backward : forward;
+
+            int level = side.level;
+            int b = level % BUCKETS;
+            // Con costos de 1 a 5 ninguna amistad vuelve a esta cubeta mientras se vacía
+            while (side.bucketSizes[b] > 0) {
+                int user = side.buckets[b][--side.bucketSizes[b]];
+                side.queued--;
+                if (side.settledStamp[user] == stamp || side.distance[user] != level) {
+                    continue;
+                }
+                side.settledStamp[user] = stamp;
+                for (int e = graph.edgeStart(user); e < graph.edgeEnd(user); e++) {
+                    int friend = graph.neighbor(e);
+                    int quality = graph.quality(e);
+                    int dist = level + edgeCost(quality);
+                    if (other.labelStamp[friend] == stamp) {
+                        long cost = (long) dist + other.distance[friend];
+                        if (cost < best) {
+                            best = cost;
+                            setMeeting(expandForward, user, friend, quality);
+                        }
+                    }
+                    if (side.labelStamp[friend] != stamp || dist < side.distance[friend]) {
+                        side.labelStamp[friend] = stamp;
+                        side.distance[friend] = dist;
+                        side.previous[friend] = user;
+                        side.previousQuality[friend] = (byte) quality;
+                        side.push(friend, dist);
+                    }
+                }
+            }
+        }
+        return best == Long.MAX_VALUE ? null : buildPath();
+    }
+
+    // Avanza side.level hasta la primera cubeta con una entrada vigente; false si la cola se vació
+    private boolean advanceLevel(Side side) {
+        int stamp = currentStamp;
+        while (side.queued > 0) {
+            int b = side.level % BUCKETS;
+            // Descarta de la cima las entradas obsoletas de este nivel
+            while (side.bucketSizes[b] > 0) {
+                int user = side.buckets[b][side.bucketSizes[b] - 1];
+                if (side.settledStamp[user] != stamp && side.distance[user] == side.level) {
+                    return true;
+                }
+                side.bucketSizes[b]--;
+                side.queued--;
+            }
+            side.level++;
+        }
+        return false;
+    }
+
+    private static boolean hasEdges(FriendshipSnapshot graph, int user) {
+        return user >= 0 && user < graph.getUserCount() && graph.degree(user) > 0;
+    }
+
+    private int begin(int source, int target) {
+        int users = registry.size();
+        forward.ensureCapacity(users);
+        backward.ensureCapacity(users);
+        if (++currentStamp == Integer.MAX_VALUE) {
+            forward.clearStamps();
+            backward.clearStamps();
+            currentStamp = 1;
+        }
+        forward.start(source, currentStamp);
+        backward.start(target, currentStamp);
+        return currentStamp;
+    }
+
+    private void setMeeting(boolean fromForward, int user, int friend, int quality) {
+        meetA = fromForward ? user : friend;
+        meetB = fromForward ? friend : user;
+        meetQuality = quality;
+    }
+
+    private FriendshipPath trivialPath(int user) {
+        return new FriendshipPath(new String[] {registry.userIdAt(user)}, new int[0]);
+    }
+
+    // Une la cadena de anteriores del origen hasta meetA, la amistad del encuentro
+    // y la cadena desde meetB hasta el destino
+    private FriendshipPath buildPath() {
+        int forwardHops = 0;
+        for (int u = meetA; forward.previous[u] >= 0; u = forward.previous[u]) {
+            forwardHops++;
+        }
+        int backwardHops = 0;
+        for (int u = meetB; backward.previous[u] >= 0; u = backward.previous[u]) {
+            backwardHops++;
+        }
+
+        int hops = forwardHops + 1 + backwardHops;
+        String[] userIDs = new String[hops + 1];
+        int[] qualities = new int[hops];
+
+        int position = forwardHops;
+        for (int u = meetA; position >= 0; u = forward.previous[u]) {
+            userIDs[position] = registry.userIdAt(u);
+            if (position > 0) {
+                qualities[position - 1] = forward.previousQuality[u];
+            }
+            position--;
+        }
+        qualities[forwardHops] = meetQuality;
+        position = forwardHops + 1;
+        for (int u = meetB; u >= 0; u = backward.previous[u]) {
+            userIDs[position] = registry.userIdAt(u);
+            if (backward.previous[u] >= 0) {
+                qualities[position] = backward.previousQuality[u];
+            }
+            position++;
+        }
+        return new FriendshipPath(userIDs, qualities);
+    }
+}
@@ -0,0 +1,329 @@
+package conectads;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+public class Profile {
+    private String userID;
+    private String fullName;
+    private int age;
+    private String gender; // "M" o "F"
+    private final int index;                 // índice denso asignado por UserIdRegistry
+    private final UserIdRegistry registry;   // traduce índices de amigos a userIDs en la API
+
+    // Lista de amigos como arreglos paralelos: índice del amigo -> calidad (1-5)
+    private int[] friendIndexes;
+    private byte[] friendQualities;
+    private int friendCount;
+    private int[] friendSlots; // índice de amigo -> posición + 1, se crea solo para listas grandes
+    private static final int LINEAR_SCAN_LIMIT = 8;
+    private Map<String, Integer> friendsView;
+
+    public Profile(UserIdRegistry registry, String userID, String fullName, int age, String gender) {
+        this.userID = userID;
+        this.fullName = fullName;
+        this.age = age;
+        this.gender = gender;
+        this.registry = registry;
+        this.index = registry.intern(userID);
+        this.friendIndexes = new int[4];
+        this.friendQualities = new byte[4];
+        this.friendCount = 0;
+    }
+
+    public boolean addFriend(String friendID, int quality) {
+        return addFriend(registry.intern(friendID), quality);
+    }
+
+    // Devuelve false si ya eran amigos (solo se actualiza la calidad)
+    public boolean addFriend(int friendIndex, int quality) {
+        if (quality < 1 || quality > 5) {
+            throw new IllegalArgumentException("La calidad de amistad debe estar entre 1 y 5");
+        }
+
+        int slot = findFriendSlot(friendIndex);
+        if (slot >= 0) {
+            friendQualities[slot] = (byte) quality;
+            return false;
+        }
+
+        if (friendCount == friendIndexes.length) {
+            int newLength = friendCount * 2;
+            int[] newIndexes = new int[newLength];
+            byte[] newQualities = new byte[newLength];
+            System.arraycopy(friendIndexes, 0, newIndexes, 0, friendCount);
+            System.arraycopy(friendQualities, 0, newQualities, 0, friendCount);
+            friendIndexes = newIndexes;
+            friendQualities = newQualities;
+        }
+        friendIndexes[friendCount] = friendIndex;
+        friendQualities[friendCount] = (byte) quality;
+        friendCount++;
+
+        if (friendSlots != null) {
+            if (friendCount * 2 > friendSlots.length) {
+                rebuildFriendSlots();
+            } else {
+                putFriendSlot(friendIndex, friendCount - 1);
+            }
+        } else if (friendCount > LINEAR_SCAN_LIMIT) {
+            rebuildFriendSlots();
+        }
+        return true;
+    }
+
+    public boolean removeFriend(String friendID) {
+        int friendIndex = registry.indexOf(friendID);
+        return friendIndex >= 0 && removeFriend(friendIndex);
+    }
+
+    // Quita al amigo moviendo el último a su posición; devuelve false si no era amigo
+    public boolean removeFriend(int friendIndex) {
+        int slot = findFriendSlot(friendIndex);
+        if (slot < 0) {
+            return false;
+        }
+        int last = friendCount - 1;
+        if (friendSlots != null) {
+            removeFriendSlot(friendIndex);
+            if (slot != last) {
+                moveFriendSlot(friendIndexes[last], slot);
+            }
+        }
+        friendIndexes[slot] = friendIndexes[last];
+        friendQualities[slot] = friendQualities[last];
+        friendCount--;
+        return true;
+    }
+
+    // Posición del amigo en los arreglos o -1 si no es amigo
+    private int findFriendSlot(int friendIndex) {
+        if (friendSlots == null) {
+            for (int i = 0; i < friendCount; i++) {
+                if (friendIndexes[i] == friendIndex) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = friendSlots.length - 1;
+        int pos = mix(friendIndex) & mask;
+        while (friendSlots[pos] != 0) {
+            int slot = friendSlots[pos] - 1;
+            if (friendIndexes[slot] == friendIndex) {
+                return slot;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Reemplaza la lista de amigos por el rango [from, to) de los arreglos dados (carga de instantáneas)
+    void restoreFriends(int[] indexes, byte[] qualities, int from, int to) {
+        friendCount = to - from;
+        friendIndexes = new int[Math.max(friendCount, 4)];
+        friendQualities = new byte[friendIndexes.length];
+        System.arraycopy(indexes, from, friendIndexes, 0, friendCount);
+        System.arraycopy(qualities, from, friendQualities, 0, friendCount);
+        friendSlots = null;
+        if (friendCount > LINEAR_SCAN_LIMIT) {
+            rebuildFriendSlots();
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void putFriendSlot(int friendIndex, int slot) {
+        int mask = friendSlots.length - 1;
+        int pos = mix(friendIndex) & mask;
+        while (friendSlots[pos] != 0) {
+            pos = (pos + 1) & mask;
+        }
+        friendSlots[pos] = slot + 1;
+    }
+
+    // Borrado con desplazamiento hacia atrás, igual que en OpenAddressingProfileTable
+    private void removeFriendSlot(int friendIndex) {
+        int mask = friendSlots.length - 1;
+        int hole = mix(friendIndex) & mask;
+        while (friendIndexes[friendSlots[hole] - 1] != friendIndex) {
+            hole = (hole + 1) & mask;
+        }
+        int next = (hole + 1) & mask;
+        while (friendSlots[next] != 0) {
+            int home = mix(friendIndexes[friendSlots[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                friendSlots[hole] = friendSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        friendSlots[hole] = 0;
+    }
+
+    // El amigo guardado en la última posición pasa a la posición slot
+    private void moveFriendSlot(int friendIndex, int slot) {
+        int mask = friendSlots.length - 1;
+        int pos = mix(friendIndex) & mask;
+        while (friendIndexes[friendSlots[pos] - 1] != friendIndex) {
+            pos = (pos + 1) & mask;
+        }
+        friendSlots[pos] = slot + 1;
+    }
+
+    private void rebuildFriendSlots() {
+        friendSlots = new int[Integer.highestOneBit(friendCount) << 2];
+        for (int i = 0; i < friendCount; i++) {
+            putFriendSlot(friendIndexes[i], i);
+        }
+    }
+
+    public int getFriendshipQuality(String friendID) {
+        int friendIndex = registry.indexOf(friendID);
+        return friendIndex < 0 ? 0 : getFriendshipQuality(friendIndex);
+    }
+    public int getFriendshipQuality(int friendIndex) {
+        int slot = findFriendSlot(friendIndex);
+        return slot < 0 ? 0 : friendQualities[slot];
+    }
+    public boolean isFriend(String friendID) {
+        int friendIndex = registry.indexOf(friendID);
+        return friendIndex >= 0 && isFriend(friendIndex);
+    }
+    public boolean isFriend(int friendIndex) {
+        return findFriendSlot(friendIndex) >= 0;
+    }
+    public String getUserID() {
+        return userID;
+    }
+    public int getIndex() {
+        return index;
+    }
+    public String getFullName() {
+        return fullName;
+    }
+    public int getAge() {
+        return age;
+    }
+    public String getGender() {
+        return gender;
+    }
+
+    // Acceso posicional a la lista de amigos sin crear objetos
+    public int getFriendCount() {
+        return friendCount;
+    }
+    public int getFriendIndexAt(int slot) {
+        return friendIndexes[slot];
+    }
+    public int getFriendQualityAt(int slot) {
+        return friendQualities[slot];
+    }
+
+    // Recorre los amigos (friendID, calidad) sin copiar la lista
+    public void forEachFriend(ObjIntConsumer<String> visitor) {
+        for (int i = 0; i < friendCount; i++) {
+            visitor.accept(registry.userIdAt(friendIndexes[i]), friendQualities[i]);
+        }
+    }
+
+    // Vista de solo lectura respaldada por la lista real: no copia y refleja amistades posteriores
+    public Map<String, Integer> getFriendsView() {
+        if (friendsView == null) {
+            friendsView = new FriendsView();
+        }
+        return friendsView;
+    }
+
+    public Map<String, Integer> getFriendsList() {
+        // Retorna una copia para evitar modificaciones externas; para solo leer usar getFriendsView()
+        Map<String, Integer> friends = new HashMap<>();
+        for (int i = 0; i < friendCount; i++) {
+            friends.put(registry.userIdAt(friendIndexes[i]), (int) friendQualities[i]);
+        }
+        return friends;
+    }
+
+    private final class FriendsView extends AbstractMap<String, Integer> {
+
+        @Override
+        public int size() {
+            return friendCount;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && isFriend((String) key);
+        }
+
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int quality = getFriendshipQuality((String) key);
+            return quality == 0 ? null : quality;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Integer>>() {
+                @Override
+                public int size() {
+                    return friendCount;
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Integer>> iterator() {
+                    return new Iterator<Map.Entry<String, Integer>>() {
+                        private int slot = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < friendCount;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Integer> next() {
+                            if (slot >= friendCount) {
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<String, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(
+                                    registry.userIdAt(friendIndexes[slot]), (int) friendQualities[slot]);
+                            slot++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Profile[ID=%s, Name=%s, Age=%d, Gender=%s, Friends=%d]",
+                userID, fullName, age, gender, friendCount);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Profile profile = (Profile) obj;
+        return userID.equals(profile.userID);
+    }
+
+    @Override
+    public int hashCode() {
+        return userID.hashCode();
+    }
+}
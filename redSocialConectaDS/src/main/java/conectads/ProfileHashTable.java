@@ -0,0 +1,351 @@
+package conectads;
+
+import java.util.LinkedList;
+
+public class ProfileHashTable implements ProfileTable {
+    
+    private static class HashNode {
+        String key;
+        Profile value;
+        
+        public HashNode(String key, Profile value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+    
+    private LinkedList<HashNode>[] bucketArray;
+    private int numBuckets;
+    private int size;
+    private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+    
+    // Rehashing incremental: mientras dura la migración conviven la tabla anterior y la nueva
+    private final boolean incrementalRehash;
+    private LinkedList<HashNode>[] oldBucketArray; // null si no hay migración en curso
+    private int rehashIndex;                       // próximo bucket de la tabla anterior a migrar
+    static final int MIGRATION_STEP = 4;           // buckets no vacíos migrados por operación
+    static final int EMPTY_VISITS_PER_STEP = 10;   // buckets vacíos tolerados por cada paso
+    int lastMigratedBuckets;                       // trabajo del último paso de migración
+    int lastEmptyVisits;
+    
+    public ProfileHashTable(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+    
+    // Con incrementalRehash = true el crecimiento se reparte entre las operaciones siguientes
+    // en lugar de copiar toda la tabla dentro de una sola inserción
+    public ProfileHashTable(int initialCapacity, boolean incrementalRehash) {
+        this.numBuckets = initialCapacity;
+        // Los buckets se crean al recibir su primer elemento
+        this.bucketArray = newBuckets(numBuckets);
+        this.size = 0;
+        this.incrementalRehash = incrementalRehash;
+    }
+    
+    public ProfileHashTable() {
+        this(16);
+    }
+    
+    // Java no permite crear arreglos de un tipo genérico: se crea sin tipo y se convierte una vez aquí
+    @SuppressWarnings("unchecked")
+    private static LinkedList<HashNode>[] newBuckets(int count) {
+        return (LinkedList<HashNode>[]) new LinkedList<?>[count];
+    }
+    
+    private int getBucketIndex(String key) {
+        return indexFor(key, numBuckets);
+    }
+    
+    private static int indexFor(String key, int buckets) {
+        int hashCode = key.hashCode();
+        // Asegura que el índice sea positivo (Math.abs falla con Integer.MIN_VALUE)
+        return (hashCode & 0x7fffffff) % buckets;
+    }
+    
+    // Busca el nodo en los buckets de la tabla anterior que aún no se han migrado
+    private HashNode findInOldTable(String key) {
+        if (oldBucketArray == null) {
+            return null;
+        }
+        LinkedList<HashNode> bucket = oldBucketArray[indexFor(key, oldBucketArray.length)];
+        if (bucket == null) {
+            return null;
+        }
+        for (HashNode node : bucket) {
+            if (node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public void insert(Profile profile) {
+        String key = profile.getUserID();
+        if (oldBucketArray != null) {
+            migrateBuckets(MIGRATION_STEP);
+            HashNode oldNode = findInOldTable(key);
+            if (oldNode != null) {
+                oldNode.value = profile;
+                if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                    EventLog.debug("Perfil actualizado: " + key);
+                }
+                return;
+            }
+        }
+        
+        int bucketIndex = getBucketIndex(key);
+        LinkedList<HashNode> bucket = bucketArray[bucketIndex];
+        
+        if (bucket == null) {
+            bucket = new LinkedList<>();
+            bucketArray[bucketIndex] = bucket;
+        }
+        
+        // Verifica si el perfil ya existe y actualiza si es necesario
+        for (HashNode node : bucket) {
+            if (node.key.equals(key)) {
+                node.value = profile;
+                if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                    EventLog.debug("Perfil actualizado: " + key);
+                }
+                return;
+            }
+        }
+        
+        // Agrega nuevo nodo al bucket
+        bucket.add(new HashNode(key, profile));
+        size++;
+        if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+            EventLog.debug("Perfil insertado: " + key + " en bucket " + bucketIndex);
+        }
+        
+        // Verificar si es necesario rehashing
+        if (oldBucketArray == null && (double) size / numBuckets >= LOAD_FACTOR_THRESHOLD) {
+            if (incrementalRehash) {
+                startIncrementalRehash(numBuckets * 2);
+            } else {
+                rehash(numBuckets * 2);
+            }
+        }
+    }
+    
+    @Override
+    public Profile search(String userID) {
+        if (oldBucketArray != null) {
+            migrateBuckets(MIGRATION_STEP);
+            HashNode oldNode = findInOldTable(userID);
+            if (oldNode != null) {
+                return oldNode.value;
+            }
+        }
+        
+        int bucketIndex = getBucketIndex(userID);
+        LinkedList<HashNode> bucket = bucketArray[bucketIndex];
+        if (bucket == null) {
+            Metrics.profileLookup(0, false);
+            return null;
+        }
+        
+        int probes = 0;
+        for (HashNode node : bucket) {
+            probes++;
+            if (node.key.equals(userID)) {
+                Metrics.profileLookup(probes, true);
+                return node.value;
+            }
+        }
+        Metrics.profileLookup(probes, false);
+        return null;
+    }
+    
+    @Override
+    public boolean delete(String userID) {
+        if (oldBucketArray != null) {
+            migrateBuckets(MIGRATION_STEP);
+            HashNode oldNode = findInOldTable(userID);
+            if (oldNode != null) {
+                oldBucketArray[indexFor(userID, oldBucketArray.length)].remove(oldNode);
+                size--;
+                if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                    EventLog.debug("Perfil eliminado: " + userID);
+                }
+                return true;
+            }
+        }
+        
+        int bucketIndex = getBucketIndex(userID);
+        LinkedList<HashNode> bucket = bucketArray[bucketIndex];
+        if (bucket == null) {
+            return false;
+        }
+        
+        for (HashNode node : bucket) {
+            if (node.key.equals(userID)) {
+                bucket.remove(node);
+                size--;
+                if (EventLog.isEnabled(EventLog.Level.DEBUG)) {
+                    EventLog.debug("Perfil eliminado: " + userID);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Prepara la tabla para recibir expectedProfiles perfiles sin tener que hacer rehashing
+    @Override
+    public void ensureCapacity(int expectedProfiles) {
+        int requiredBuckets = (int) (expectedProfiles / LOAD_FACTOR_THRESHOLD) + 1;
+        if (requiredBuckets > numBuckets) {
+            // Una migración pendiente se completa antes de redimensionar de nuevo
+            if (oldBucketArray != null) {
+                migrateBuckets(Integer.MAX_VALUE);
+            }
+            rehash(requiredBuckets);
+        }
+    }
+    
+    private void rehash(int newNumBuckets) {
+        EventLog.info("Rehashing... Tamaño anterior: " + numBuckets);
+        long start = Metrics.start();
+        
+        LinkedList<HashNode>[] previousBuckets = bucketArray;
+        numBuckets = newNumBuckets;
+        bucketArray = newBuckets(numBuckets);
+        
+        // Mueve los nodos existentes a su nuevo bucket sin pasar por insert:
+        // el tamaño no cambia y no hace falta volver a comprobar el factor de carga
+        for (LinkedList<HashNode> bucket : previousBuckets) {
+            if (bucket == null) continue;
+            for (HashNode node : bucket) {
+                moveNode(node);
+            }
+        }
+        
+        Metrics.resized("ProfileHashTable", previousBuckets.length, numBuckets, start);
+        EventLog.info("Rehashing completado. Nuevo tamaño: " + numBuckets);
+    }
+    
+    private void moveNode(HashNode node) {
+        int bucketIndex = getBucketIndex(node.key);
+        LinkedList<HashNode> target = bucketArray[bucketIndex];
+        if (target == null) {
+            target = new LinkedList<>();
+            bucketArray[bucketIndex] = target;
+        }
+        target.add(node);
+    }
+    
+    // Inicia una migración al estilo de Redis: la tabla nueva recibe las inserciones
+    // y cada operación posterior mueve algunos buckets de la anterior
+    private void startIncrementalRehash(int newNumBuckets) {
+        EventLog.info("Rehashing... Tamaño anterior: " + numBuckets);
+        long start = Metrics.start();
+        
+        oldBucketArray = bucketArray;
+        rehashIndex = 0;
+        numBuckets = newNumBuckets;
+        bucketArray = newBuckets(numBuckets);
+        // La pausa es solo la reserva de la tabla nueva; la migración se reparte después
+        Metrics.resized("ProfileHashTable", oldBucketArray.length, numBuckets, start);
+    }
+    
+    boolean hasPendingMigration() {
+        return oldBucketArray != null;
+    }
+
+    private void migrateBuckets(int steps) {
+        // Limita también los buckets vacíos visitados para acotar el coste de cada paso
+        long emptyVisits = (long) steps * EMPTY_VISITS_PER_STEP;
+        lastMigratedBuckets = 0;
+        lastEmptyVisits = 0;
+        while (steps > 0 && rehashIndex < oldBucketArray.length) {
+            LinkedList<HashNode> bucket = oldBucketArray[rehashIndex];
+            oldBucketArray[rehashIndex] = null;
+            rehashIndex++;
+            
+            if (bucket == null || bucket.isEmpty()) {
+                lastEmptyVisits++;
+                if (--emptyVisits == 0) break;
+                continue;
+            }
+            for (HashNode node : bucket) {
+                moveNode(node);
+            }
+            lastMigratedBuckets++;
+            steps--;
+        }
+        
+        if (rehashIndex >= oldBucketArray.length) {
+            oldBucketArray = null;
+            rehashIndex = 0;
+            EventLog.info("Rehashing completado. Nuevo tamaño: " + numBuckets);
+        }
+    }
+    
+    @Override
+    public LinkedList<Profile> getAllProfiles() {
+        LinkedList<Profile> allProfiles = new LinkedList<>();
+        
+        for (LinkedList<HashNode> bucket : bucketArray) {
+            if (bucket == null) continue;
+            for (HashNode node : bucket) {
+                allProfiles.add(node.value);
+            }
+        }
+        if (oldBucketArray != null) {
+            for (LinkedList<HashNode> bucket : oldBucketArray) {
+                if (bucket == null) continue;
+                for (HashNode node : bucket) {
+                    allProfiles.add(node.value);
+                }
+            }
+        }
+        return allProfiles;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printStatistics() {
+        System.out.println("\nEstadísticas de la Tabla Hash");
+        System.out.println("Número de buckets: " + numBuckets);
+        System.out.println("Número de elementos: " + size);
+        System.out.println("Factor de carga: " + String.format("%.2f", (double) size / numBuckets));
+        
+        int maxChainLength = 0;
+        int nonEmptyBuckets = 0;
+        
+        for (LinkedList<HashNode> bucket : bucketArray) {
+            if (bucket != null && !bucket.isEmpty()) {
+                nonEmptyBuckets++;
+                maxChainLength = Math.max(maxChainLength, bucket.size());
+            }
+        }
+        
+        // Durante una migración parte de los elementos sigue en la tabla anterior
+        int pendingEntries = 0;
+        if (oldBucketArray != null) {
+            for (LinkedList<HashNode> bucket : oldBucketArray) {
+                if (bucket != null && !bucket.isEmpty()) {
+                    nonEmptyBuckets++;
+                    maxChainLength = Math.max(maxChainLength, bucket.size());
+                    pendingEntries += bucket.size();
+                }
+            }
+        }
+        
+        System.out.println("Buckets ocupados: " + nonEmptyBuckets);
+        System.out.println("Longitud máxima de cadena: " + maxChainLength);
+        
+        if (oldBucketArray != null) {
+            System.out.println("Rehashing incremental en curso: " + rehashIndex + "/" +
+                    oldBucketArray.length + " buckets migrados, " + pendingEntries +
+                    " elementos aún en la tabla anterior");
+        }
+    }
+}
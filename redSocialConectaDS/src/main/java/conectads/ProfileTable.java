@@ -0,0 +1,23 @@
+package conectads;
+
+import java.util.LinkedList;
+
+// Contrato común de las tablas de perfiles indexadas por userID.
+// Permite elegir la implementación al construir SocialNetworkSystem.
+public interface ProfileTable {
+
+    void insert(Profile profile);
+
+    Profile search(String userID);
+
+    boolean delete(String userID);
+
+    LinkedList<Profile> getAllProfiles();
+
+    // Reserva espacio para expectedProfiles perfiles de modo que cargarlos no provoque rehashing
+    void ensureCapacity(int expectedProfiles);
+
+    int size();
+
+    void printStatistics();
+}
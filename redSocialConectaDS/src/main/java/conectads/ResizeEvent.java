@@ -0,0 +1,29 @@
+package conectads;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Evento JFR por cada rehashing de una tabla de perfiles o expansión del grafo
+@Name("conectads.Resize")
+@Label("Redimensionamiento")
+@Category("Conecta-DS")
+@Description("Pausa de rehashing o expansión de capacidad")
+final class ResizeEvent extends Event {
+
+    @Label("Estructura")
+    String structure;
+
+    @Label("Capacidad anterior")
+    long oldCapacity;
+
+    @Label("Capacidad nueva")
+    long newCapacity;
+
+    @Label("Tiempo medido")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,1187 @@
+package conectads;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+//Integra todos los componentes como perfiles, conexiones y sugerencias
+//Permite la carga de datos desde archivos
+
+public class SocialNetworkSystem {
+    
+    private UserIdRegistry userRegistry;
+    private ProfileTable profileTable;
+    private FriendshipGraph connectionGraph;
+    private FriendSuggestionEngine suggestionEngine;
+    private FriendshipSnapshot adjacencySnapshot; // null cuando hay amistades nuevas sin reflejar
+    private FriendshipSnapshot adjacencyView;     // base + parches para consultas de un usuario; null si no hay
+    private NetworkStatistics networkStatistics;  // grados y amistades mantenidos en cada alta
+    private PathFinder pathFinder;
+    
+    // Persistencia: instantánea + registro de escritura anticipada en dataDirectory
+    private static final String ARCHIVO_INSTANTANEA = "redsocial.snap";
+    private static final long BYTES_PARA_COMPACTAR = 64L << 20;
+    private WriteAheadLog writeAheadLog;          // null si la persistencia no está activa
+    private String dataDirectory;
+    private long ultimoLsn;                       // último registro anexado y aún no confirmado
+    private boolean registroFallido;              // un commit falló: no se aceptan más cambios
+    private ExecutorService compactor;
+    private Future<?> compaction;
+    
+    public SocialNetworkSystem() {
+        this(new ProfileHashTable(50));
+    }
+    
+    // Permite elegir la implementación de la tabla de perfiles
+    // (por ejemplo OpenAddressingProfileTable para volúmenes grandes)
+    public SocialNetworkSystem(ProfileTable profileTable) {
+        this(profileTable, false);
+    }
+    
+    // Con concurrentConnections = true el grafo usa el union-find sin locks y las cargas
+    // paralelas de conexiones aplican las uniones de cada bloque en varios hilos
+    public SocialNetworkSystem(ProfileTable profileTable, boolean concurrentConnections) {
+        this.userRegistry = new UserIdRegistry(100);
+        this.profileTable = profileTable;
+        this.connectionGraph = new FriendshipGraph(userRegistry, 100, concurrentConnections);
+        this.networkStatistics = new NetworkStatistics(100);
+        this.pathFinder = new PathFinder(userRegistry, this::obtenerAdyacencia);
+        this.suggestionEngine = new FriendSuggestionEngine(userRegistry, this::obtenerAdyacencia);
+        
+        EventLog.info("Sistema de Red Social iniciado exitosamente");
+    }
+    
+    public boolean crearPerfil(String userID, String fullName, int age, String gender) {
+        long start = Metrics.start();
+        if (escriturasBloqueadas()) {
+            Metrics.operation(Metrics.Operation.CREAR_PERFIL, userID, start, false);
+            return false;
+        }
+        if (profileTable.search(userID) != null) {
+            EventLog.warn("Error: El usuario " + userID + " ya existe.");
+            Metrics.operation(Metrics.Operation.CREAR_PERFIL, userID, start, false);
+            return false;
+        }
+        
+        registrarPerfil(userID, fullName, age, gender);
+        if (!confirmarEnLog()) {
+            Metrics.operation(Metrics.Operation.CREAR_PERFIL, userID, start, false);
+            return false;
+        }
+        
+        if (EventLog.isEnabled(EventLog.Level.INFO)) {
+            EventLog.info("Perfil creado exitosamente: " + fullName + " (ID: " + userID + ")");
+        }
+        Metrics.operation(Metrics.Operation.CREAR_PERFIL, userID, start, true);
+        return true;
+    }
+    
+    // Alta del perfil en la tabla, el registro de IDs y el grafo, sin validaciones ni mensajes
+    private Profile registrarPerfil(String userID, String fullName, int age, String gender) {
+        Profile newProfile = new Profile(userRegistry, userID, fullName, age, gender);
+        profileTable.insert(newProfile);
+        userRegistry.bindProfile(newProfile.getIndex(), newProfile);
+        connectionGraph.registerUser(userID);
+        networkStatistics.profileAdded(newProfile.getIndex());
+        if (writeAheadLog != null) {
+            ultimoLsn = writeAheadLog.appendProfile(userID, fullName, age, gender);
+        }
+        return newProfile;
+    }
+    
+    public boolean generarLazo(String userID_A, String userID_B, int calidad) {
+        long start = Metrics.start();
+        if (escriturasBloqueadas()) {
+            Metrics.operation(Metrics.Operation.GENERAR_LAZO, userID_A, start, false);
+            return false;
+        }
+        if (calidad < 1 || calidad > 5) {
+            EventLog.warn("Error: La calidad debe estar entre 1 y 5");
+            Metrics.operation(Metrics.Operation.GENERAR_LAZO, userID_A, start, false);
+            return false;
+        }
+        
+        Profile profileA = profileTable.search(userID_A);
+        Profile profileB = profileTable.search(userID_B);
+        
+        if (profileA == null || profileB == null) {
+            EventLog.warn("Error: Uno o ambos usuarios no existen");
+            Metrics.operation(Metrics.Operation.GENERAR_LAZO, userID_A, start, false);
+            return false;
+        }
+        
+        // Crear amistad en ambos sentidos
+        agregarAmistad(profileA, profileB, calidad);
+        
+        // Actualizar el grafo
+        connectionGraph.conectarUsuarios(userID_A, userID_B);
+        amistadesCambiaron(profileA.getIndex(), profileB.getIndex());
+        suggestionEngine.invalidarAmistad(profileA.getIndex(), profileB.getIndex());
+        anotarLazo(profileA, profileB, calidad);
+        if (!confirmarEnLog()) {
+            Metrics.operation(Metrics.Operation.GENERAR_LAZO, userID_A, start, false);
+            return false;
+        }
+        
+        if (EventLog.isEnabled(EventLog.Level.INFO)) {
+            String calidadStr = getCalidadString(calidad);
+            EventLog.info("Amistad establecida: " + profileA.getFullName() +
+                          " <-> " + profileB.getFullName() +
+                          " [" + calidadStr + "]");
+        }
+        Metrics.operation(Metrics.Operation.GENERAR_LAZO, userID_A, start, true);
+        return true;
+    }
+    
+    public boolean eliminarAmistad(String userID_A, String userID_B) {
+        long start = Metrics.start();
+        if (escriturasBloqueadas()) {
+            Metrics.operation(Metrics.Operation.ELIMINAR_AMISTAD, userID_A, start, false);
+            return false;
+        }
+        Profile profileA = profileTable.search(userID_A);
+        Profile profileB = profileTable.search(userID_B);
+        
+        if (profileA == null || profileB == null) {
+            EventLog.warn("Error: Uno o ambos usuarios no existen");
+            Metrics.operation(Metrics.Operation.ELIMINAR_AMISTAD, userID_A, start, false);
+            return false;
+        }
+        if (!profileA.isFriend(profileB.getIndex())) {
+            EventLog.warn("Error: " + userID_A + " y " + userID_B + " no son amigos");
+            Metrics.operation(Metrics.Operation.ELIMINAR_AMISTAD, userID_A, start, false);
+            return false;
+        }
+        
+        quitarAmistad(profileA, profileB);
+        if (writeAheadLog != null) {
+            ultimoLsn = writeAheadLog.appendFriendshipRemoved(userID_A, userID_B);
+        }
+        if (!confirmarEnLog()) {
+            Metrics.operation(Metrics.Operation.ELIMINAR_AMISTAD, userID_A, start, false);
+            return false;
+        }
+        
+        if (EventLog.isEnabled(EventLog.Level.INFO)) {
+            EventLog.info("Amistad eliminada: " + profileA.getFullName() +
+                          " <-> " + profileB.getFullName());
+        }
+        Metrics.operation(Metrics.Operation.ELIMINAR_AMISTAD, userID_A, start, true);
+        return true;
+    }
+    
+    // Elimina el perfil y todas sus amistades; el userID se puede volver a usar con crearPerfil
+    public boolean eliminarPerfil(String userID) {
+        long start = Metrics.start();
+        if (escriturasBloqueadas()) {
+            Metrics.operation(Metrics.Operation.ELIMINAR_PERFIL, userID, start, false);
+            return false;
+        }
+        Profile profile = profileTable.search(userID);
+        if (profile == null) {
+            EventLog.warn("Error: El usuario " + userID + " no existe.");
+            Metrics.operation(Metrics.Operation.ELIMINAR_PERFIL, userID, start, false);
+            return false;
+        }
+        
+        int amistades = profile.getFriendCount();
+        quitarPerfil(profile);
+        if (writeAheadLog != null) {
+            ultimoLsn = writeAheadLog.appendProfileRemoved(userID);
+        }
+        if (!confirmarEnLog()) {
+            Metrics.operation(Metrics.Operation.ELIMINAR_PERFIL, userID, start, false);
+            return false;
+        }
+        
+        if (EventLog.isEnabled(EventLog.Level.INFO)) {
+            EventLog.info("Perfil eliminado: " + profile.getFullName() + " (ID: " + userID + "), " +
+                          amistades + " amistades quitadas");
+        }
+        Metrics.operation(Metrics.Operation.ELIMINAR_PERFIL, userID, start, true);
+        return true;
+    }
+    
+    // Instantánea CSR de las amistades; se reconstruye solo si cambiaron las amistades.
+    // Los perfiles creados después de construirla aparecen sin amigos, que es su estado real.
+    public FriendshipSnapshot obtenerInstantanea() {
+        if (adjacencySnapshot == null) {
+            adjacencySnapshot = FriendshipSnapshot.build(userRegistry);
+            adjacencyView = null;
+        }
+        return adjacencySnapshot;
+    }
+    
+    // Amistades vigentes para caminos y sugerencias. Después de un alta o una baja no se
+    // reconstruye la CSR: la vista copia solo las listas de los usuarios modificados. Cuando la
+    // zona de parches supera la mitad de la base, la próxima consulta parte de una CSR nueva,
+    // así que cada reconstrucción se reparte entre al menos tantas aristas copiadas.
+    private FriendshipSnapshot obtenerAdyacencia() {
+        if (adjacencyView == null) {
+            adjacencyView = obtenerInstantanea().withOverlay();
+            return adjacencyView;
+        }
+        FriendshipSnapshot view = adjacencyView;
+        view.applyChanges(userRegistry);
+        if (view.shouldCompact()) {
+            adjacencyView = null;
+        }
+        return view;
+    }
+    
+    // Las listas de amigos de A y B cambiaron
+    private void amistadesCambiaron(int userA, int userB) {
+        adjacencySnapshot = null;
+        if (adjacencyView != null) {
+            adjacencyView.markChanged(userA);
+            adjacencyView.markChanged(userB);
+        }
+    }
+    
+    // Cambios masivos de amistades: la próxima consulta reconstruye la CSR
+    private void descartarAdyacencia() {
+        adjacencySnapshot = null;
+        adjacencyView = null;
+    }
+    
+    // Guarda toda la red en una instantánea binaria para arrancar sin volver a procesar los CSV
+    public boolean guardarInstantanea(String filename) {
+        try {
+            long lastLsn = writeAheadLog != null ? writeAheadLog.getLastLsn() : 0;
+            NetworkSnapshot snapshot = NetworkSnapshot.capture(userRegistry, connectionGraph,
+                    obtenerInstantanea(), lastLsn);
+            snapshot.writeTo(filename);
+            EventLog.info("Instantánea guardada: " + snapshot.getProfileCount() + " perfiles, " +
+                    snapshot.getAdjacency().getEdgeCount() / 2 + " amistades en " + filename);
+            return true;
+        } catch (IOException e) {
+            EventLog.error("Error al guardar la instantánea: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // Carga una instantánea en un sistema vacío; devuelve el número de perfiles cargados
+    public int cargarInstantanea(String filename) {
+        EventLog.info("\n> Iniciando carga de instantánea desde: " + filename);
+        if (userRegistry.size() != 0) {
+            EventLog.warn("Error: La instantánea solo se puede cargar en una red vacía");
+            return 0;
+        }
+        
+        try {
+            NetworkSnapshot snapshot = restaurarInstantanea(filename);
+            EventLog.info("Carga completada: " + snapshot.getProfileCount() + " perfiles y " +
+                    snapshot.getAdjacency().getEdgeCount() / 2 + " amistades restauradas");
+            return snapshot.getProfileCount();
+        } catch (NoSuchFileException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer la instantánea: " + e.getMessage());
+        }
+        return 0;
+    }
+    
+    private NetworkSnapshot restaurarInstantanea(String filename) throws IOException {
+        NetworkSnapshot snapshot = NetworkSnapshot.readFrom(filename);
+        snapshot.restoreInto(userRegistry, profileTable, connectionGraph);
+        descartarAdyacencia();
+        adjacencySnapshot = snapshot.getAdjacency();
+        networkStatistics.rebuild(userRegistry, adjacencySnapshot);
+        suggestionEngine.invalidarTodo();
+        return snapshot;
+    }
+    
+    // Hay una instantánea o un log de operaciones guardados en el directorio
+    public static boolean hayDatosGuardados(String directorio) {
+        try {
+            return new File(directorio, ARCHIVO_INSTANTANEA).isFile() || WriteAheadLog.hasSegments(directorio);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    // Activa la persistencia en el directorio. Con la red vacía recupera el estado guardado
+    // (última instantánea + operaciones posteriores del log); con datos ya cargados y un
+    // directorio sin datos guarda una instantánea inicial. A partir de aquí cada crearPerfil,
+    // generarLazo, eliminarAmistad y eliminarPerfil queda en el log con la durabilidad indicada.
+    public boolean iniciarPersistencia(String directorio, WriteAheadLog.Durability durabilidad) {
+        if (writeAheadLog != null) {
+            EventLog.warn("Error: La persistencia ya está activa en " + dataDirectory);
+            return false;
+        }
+        String snapshotFile = Paths.get(directorio, ARCHIVO_INSTANTANEA).toString();
+        boolean redVacia = userRegistry.size() == 0;
+        if (!redVacia && hayDatosGuardados(directorio)) {
+            EventLog.warn("Error: " + directorio + " ya contiene datos guardados; inicie con una red vacía");
+            return false;
+        }
+        
+        try {
+            long lastLsn = 0;
+            if (redVacia && new File(snapshotFile).isFile()) {
+                NetworkSnapshot snapshot = restaurarInstantanea(snapshotFile);
+                lastLsn = snapshot.getLastLsn();
+                EventLog.info("Instantánea restaurada: " + snapshot.getProfileCount() + " perfiles");
+            }
+            
+            int[] replayed = new int[1];
+            WriteAheadLog log = WriteAheadLog.open(directorio, durabilidad, lastLsn, new WriteAheadLog.RecordHandler() {
+                @Override
+                public void onProfile(long lsn, String userID, String fullName, int age, String gender) {
+                    if (profileTable.search(userID) == null) {
+                        registrarPerfil(userID, fullName, age, gender);
+                    }
+                    replayed[0]++;
+                }
+                
+                @Override
+                public void onFriendship(long lsn, String userID_A, String userID_B, int quality) {
+                    Profile profileA = profileTable.search(userID_A);
+                    Profile profileB = profileTable.search(userID_B);
+                    if (profileA != null && profileB != null) {
+                        aplicarLazo(profileA, profileB, quality);
+                    }
+                    replayed[0]++;
+                }
+                
+                @Override
+                public void onFriendshipRemoved(long lsn, String userID_A, String userID_B) {
+                    Profile profileA = profileTable.search(userID_A);
+                    Profile profileB = profileTable.search(userID_B);
+                    if (profileA != null && profileB != null && profileA.isFriend(profileB.getIndex())) {
+                        quitarAmistad(profileA, profileB);
+                    }
+                    replayed[0]++;
+                }
+                
+                @Override
+                public void onProfileRemoved(long lsn, String userID) {
+                    Profile profile = profileTable.search(userID);
+                    if (profile != null) {
+                        quitarPerfil(profile);
+                    }
+                    replayed[0]++;
+                }
+            });
+            if (replayed[0] > 0) {
+                EventLog.info("Recuperación: " + replayed[0] + " operaciones reproducidas desde el log");
+            }
+            
+            writeAheadLog = log;
+            dataDirectory = directorio;
+            // Sin la instantánea inicial el log no basta para recuperar la red ya cargada
+            if (!redVacia && !guardarInstantanea(snapshotFile)) {
+                writeAheadLog = null;
+                dataDirectory = null;
+                log.close();
+                EventLog.error("Error al iniciar la persistencia: no se pudo guardar la instantánea inicial");
+                return false;
+            }
+            EventLog.info("Persistencia activa en " + directorio + " (" + durabilidad + ")");
+            return true;
+        } catch (IOException e) {
+            EventLog.error("Error al iniciar la persistencia: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // Compacta el log en una nueva instantánea y espera a que termine
+    public boolean compactarRegistro() {
+        if (writeAheadLog == null) {
+            EventLog.warn("Error: La persistencia no está activa");
+            return false;
+        }
+        try {
+            iniciarCompactacion().get();
+            EventLog.info("Registro compactado en " + Paths.get(dataDirectory, ARCHIVO_INSTANTANEA));
+            return true;
+        } catch (IOException | ExecutionException e) {
+            EventLog.error("Error al compactar el registro: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+    
+    // La captura se hace en este hilo porque debe ser un estado consistente con el último LSN;
+    // escribir la instantánea y borrar los segmentos ya cubiertos ocurre en segundo plano
+    private Future<?> iniciarCompactacion() throws IOException {
+        if (compaction != null && !compaction.isDone()) {
+            return compaction;
+        }
+        long lastLsn = writeAheadLog.getLastLsn();
+        NetworkSnapshot snapshot = NetworkSnapshot.capture(userRegistry, connectionGraph,
+                obtenerInstantanea(), lastLsn);
+        writeAheadLog.rollSegment();
+        
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "wal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        WriteAheadLog log = writeAheadLog;
+        String snapshotFile = Paths.get(dataDirectory, ARCHIVO_INSTANTANEA).toString();
+        compaction = compactor.submit(() -> {
+            snapshot.writeTo(snapshotFile);
+            log.deleteSegmentsUpTo(lastLsn);
+            return null;
+        });
+        return compaction;
+    }
+    
+    // Espera a la compactación en curso y cierra el log
+    public void cerrarPersistencia() {
+        if (writeAheadLog == null) {
+            return;
+        }
+        try {
+            if (compaction != null) {
+                compaction.get();
+            }
+            writeAheadLog.close();
+        } catch (IOException | ExecutionException e) {
+            EventLog.error("Error al cerrar el registro de operaciones: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (compactor != null) {
+                compactor.shutdown();
+            }
+            writeAheadLog = null;
+            registroFallido = false;
+        }
+    }
+    
+    private void anotarLazo(Profile profileA, Profile profileB, int calidad) {
+        if (writeAheadLog != null) {
+            ultimoLsn = writeAheadLog.appendFriendship(profileA.getUserID(), profileB.getUserID(), calidad);
+        }
+    }
+    
+    // Aplica la durabilidad configurada a lo anexado y lanza una compactación si el log creció mucho.
+    // Devuelve false si el commit falló: el cambio ya está en memoria pero no se recuperaría
+    // tras una caída, y desde ese momento las escrituras se rechazan (escriturasBloqueadas).
+    private boolean confirmarEnLog() {
+        if (writeAheadLog == null) {
+            return true;
+        }
+        try {
+            writeAheadLog.commit(ultimoLsn);
+        } catch (IOException e) {
+            registroFallido = true;
+            EventLog.error("Error al escribir en el registro de operaciones: " + e.getMessage() +
+                           "; no se aceptarán más cambios");
+            return false;
+        }
+        if (writeAheadLog.getBytesSinceCheckpoint() >= BYTES_PARA_COMPACTAR) {
+            try {
+                iniciarCompactacion();
+            } catch (IOException e) {
+                EventLog.error("Error al compactar el registro de operaciones: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+    
+    // Después de un commit fallido el log ya no refleja la red; cerrarPersistencia desbloquea
+    private boolean escriturasBloqueadas() {
+        if (registroFallido) {
+            EventLog.warn("Error: El registro de operaciones falló; no se aceptan más cambios");
+            return true;
+        }
+        return false;
+    }
+    
+    // Amistad sin validaciones ni mensajes (recuperación desde el log)
+    private void aplicarLazo(Profile profileA, Profile profileB, int calidad) {
+        agregarAmistad(profileA, profileB, calidad);
+        connectionGraph.union(profileA.getIndex(), profileB.getIndex());
+        amistadesCambiaron(profileA.getIndex(), profileB.getIndex());
+        suggestionEngine.invalidarAmistad(profileA.getIndex(), profileB.getIndex());
+    }
+    
+    // Amistad en ambos sentidos; una amistad repetida solo actualiza la calidad y no cuenta en las estadísticas
+    private void agregarAmistad(Profile profileA, Profile profileB, int calidad) {
+        boolean nueva = profileA.addFriend(profileB.getIndex(), calidad);
+        profileB.addFriend(profileA.getIndex(), calidad);
+        if (nueva) {
+            networkStatistics.friendshipAdded(profileA.getIndex(), profileB.getIndex());
+        }
+    }
+    
+    // Baja de la amistad en ambos sentidos sin validaciones ni mensajes. El grafo decide con una
+    // búsqueda acotada si el componente se dividió; si no alcanza, lo reconstruye en la próxima consulta.
+    private void quitarAmistad(Profile profileA, Profile profileB) {
+        quitarDeListas(profileA, profileB);
+        connectionGraph.removeConnection(profileA.getIndex(), profileB.getIndex());
+    }
+    
+    // Listas de amigos, estadísticas y caché; el grafo de componentes lo actualiza quien llama
+    private void quitarDeListas(Profile profileA, Profile profileB) {
+        profileA.removeFriend(profileB.getIndex());
+        profileB.removeFriend(profileA.getIndex());
+        networkStatistics.friendshipRemoved(profileA.getIndex(), profileB.getIndex());
+        amistadesCambiaron(profileA.getIndex(), profileB.getIndex());
+        suggestionEngine.invalidarAmistad(profileA.getIndex(), profileB.getIndex());
+    }
+    
+    // Quita las amistades del perfil (desde la última, que es O(1)) y después el perfil de la
+    // tabla, el registro, el grafo, las estadísticas y la caché. El grafo separa los componentes
+    // que deja el perfil con una sola pasada sobre sus antiguos amigos.
+    private void quitarPerfil(Profile profile) {
+        int index = profile.getIndex();
+        int[] friends = new int[profile.getFriendCount()];
+        for (int slot = 0; slot < friends.length; slot++) {
+            friends[slot] = profile.getFriendIndexAt(slot);
+        }
+        for (int i = friends.length - 1; i >= 0; i--) {
+            quitarDeListas(profile, userRegistry.profileAt(friends[i]));
+        }
+        connectionGraph.removeUser(index, friends, friends.length);
+        networkStatistics.profileRemoved(index);
+        profileTable.delete(profile.getUserID());
+        userRegistry.bindProfile(index, null);
+        suggestionEngine.invalidarUsuario(index);
+    }
+    
+    private String getCalidadString(int calidad) {
+        String[] niveles = {
+            "Conocidos",
+            "Amigos casuales",
+            "Buenos amigos",
+            "Amigos cercanos",
+            "Mejores amigos"
+        };
+        return niveles[calidad - 1];
+    }
+    
+    public int cargarPerfilesDesdeArchivo(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga de perfiles desde: " + filename);
+        
+        // UTF-8 como los cargadores paralelo y mapeado, sin depender del charset de la plataforma
+        try (BufferedReader br = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8))) {
+            // Dimensiona la tabla y el grafo según el número de líneas para no hacer rehashing durante la carga
+            int expectedProfiles = profileTable.size() + contarLineas(filename);
+            profileTable.ensureCapacity(expectedProfiles);
+            userRegistry.ensureCapacity(expectedProfiles);
+            connectionGraph.ensureCapacity(expectedProfiles);
+            
+            String line;
+            boolean isFirstLine = true;
+            
+            while ((line = br.readLine()) != null) {
+                // Saltar la línea de encabezados si existe
+                if (isFirstLine) {
+                    if (line.toLowerCase().contains("userid") || 
+                        line.toLowerCase().contains("id")) {
+                        isFirstLine = false;
+                        continue;
+                    }
+                    isFirstLine = false;
+                }
+                
+                String[] parts = line.split(",");
+                if (parts.length >= 4) {
+                    String userID = parts[0].trim();
+                    String fullName = parts[1].trim();
+                    int age = Integer.parseInt(parts[2].trim());
+                    String gender = parts[3].trim().toUpperCase();
+                    
+                    if (crearPerfil(userID, fullName, age, gender)) {
+                        loadedCount++;
+                    }
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " perfiles cargados exitosamente");
+            
+        } catch (FileNotFoundException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            EventLog.error("Error: Formato de edad inválido en el archivo");
+        }
+        
+        return loadedCount;
+    }
+    
+    // Cuenta las líneas del archivo leyendo bytes, sin decodificar texto
+    private static int contarLineas(String filename) throws IOException {
+        int lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(filename)) {
+            int read;
+            byte last = '\n';
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                last = buffer[read - 1];
+            }
+            if (last != '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+    
+    public int cargarConexionesDesdeArchivo(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga de conexiones desde: " + filename);
+        
+        try (BufferedReader br = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8))) {
+            String line;
+            boolean isFirstLine = true;
+            
+            while ((line = br.readLine()) != null) {
+                // Saltar la línea de encabezados si existe
+                if (isFirstLine) {
+                    if (line.toLowerCase().contains("userid") || 
+                        line.toLowerCase().contains("calidad")) {
+                        isFirstLine = false;
+                        continue;
+                    }
+                    isFirstLine = false;
+                }
+                
+                String[] parts = line.split(",");
+                if (parts.length >= 3) {
+                    String userID_A = parts[0].trim();
+                    String userID_B = parts[1].trim();
+                    int calidad = Integer.parseInt(parts[2].trim());
+                    
+                    if (generarLazo(userID_A, userID_B, calidad)) {
+                        loadedCount++;
+                    }
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " conexiones establecidas");
+            
+        } catch (FileNotFoundException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            EventLog.error("Error: Formato de calidad inválido en el archivo");
+        }
+        
+        return loadedCount;
+    }
+    
+    // Carga de perfiles por bloques: el archivo se analiza en paralelo y cada bloque se
+    // aplica en orden, informando los mismos conteos y errores que cargarPerfilesDesdeArchivo
+    public int cargarPerfilesEnParalelo(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga paralela de perfiles desde: " + filename);
+        
+        try {
+            int expectedProfiles = profileTable.size() + contarLineas(filename);
+            profileTable.ensureCapacity(expectedProfiles);
+            userRegistry.ensureCapacity(expectedProfiles);
+            connectionGraph.ensureCapacity(expectedProfiles);
+            
+            List<ForkJoinTask<ParallelCsvLoader.ProfileRows>> chunks = ParallelCsvLoader.parseProfiles(filename);
+            for (int c = 0; c < chunks.size(); c++) {
+                ParallelCsvLoader.ProfileRows rows = chunks.get(c).join();
+                loadedCount += aplicarPerfiles(rows);
+                
+                if (rows.numberFormatError) {
+                    cancelarRestantes(chunks, c + 1);
+                    EventLog.error("Error: Formato de edad inválido en el archivo");
+                    return loadedCount;
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " perfiles cargados exitosamente");
+            
+        } catch (FileNotFoundException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getCause().getMessage());
+        }
+        
+        return loadedCount;
+    }
+    
+    // Carga de conexiones por bloques: la validación y las listas de amigos se aplican en orden
+    // y las uniones de cada bloque se reparten entre hilos si el grafo es concurrente
+    public int cargarConexionesEnParalelo(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga paralela de conexiones desde: " + filename);
+        
+        try {
+            // Se comprueba antes de lanzar el análisis para informar el mismo error que la carga secuencial
+            if (!new File(filename).isFile()) {
+                throw new FileNotFoundException(filename);
+            }
+            
+            List<ForkJoinTask<ParallelCsvLoader.ConnectionRows>> chunks =
+                    ParallelCsvLoader.parseConnections(filename, userRegistry);
+            for (int c = 0; c < chunks.size(); c++) {
+                ParallelCsvLoader.ConnectionRows rows = chunks.get(c).join();
+                loadedCount += aplicarConexiones(rows);
+                
+                if (rows.numberFormatError) {
+                    cancelarRestantes(chunks, c + 1);
+                    EventLog.error("Error: Formato de calidad inválido en el archivo");
+                    return loadedCount;
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " conexiones establecidas");
+            
+        } catch (FileNotFoundException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getCause().getMessage());
+        }
+        
+        return loadedCount;
+    }
+    
+    // Carga de perfiles leyendo el archivo mapeado en memoria directamente como bytes, en un solo hilo
+    public int cargarPerfilesMapeado(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga mapeada de perfiles desde: " + filename);
+        
+        try {
+            int expectedProfiles = profileTable.size() + contarLineas(filename);
+            profileTable.ensureCapacity(expectedProfiles);
+            userRegistry.ensureCapacity(expectedProfiles);
+            connectionGraph.ensureCapacity(expectedProfiles);
+            
+            for (long[] range : ParallelCsvLoader.splitAtLines(filename)) {
+                ParallelCsvLoader.ProfileRows rows = ParallelCsvLoader.parseProfileChunk(filename, range[0], range[1]);
+                loadedCount += aplicarPerfiles(rows);
+                
+                if (rows.numberFormatError) {
+                    EventLog.error("Error: Formato de edad inválido en el archivo");
+                    return loadedCount;
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " perfiles cargados exitosamente");
+            
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        }
+        
+        return loadedCount;
+    }
+    
+    public int cargarConexionesMapeado(String filename) {
+        int loadedCount = 0;
+        EventLog.info("\n> Iniciando carga mapeada de conexiones desde: " + filename);
+        
+        try {
+            for (long[] range : ParallelCsvLoader.splitAtLines(filename)) {
+                ParallelCsvLoader.ConnectionRows rows =
+                        ParallelCsvLoader.parseConnectionChunk(filename, range[0], range[1], userRegistry);
+                loadedCount += aplicarConexiones(rows);
+                
+                if (rows.numberFormatError) {
+                    EventLog.error("Error: Formato de calidad inválido en el archivo");
+                    return loadedCount;
+                }
+            }
+            
+            EventLog.info("Carga completada: " + loadedCount + " conexiones establecidas");
+            
+        } catch (NoSuchFileException e) {
+            EventLog.error("Error: Archivo no encontrado - " + filename);
+        } catch (IOException e) {
+            EventLog.error("Error al leer el archivo: " + e.getMessage());
+        }
+        
+        return loadedCount;
+    }
+    
+    // Da de alta las filas de un bloque con las mismas validaciones que crearPerfil
+    private int aplicarPerfiles(ParallelCsvLoader.ProfileRows rows) {
+        if (escriturasBloqueadas()) {
+            return 0;
+        }
+        int loadedCount = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            String userID = rows.userIDs.get(i);
+            if (profileTable.search(userID) != null) {
+                EventLog.warn("Error: El usuario " + userID + " ya existe.");
+                continue;
+            }
+            registrarPerfil(userID, rows.fullNames.get(i), rows.ages[i], rows.genders.get(i));
+            loadedCount++;
+        }
+        return confirmarEnLog() ? loadedCount : 0;
+    }
+    
+    // Aplica las conexiones de un bloque con las mismas validaciones que generarLazo
+    private int aplicarConexiones(ParallelCsvLoader.ConnectionRows rows) {
+        if (escriturasBloqueadas()) {
+            return 0;
+        }
+        int[] batchA = new int[rows.size()];
+        int[] batchB = new int[rows.size()];
+        int batchSize = 0;
+        
+        for (int i = 0; i < rows.size(); i++) {
+            int calidad = rows.qualities[i];
+            if (calidad < 1 || calidad > 5) {
+                EventLog.warn("Error: La calidad debe estar entre 1 y 5");
+                continue;
+            }
+            Profile profileA = perfilEn(rows.usersA[i]);
+            Profile profileB = perfilEn(rows.usersB[i]);
+            if (profileA == null || profileB == null) {
+                EventLog.warn("Error: Uno o ambos usuarios no existen");
+                continue;
+            }
+            
+            agregarAmistad(profileA, profileB, calidad);
+            anotarLazo(profileA, profileB, calidad);
+            batchA[batchSize] = profileA.getIndex();
+            batchB[batchSize] = profileB.getIndex();
+            batchSize++;
+        }
+        
+        unirEnLote(batchA, batchB, batchSize);
+        descartarAdyacencia();
+        suggestionEngine.invalidarTodo();
+        return confirmarEnLog() ? batchSize : 0;
+    }
+    
+    // Perfil del índice resuelto por el cargador, o null si el userID no existe o no tiene perfil
+    private Profile perfilEn(int index) {
+        return index < 0 ? null : userRegistry.profileAt(index);
+    }
+    
+    private void unirEnLote(int[] usersA, int[] usersB, int count) {
+        if (connectionGraph.isConcurrent()) {
+            IntStream.range(0, count).parallel().forEach(i -> connectionGraph.union(usersA[i], usersB[i]));
+        } else {
+            for (int i = 0; i < count; i++) {
+                connectionGraph.union(usersA[i], usersB[i]);
+            }
+        }
+    }
+    
+    private static void cancelarRestantes(List<? extends ForkJoinTask<?>> chunks, int from) {
+        for (int i = from; i < chunks.size(); i++) {
+            chunks.get(i).cancel(false);
+        }
+    }
+    
+    public void mostrarPerfil(String userID) {
+        Profile profile = profileTable.search(userID);
+        if (profile == null) {
+            System.out.println("Usuario no encontrado: " + userID);
+            return;
+        }
+        
+        System.out.println("INFORMACIÓN DE PERFIL");
+        System.out.printf("ID: %-34s \n", profile.getUserID());
+        System.out.printf("Nombre: %-30s \n", profile.getFullName());
+        System.out.printf("Edad: %-32d \n", profile.getAge());
+        System.out.printf("Género: %-30s \n", profile.getGender());
+
+        System.out.println("LISTA DE AMIGOS");
+
+        if (profile.getFriendCount() == 0) {
+            System.out.println("No tiene amigos registrados");
+        } else {
+            profile.forEachFriend((friendID, quality) -> {
+                Profile friendProfile = profileTable.search(friendID);
+                if (friendProfile != null) {
+                    String stars = "★".repeat(quality) + "☆".repeat(5 - quality);
+                    System.out.printf("• %-20s %s\n",
+                            friendProfile.getFullName(), stars);
+                }
+            });
+        }
+    }
+    
+    // Igual que verificarConexion pero sin mensajes: false si alguno de los usuarios no existe
+    public boolean estaConectados(String userID1, String userID2) {
+        return connectionGraph.estaConectados(userID1, userID2);
+    }
+    
+    public void verificarConexion(String userID1, String userID2) {
+        boolean connected = connectionGraph.estaConectados(userID1, userID2);
+        
+        Profile profile1 = profileTable.search(userID1);
+        Profile profile2 = profileTable.search(userID2);
+        
+        if (profile1 == null || profile2 == null) {
+            System.out.println("Uno o ambos usuarios no existen.");
+            return;
+        }
+        
+        System.out.println("\nVerificacion de Conexion:");
+        System.out.println("Usuario 1: " + profile1.getFullName());
+        System.out.println("Usuario 2: " + profile2.getFullName());
+        
+        if (connected) {
+            System.out.println("Estado: CONECTADOS");
+            
+            // Verificar si son amigos directos
+            if (profile1.isFriend(userID2)) {
+                int quality = profile1.getFriendshipQuality(userID2);
+                System.out.println("Tipo: Amigos directos");
+                System.out.println("Calidad de amistad: " + getCalidadString(quality));
+            } else {
+                System.out.println("Tipo: Conectados indirectamente (mismo componente)");
+            }
+            
+            System.out.println("Tamaño del componente: " + 
+                    connectionGraph.getComponentSize(userID1));
+        } else {
+            System.out.println("Estado: NO CONECTADOS");
+            System.out.println("Los usuarios están en componentes diferentes");
+        }
+    }
+    
+    // Camino con menos amistades entre dos usuarios, o null si no existen o no hay camino
+    public FriendshipPath buscarCamino(String userID1, String userID2) {
+        return buscarCamino(userID1, userID2, PathFinder.NO_LIMIT);
+    }
+    
+    // Igual que buscarCamino pero sin pasar de maxSaltos amistades
+    public FriendshipPath buscarCamino(String userID1, String userID2, int maxSaltos) {
+        int index1 = indiceConectado(userID1, userID2);
+        if (index1 < 0) {
+            return null;
+        }
+        return pathFinder.shortestPath(index1, userRegistry.indexOf(userID2), maxSaltos);
+    }
+    
+    // Camino de menor costo sumando 6 - calidad por amistad: prefiere pasar por amistades cercanas
+    // aunque tenga más saltos
+    public FriendshipPath buscarCaminoPonderado(String userID1, String userID2) {
+        int index1 = indiceConectado(userID1, userID2);
+        if (index1 < 0) {
+            return null;
+        }
+        return pathFinder.cheapestPath(index1, userRegistry.indexOf(userID2));
+    }
+    
+    // Índice de userID1 si ambos perfiles existen y el union-find los ubica en el mismo componente;
+    // si no, -1 sin recorrer el grafo
+    private int indiceConectado(String userID1, String userID2) {
+        Profile profile1 = profileTable.search(userID1);
+        Profile profile2 = profileTable.search(userID2);
+        if (profile1 == null || profile2 == null ||
+                !connectionGraph.estaConectados(userID1, userID2)) {
+            return -1;
+        }
+        return profile1.getIndex();
+    }
+    
+    public void mostrarGradosDeSeparacion(String userID1, String userID2, boolean ponderado) {
+        Profile profile1 = profileTable.search(userID1);
+        Profile profile2 = profileTable.search(userID2);
+        if (profile1 == null || profile2 == null) {
+            System.out.println("Uno o ambos usuarios no existen.");
+            return;
+        }
+        
+        FriendshipPath path = ponderado ? buscarCaminoPonderado(userID1, userID2)
+                                        : buscarCamino(userID1, userID2);
+        System.out.println("\nGrados de Separación:");
+        System.out.println("Usuario 1: " + profile1.getFullName());
+        System.out.println("Usuario 2: " + profile2.getFullName());
+        if (path == null) {
+            System.out.println("No existe un camino de amistades entre ambos usuarios");
+            return;
+        }
+        
+        System.out.println("Grados de separación: " + path.getHops());
+        if (ponderado) {
+            System.out.println("Costo del camino: " + path.getCost());
+        }
+        System.out.println("Camino:");
+        System.out.println("  " + profile1.getFullName());
+        for (int i = 0; i < path.getHops(); i++) {
+            Profile next = profileTable.search(path.getUserID(i + 1));
+            System.out.println("  -> " + next.getFullName() + " [" + getCalidadString(path.getQuality(i)) + "]");
+        }
+    }
+    
+    // Los agregados se mantienen en cada alta, así que mostrarlos no recorre perfiles ni amistades
+    public void mostrarEstadisticas() {
+        System.out.println("ESTADÍSTICAS DEL SISTEMA");
+        System.out.println("Total de usuarios: " +
+                String.format("%-20d", profileTable.size()));
+        System.out.println("Componentes conectados: " +
+                String.format("%-15d", connectionGraph.getComponentCount()));
+        
+        int maxFriends = networkStatistics.getMaxDegree();
+        String mostPopular = maxFriends > 0 ?
+                userRegistry.profileAt(networkStatistics.getMaxDegreeUser()).getFullName() : "";
+        double avgFriends = profileTable.size() > 0 ? 
+                (double) networkStatistics.getTotalDegree() / profileTable.size() : 0;
+        
+        System.out.println("Promedio de amigos: " +
+                String.format("%-19.2f", avgFriends));
+        System.out.println("Usuario más popular: " +
+                String.format("%-18s", mostPopular.length() > 18 ? 
+                mostPopular.substring(0, 15) + "..." : mostPopular));
+        System.out.println("Máximo de amigos: " +
+                String.format("%-21d", maxFriends));
+
+        profileTable.printStatistics();
+        connectionGraph.printComponentInfo();
+        suggestionEngine.getCache().printStatistics();
+    }
+    
+    // Contadores, percentiles de latencia, sondeos y pausas acumulados desde el arranque
+    public void mostrarMetricas() {
+        Metrics.snapshot().print();
+    }
+    
+    public long contarAmistades() {
+        return networkStatistics.getFriendshipCount();
+    }
+    
+    // Recalcula los agregados recorriendo la instantánea CSR y el union-find, y los compara con
+    // los mantenidos incrementalmente. Es O(usuarios + amistades): solo para verificación.
+    public boolean verificarEstadisticas() {
+        FriendshipSnapshot graph = obtenerInstantanea();
+        long totalDegree = 0;
+        long friendships = 0;
+        int maxFriends = 0;
+        int mostPopular = -1;
+        
+        for (int u = 0; u < graph.getUserCount(); u++) {
+            if (userRegistry.profileAt(u) == null) continue;
+            int friendCount = graph.degree(u);
+            totalDegree += friendCount;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                if (graph.neighbor(e) >= u) {
+                    friendships++;
+                }
+            }
+            if (mostPopular < 0 || friendCount > maxFriends) {
+                maxFriends = friendCount;
+                mostPopular = u;
+            }
+        }
+        
+        boolean ok = totalDegree == networkStatistics.getTotalDegree()
+                && friendships == networkStatistics.getFriendshipCount()
+                && maxFriends == networkStatistics.getMaxDegree()
+                && mostPopular == networkStatistics.getMaxDegreeUser();
+        if (!ok) {
+            EventLog.warn("Estadísticas inconsistentes: " + friendships + " amistades, grado total " +
+                    totalDegree + ", máximo " + maxFriends + " (mantenidas: " +
+                    networkStatistics.getFriendshipCount() + ", " + networkStatistics.getTotalDegree() +
+                    ", " + networkStatistics.getMaxDegree() + ")");
+        }
+        boolean componentsOk = connectionGraph.verifyComponentStatistics() && verificarComponentes(graph);
+        return ok && componentsOk;
+    }
+    
+    // Recorre la instantánea por BFS y comprueba que el union-find (con sus bajas) tiene exactamente
+    // los mismos componentes: cada amistad une usuarios conectados y el número de componentes coincide
+    private boolean verificarComponentes(FriendshipSnapshot graph) {
+        int users = graph.getUserCount();
+        boolean[] seen = new boolean[users];
+        int[] queue = new int[users];
+        int components = 0;
+        
+        for (int start = 0; start < users; start++) {
+            if (seen[start] || userRegistry.profileAt(start) == null) continue;
+            components++;
+            seen[start] = true;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int user = queue[head++];
+                for (int e = graph.edgeStart(user); e < graph.edgeEnd(user); e++) {
+                    int friend = graph.neighbor(e);
+                    if (!connectionGraph.estaConectados(start, friend)) {
+                        EventLog.warn("Componentes inconsistentes: " + userRegistry.userIdAt(start) + " y " +
+                                userRegistry.userIdAt(friend) + " están unidos por amistades pero no en el union-find");
+                        return false;
+                    }
+                    if (!seen[friend]) {
+                        seen[friend] = true;
+                        queue[tail++] = friend;
+                    }
+                }
+            }
+        }
+        
+        if (components != connectionGraph.getComponentCount()) {
+            EventLog.warn("Componentes inconsistentes: " + components + " según las amistades, " +
+                    connectionGraph.getComponentCount() + " en el union-find");
+            return false;
+        }
+        return true;
+    }
+    
+    public void generarSugerencias(String userID, int topN) {
+        suggestionEngine.mostrarTopSugerencias(userID, topN);
+    }
+    
+    public void generarSugerenciasConFiltros(String userID, String genderFilter, int minAge, int maxAge) {
+        suggestionEngine.mostrarSugerenciasConFiltros(userID, genderFilter, minAge, maxAge);
+    }
+    
+    // Criterio para ordenar las sugerencias (SuggestionRanker.BEST_QUALITY por defecto)
+    public void configurarRanking(SuggestionRanker ranker) {
+        suggestionEngine.setRanker(ranker);
+    }
+    
+    // Profundidad de la búsqueda de sugerencias (HopExpansion.TWO_HOPS por defecto)
+    public void configurarExpansion(HopExpansion expansion) {
+        suggestionEngine.setExpansion(expansion);
+    }
+    
+    // Precalcula en paralelo las topK sugerencias de todos los usuarios y las entrega a sink
+    // (índices de usuario; userIdAt del registro los traduce). No imprime nada.
+    public void precalcularSugerencias(int topK, FriendSuggestionEngine.SuggestionSink sink) {
+        suggestionEngine.sugerirParaTodos(topK, null, -1, -1, sink);
+    }
+    
+    public String obtenerUserID(int userIndex) {
+        return userRegistry.userIdAt(userIndex);
+    }
+
+    // Acceso del paquete (pruebas) al registro, al grafo de componentes y al motor de sugerencias
+    UserIdRegistry obtenerRegistro() {
+        return userRegistry;
+    }
+
+    FriendshipGraph obtenerGrafo() {
+        return connectionGraph;
+    }
+
+    FriendSuggestionEngine obtenerMotorSugerencias() {
+        return suggestionEngine;
+    }
+    
+    public void visualizarArbol(String userID) {
+        connectionGraph.visualizarArbolUsuario(userID);
+    }
+}
@@ -0,0 +1,215 @@
+package conectads;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Caché LRU de listas de sugerencias por (usuario, filtro de género, rango de edad).
+// El tamaño se acota por una estimación de bytes en memoria y no por número de entradas,
+// porque una lista puede tener de 0 a miles de sugerencias. Además de la cola LRU se guarda
+// un índice usuario -> claves para poder invalidar solo las entradas de ciertos usuarios.
+public final class SuggestionCache {
+
+    // Estimaciones para el límite de memoria (JVM de 64 bits con oops comprimidos)
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+    private static final long SUGGESTION_BYTES = 40;
+
+    static final class Key {
+        final int userIndex;
+        final String genderFilter; // en mayúsculas, "" sin filtro
+        final int minAge;          // -1 sin filtro
+        final int maxAge;          // -1 sin filtro
+
+        Key(int userIndex, String genderFilter, int minAge, int maxAge) {
+            this.userIndex = userIndex;
+            this.genderFilter = genderFilter == null ? "" : genderFilter.toUpperCase();
+            this.minAge = minAge > 0 ? minAge : -1;
+            this.maxAge = maxAge > 0 ? maxAge : -1;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return userIndex == other.userIndex && minAge == other.minAge && maxAge == other.maxAge
+                    && genderFilter.equals(other.genderFilter);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = userIndex;
+            h = 31 * h + genderFilter.hashCode();
+            h = 31 * h + minAge;
+            return 31 * h + maxAge;
+        }
+    }
+
+    // Lista calculada con un límite dado; sirve para cualquier límite menor o igual,
+    // o para cualquiera si la lista ya tenía todos los candidatos
+    static final class Entry {
+        final List<FriendSuggestion> suggestions;
+        final int limit;
+        final int candidateCount;
+
+        Entry(List<FriendSuggestion> suggestions, int limit, int candidateCount) {
+            this.suggestions = suggestions;
+            this.limit = limit;
+            this.candidateCount = candidateCount;
+        }
+
+        boolean covers(int requestedLimit) {
+            return requestedLimit <= limit || suggestions.size() == candidateCount;
+        }
+
+        long estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + SUGGESTION_BYTES * suggestions.size();
+        }
+    }
+
+    private final long maxBytes;
+    private long usedBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Integer, List<Key>> keysByUser = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;      // entradas expulsadas por el límite de memoria
+    private long invalidations;  // entradas descartadas por cambios en las amistades
+
+    public SuggestionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(Key key, int limit) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.covers(limit)) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        return null;
+    }
+
+    synchronized void put(Key key, Entry entry) {
+        long bytes = entry.estimatedBytes();
+        if (bytes > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            usedBytes -= previous.estimatedBytes();
+        } else {
+            keysByUser.computeIfAbsent(key.userIndex, u -> new ArrayList<>(2)).add(key);
+        }
+        usedBytes += bytes;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            usedBytes -= victim.getValue().estimatedBytes();
+            eldest.remove();
+            forgetKey(victim.getKey());
+            evictions++;
+        }
+    }
+
+    // Descarta todas las entradas del usuario
+    public synchronized void invalidateUser(int userIndex) {
+        List<Key> keys = keysByUser.remove(userIndex);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                usedBytes -= removed.estimatedBytes();
+                invalidations++;
+            }
+        }
+    }
+
+    // Descarta las entradas del usuario y las de sus amigos actuales: son las únicas cuyo
+    // recorrido a 2 saltos lee la lista de amigos del usuario. Recorre la lista de amigos o
+    // los usuarios con entradas, lo que sea más corto.
+    public synchronized void invalidateNeighborhood(Profile profile) {
+        invalidateUser(profile.getIndex());
+        if (keysByUser.isEmpty()) {
+            return;
+        }
+        if (keysByUser.size() < profile.getFriendCount()) {
+            List<Integer> affected = new ArrayList<>();
+            for (Integer cachedUser : keysByUser.keySet()) {
+                if (profile.isFriend(cachedUser)) {
+                    affected.add(cachedUser);
+                }
+            }
+            for (int user : affected) {
+                invalidateUser(user);
+            }
+        } else {
+            for (int slot = 0; slot < profile.getFriendCount(); slot++) {
+                invalidateUser(profile.getFriendIndexAt(slot));
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        keysByUser.clear();
+        usedBytes = 0;
+    }
+
+    private void forgetKey(Key key) {
+        List<Key> keys = keysByUser.get(key.userIndex);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByUser.remove(key.userIndex);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void printStatistics() {
+        long lookups = hits + misses;
+        System.out.println("\nEstadísticas de la Caché de Sugerencias");
+        System.out.println("Entradas: " + entries.size());
+        System.out.println("Memoria estimada: " + usedBytes + " / " + maxBytes + " bytes");
+        System.out.println("Aciertos: " + hits + " | Fallos: " + misses + " | Tasa de aciertos: " +
+                String.format("%.2f%%", lookups == 0 ? 0.0 : 100.0 * hits / lookups));
+        System.out.println("Expulsiones por memoria: " + evictions);
+        System.out.println("Invalidaciones por amistades nuevas: " + invalidations);
+    }
+}
@@ -0,0 +1,35 @@
+package conectads;
+
+// Puntuación de un candidato B a partir de los caminos X - A - B por cada amigo común A.
+// El motor llama a pathScore una vez por camino durante el único recorrido a 2 saltos
+// y suma los resultados (o se queda con el mayor si sumsPaths() es false).
+public interface SuggestionRanker {
+
+    double pathScore(int qualityToFriend, int friendQualityToCandidate, int friendDegree);
+
+    default boolean sumsPaths() {
+        return true;
+    }
+
+    // Criterio original: la mejor calidad X-A entre los amigos comunes
+    SuggestionRanker BEST_QUALITY = new SuggestionRanker() {
+        @Override
+        public double pathScore(int qualityToFriend, int friendQualityToCandidate, int friendDegree) {
+            return qualityToFriend;
+        }
+
+        @Override
+        public boolean sumsPaths() {
+            return false;
+        }
+    };
+
+    // Suma de calidad(X, A) × calidad(A, B) sobre todos los amigos comunes
+    SuggestionRanker QUALITY_PRODUCT = (toFriend, toCandidate, degree) -> (double) toFriend * toCandidate;
+
+    // Adamic-Adar: los amigos comunes con pocos amigos pesan más (1 / log grado)
+    SuggestionRanker ADAMIC_ADAR = (toFriend, toCandidate, degree) -> 1.0 / Math.log(degree);
+
+    // Número de amigos comunes
+    SuggestionRanker MUTUAL_FRIENDS = (toFriend, toCandidate, degree) -> 1.0;
+}
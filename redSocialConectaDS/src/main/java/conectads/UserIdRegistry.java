@@ -0,0 +1,198 @@
+package conectads;
+
+import java.nio.ByteBuffer;
+
+// Registro de internado de userIDs: asigna a cada usuario un índice entero denso (0, 1, 2, ...).
+// Perfiles, listas de amigos, el union-find y el motor de sugerencias trabajan con esos índices;
+// los Strings solo aparecen en los bordes de la API.
+public class UserIdRegistry {
+
+    // Resultado de indexOfAscii cuando el userID contiene bytes no ASCII
+    public static final int NOT_ASCII = -2;
+
+    // Tabla userID -> índice con sondeo lineal
+    private String[] keys;
+    private int[] hashes;
+    private int[] slotIndexes;
+    private int mask;
+
+    // Datos por índice
+    private String[] userIDs;
+    private Profile[] profiles;
+    private int count;
+    private final AttributeIndex attributes;
+
+    private static final double LOAD_FACTOR_THRESHOLD = 0.5;
+
+    public UserIdRegistry(int initialCapacity) {
+        int capacity = HashTables.tableSizeFor(Math.max(initialCapacity * 2, 16));
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.slotIndexes = new int[capacity];
+        this.mask = capacity - 1;
+        this.userIDs = new String[Math.max(initialCapacity, 16)];
+        this.profiles = new Profile[userIDs.length];
+        this.count = 0;
+        this.attributes = new AttributeIndex(this);
+        this.attributes.ensureCapacity(userIDs.length);
+    }
+
+    public UserIdRegistry() {
+        this(16);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Devuelve el índice del usuario, asignándole uno nuevo si aún no lo tenía
+    public int intern(String userID) {
+        int h = hash(userID);
+        int slot = h & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].equals(userID)) {
+                return slotIndexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (count == userIDs.length) {
+            growIndexArrays(count * 2);
+        }
+        int index = count++;
+        keys[slot] = userID;
+        hashes[slot] = h;
+        slotIndexes[slot] = index;
+        userIDs[index] = userID;
+
+        if ((double) count / keys.length >= LOAD_FACTOR_THRESHOLD) {
+            rehash(keys.length * 2);
+        }
+        return index;
+    }
+
+    // Devuelve el índice del usuario o -1 si nunca se registró
+    public int indexOf(String userID) {
+        int h = hash(userID);
+        int slot = h & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].equals(userID)) {
+                return slotIndexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Igual que indexOf pero leyendo el userID directamente de bytes ASCII, sin crear el String.
+    // Devuelve NOT_ASCII si algún byte no es ASCII, en cuyo caso hay que decodificarlo y usar indexOf.
+    public int indexOfAscii(ByteBuffer bytes, int start, int end) {
+        // String.hashCode coincide con este cálculo cuando cada byte es un carácter ASCII
+        int stringHash = 0;
+        for (int i = start; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) {
+                return NOT_ASCII;
+            }
+            stringHash = 31 * stringHash + b;
+        }
+
+        int h = stringHash * 0x9E3779B9;
+        h ^= h >>> 16;
+        int length = end - start;
+        int slot = h & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == h && keys[slot].length() == length && asciiEquals(keys[slot], bytes, start)) {
+                return slotIndexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean asciiEquals(String key, ByteBuffer bytes, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != bytes.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String userIdAt(int index) {
+        validate(index);
+        return userIDs[index];
+    }
+
+    // Perfil asociado al índice, o null si el usuario no tiene perfil
+    public Profile profileAt(int index) {
+        validate(index);
+        return profiles[index];
+    }
+
+    public void bindProfile(int index, Profile profile) {
+        validate(index);
+        profiles[index] = profile;
+        attributes.index(index, profile);
+    }
+
+    // Columnas de edad y género de los perfiles registrados, para filtrar sin leer los perfiles
+    public AttributeIndex getAttributes() {
+        return attributes;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Reserva espacio para expectedUsers usuarios sin redimensionar durante una carga
+    public void ensureCapacity(int expectedUsers) {
+        if (expectedUsers > userIDs.length) {
+            growIndexArrays(expectedUsers);
+        }
+        int requiredSlots = HashTables.tableSizeFor((int) (expectedUsers / LOAD_FACTOR_THRESHOLD) + 1);
+        if (requiredSlots > keys.length) {
+            rehash(requiredSlots);
+        }
+    }
+
+    private void validate(int index) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Índice " + index + " no está entre 0 y " + (count - 1));
+        }
+    }
+
+    private void growIndexArrays(int newLength) {
+        String[] newUserIDs = new String[newLength];
+        Profile[] newProfiles = new Profile[newLength];
+        System.arraycopy(userIDs, 0, newUserIDs, 0, count);
+        System.arraycopy(profiles, 0, newProfiles, 0, count);
+        userIDs = newUserIDs;
+        profiles = newProfiles;
+        attributes.ensureCapacity(newLength);
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldSlotIndexes = slotIndexes;
+
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        slotIndexes = new int[capacity];
+        mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                slotIndexes[slot] = oldSlotIndexes[i];
+            }
+        }
+    }
+}
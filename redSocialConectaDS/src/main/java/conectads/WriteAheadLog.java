@@ -0,0 +1,539 @@
+package conectads;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Registro de escritura anticipada (WAL) de solo anexado para altas y bajas de perfiles y amistades.
+// - Cada registro lleva un número de secuencia (LSN) creciente y un CRC32 para detectar
+//   escrituras a medias tras una caída.
+// - append() solo serializa en un buffer en memoria; commit() hace lo que pida la durabilidad.
+//   Con BATCH el primer hilo que necesita sincronizar escribe y hace fsync de todo lo pendiente
+//   (commit en grupo), y los demás esperan a ese mismo fsync en lugar de hacer el suyo.
+// - El log se divide en segmentos "wal-<primer LSN>.log"; al compactar, los segmentos que ya
+//   están incluidos en una instantánea se borran.
+public final class WriteAheadLog implements AutoCloseable {
+
+    public enum Durability {
+        NONE,   // sin fsync: los datos llegan al sistema operativo cuando el buffer se llena
+        BATCH,  // commit() espera a que su registro esté en disco (fsync compartido en grupo)
+        ASYNC   // fsync periódico en segundo plano; una caída puede perder los últimos milisegundos
+    }
+
+    // Destino de los registros durante la recuperación
+    public interface RecordHandler {
+        void onProfile(long lsn, String userID, String fullName, int age, String gender);
+
+        void onFriendship(long lsn, String userID_A, String userID_B, int quality);
+
+        void onFriendshipRemoved(long lsn, String userID_A, String userID_B);
+
+        void onProfileRemoved(long lsn, String userID);
+    }
+
+    private static final byte PROFILE_RECORD = 1;
+    private static final byte FRIENDSHIP_RECORD = 2;
+    private static final byte FRIENDSHIP_REMOVED_RECORD = 3;
+    private static final byte PROFILE_REMOVED_RECORD = 4;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final long SEGMENT_BYTES = 64L << 20;
+    private static final int NONE_FLUSH_BYTES = 1 << 20;
+    private static final long ASYNC_INTERVAL_MS = 10;
+
+    private final Path directory;
+    private final Durability durability;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushDone = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer spare = ByteBuffer.allocate(1 << 16);
+    private long pendingFirstLsn;   // LSN del primer registro en pending (0 si está vacío)
+    private long nextLsn;
+    private long writtenLsn;        // último LSN entregado al sistema operativo
+    private long durableLsn;        // último LSN con fsync
+    private boolean flushing;
+    private IOException failure;    // un fallo de escritura deja el log inutilizable
+
+    // Solo el hilo que está volcando (flushing = true) toca el segmento abierto
+    private FileChannel segment;
+    private long segmentBytes;
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private long bytesSinceCheckpoint;
+
+    private final ScheduledExecutorService asyncFlusher;
+    private final CRC32 crc = new CRC32();
+
+    private WriteAheadLog(Path directory, Durability durability, long nextLsn, List<Long> segmentStarts) {
+        this.directory = directory;
+        this.durability = durability;
+        this.nextLsn = nextLsn;
+        this.writtenLsn = nextLsn - 1;
+        this.durableLsn = nextLsn - 1;
+        this.segmentStarts.addAll(segmentStarts);
+
+        if (durability == Durability.ASYNC) {
+            asyncFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "wal-async-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            asyncFlusher.scheduleWithFixedDelay(() -> {
+                try {
+                    flush(true);
+                } catch (IOException e) {
+                    // queda guardado en failure y se informa en el próximo commit
+                }
+            }, ASYNC_INTERVAL_MS, ASYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } else {
+            asyncFlusher = null;
+        }
+    }
+
+    // Abre el log del directorio entregando a handler los registros posteriores a afterLsn.
+    // Una cola incompleta en el último segmento (caída a mitad de escritura) se recorta;
+    // un registro dañado en cualquier otro punto es un error.
+    public static WriteAheadLog open(String directory, Durability durability, long afterLsn,
+                                     RecordHandler handler) throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        List<Long> starts = listSegments(dir);
+
+        long lastLsn = afterLsn;
+        for (int i = 0; i < starts.size(); i++) {
+            boolean isLast = i == starts.size() - 1;
+            Path file = segmentPath(dir, starts.get(i));
+            lastLsn = replaySegment(file, afterLsn, lastLsn, isLast, handler);
+            // Un último segmento que quedó vacío se borra para poder reutilizar su nombre
+            if (isLast && Files.size(file) == 0) {
+                Files.delete(file);
+                starts.remove(i);
+            }
+        }
+        return new WriteAheadLog(dir, durability, lastLsn + 1, starts);
+    }
+
+    // Existe algún segmento de log en el directorio
+    public static boolean hasSegments(String directory) throws IOException {
+        Path dir = Paths.get(directory);
+        return Files.isDirectory(dir) && !listSegments(dir).isEmpty();
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    // Último LSN asignado (0 si el log nunca tuvo registros)
+    public long getLastLsn() {
+        lock.lock();
+        try {
+            return nextLsn - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bytes anexados desde la última compactación; sirve para decidir cuándo compactar
+    public long getBytesSinceCheckpoint() {
+        lock.lock();
+        try {
+            return bytesSinceCheckpoint;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendProfile(String userID, String fullName, int age, String gender) {
+        lock.lock();
+        try {
+            int start = beginRecord(PROFILE_RECORD);
+            putString(userID);
+            putString(fullName);
+            ensureRoom(4);
+            pending.putInt(age);
+            putString(gender);
+            return endRecord(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendFriendship(String userID_A, String userID_B, int quality) {
+        lock.lock();
+        try {
+            int start = beginRecord(FRIENDSHIP_RECORD);
+            putString(userID_A);
+            putString(userID_B);
+            ensureRoom(1);
+            pending.put((byte) quality);
+            return endRecord(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendFriendshipRemoved(String userID_A, String userID_B) {
+        lock.lock();
+        try {
+            int start = beginRecord(FRIENDSHIP_REMOVED_RECORD);
+            putString(userID_A);
+            putString(userID_B);
+            return endRecord(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Un solo registro por perfil: al reproducirlo se quitan también todas sus amistades
+    public long appendProfileRemoved(String userID) {
+        lock.lock();
+        try {
+            int start = beginRecord(PROFILE_REMOVED_RECORD);
+            putString(userID);
+            return endRecord(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Hace efectiva la durabilidad configurada para todos los registros hasta lsn
+    public void commit(long lsn) throws IOException {
+        switch (durability) {
+            case BATCH:
+                sync(lsn);
+                break;
+            case NONE:
+                if (pendingBytes() >= NONE_FLUSH_BYTES) {
+                    flush(false);
+                }
+                break;
+            case ASYNC:
+                throwIfFailed();
+                break;
+        }
+    }
+
+    // Espera a que lsn esté en disco; si nadie está sincronizando, este hilo vuelca el grupo entero
+    public void sync(long lsn) throws IOException {
+        while (true) {
+            lock.lock();
+            try {
+                throwIfFailed();
+                if (durableLsn >= lsn) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            flush(true);
+        }
+    }
+
+    // Vuelca lo pendiente y, con force, hace fsync del segmento
+    public void flush(boolean force) throws IOException {
+        ByteBuffer toWrite;
+        long firstLsn;
+        long upTo;
+
+        lock.lock();
+        try {
+            while (flushing) {
+                flushDone.awaitUninterruptibly();
+            }
+            throwIfFailed();
+            upTo = nextLsn - 1;
+            if (pending.position() == 0 && (!force || durableLsn >= upTo)) {
+                return;
+            }
+            flushing = true;
+            toWrite = pending;
+            firstLsn = pendingFirstLsn;
+            pending = spare;
+            pendingFirstLsn = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        IOException error = null;
+        try {
+            toWrite.flip();
+            if (toWrite.hasRemaining()) {
+                if (segment == null || segmentBytes >= SEGMENT_BYTES) {
+                    openSegment(firstLsn);
+                }
+                segmentBytes += toWrite.remaining();
+                while (toWrite.hasRemaining()) {
+                    segment.write(toWrite);
+                }
+            }
+            if (force && segment != null) {
+                segment.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+
+        lock.lock();
+        try {
+            toWrite.clear();
+            spare = toWrite;
+            flushing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                writtenLsn = upTo;
+                if (force) {
+                    durableLsn = upTo;
+                }
+            }
+            flushDone.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // Cierra el segmento actual para que los registros siguientes empiecen uno nuevo.
+    // Se usa antes de compactar: así los segmentos anteriores quedan enteros en la instantánea.
+    public void rollSegment() throws IOException {
+        flush(true);
+        lock.lock();
+        try {
+            while (flushing) {
+                flushDone.awaitUninterruptibly();
+            }
+            if (segment != null) {
+                segment.close();
+                segment = null;
+            }
+            bytesSinceCheckpoint = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Borra los segmentos cuyos registros son todos <= lsn (ya incluidos en una instantánea)
+    public void deleteSegmentsUpTo(long lsn) throws IOException {
+        List<Long> removable = new ArrayList<>();
+        synchronized (segmentStarts) {
+            for (int i = 0; i + 1 < segmentStarts.size(); i++) {
+                if (segmentStarts.get(i + 1) <= lsn + 1) {
+                    removable.add(segmentStarts.get(i));
+                }
+            }
+            segmentStarts.removeAll(removable);
+        }
+        for (long start : removable) {
+            Files.deleteIfExists(segmentPath(directory, start));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (asyncFlusher != null) {
+            asyncFlusher.shutdown();
+        }
+        try {
+            flush(durability != Durability.NONE);
+        } finally {
+            if (segment != null) {
+                segment.close();
+                segment = null;
+            }
+        }
+    }
+
+    private void openSegment(long firstLsn) throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+        segment = FileChannel.open(segmentPath(directory, firstLsn), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        segmentBytes = 0;
+        synchronized (segmentStarts) {
+            segmentStarts.add(firstLsn);
+        }
+    }
+
+    private long pendingBytes() {
+        lock.lock();
+        try {
+            return pending.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("El registro de escritura anticipada falló anteriormente", failure);
+        }
+    }
+
+    // Formato de registro: int longitud del cuerpo, int CRC32 del cuerpo, cuerpo (tipo, LSN, datos)
+    private int beginRecord(byte type) {
+        ensureRoom(17);
+        int start = pending.position();
+        pending.position(start + 8);
+        pending.put(type);
+        pending.putLong(nextLsn);
+        return start;
+    }
+
+    private long endRecord(int start) {
+        int bodyStart = start + 8;
+        int bodyLength = pending.position() - bodyStart;
+        crc.reset();
+        crc.update(pending.array(), bodyStart, bodyLength);
+        pending.putInt(start, bodyLength);
+        pending.putInt(start + 4, (int) crc.getValue());
+
+        long lsn = nextLsn++;
+        if (pendingFirstLsn == 0) {
+            pendingFirstLsn = lsn;
+        }
+        bytesSinceCheckpoint += 8 + bodyLength;
+        return lsn;
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(4 + bytes.length);
+        pending.putInt(bytes.length);
+        pending.put(bytes);
+    }
+
+    private void ensureRoom(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    private static Path segmentPath(Path dir, long firstLsn) {
+        return dir.resolve(String.format("wal-%020d.log", firstLsn));
+    }
+
+    private static List<Long> listSegments(Path dir) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "wal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    starts.add(Long.parseLong(name.substring(4, name.length() - 4)));
+                } catch (NumberFormatException e) {
+                    // no es un segmento de este log
+                }
+            }
+        }
+        Collections.sort(starts);
+        return starts;
+    }
+
+    // Devuelve el último LSN visto; recorta la cola dañada si es el último segmento
+    private static long replaySegment(Path file, long afterLsn, long lastLsn, boolean isLast,
+                                      RecordHandler handler) throws IOException {
+        long validBytes = 0;
+        boolean damaged = false;
+        CRC32 crc = new CRC32();
+
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            while (true) {
+                int bodyLength;
+                try {
+                    bodyLength = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] body;
+                try {
+                    int expectedCrc = in.readInt();
+                    if (bodyLength < 9 || bodyLength > MAX_RECORD_BYTES) {
+                        damaged = true;
+                        break;
+                    }
+                    body = new byte[bodyLength];
+                    in.readFully(body);
+                    crc.reset();
+                    crc.update(body, 0, bodyLength);
+                    if ((int) crc.getValue() != expectedCrc) {
+                        damaged = true;
+                        break;
+                    }
+                } catch (EOFException e) {
+                    damaged = true;
+                    break;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(body);
+                byte type = record.get();
+                long lsn = record.getLong();
+                if (lsn <= lastLsn && lsn > afterLsn) {
+                    throw new IOException("LSN fuera de orden en " + file.getFileName() + ": " + lsn);
+                }
+                if (lsn > afterLsn) {
+                    if (type == PROFILE_RECORD) {
+                        String userID = getString(record);
+                        String fullName = getString(record);
+                        int age = record.getInt();
+                        handler.onProfile(lsn, userID, fullName, age, getString(record));
+                    } else if (type == FRIENDSHIP_RECORD) {
+                        String userID_A = getString(record);
+                        String userID_B = getString(record);
+                        handler.onFriendship(lsn, userID_A, userID_B, record.get());
+                    } else if (type == FRIENDSHIP_REMOVED_RECORD) {
+                        String userID_A = getString(record);
+                        handler.onFriendshipRemoved(lsn, userID_A, getString(record));
+                    } else if (type == PROFILE_REMOVED_RECORD) {
+                        handler.onProfileRemoved(lsn, getString(record));
+                    } else {
+                        throw new IOException("Tipo de registro desconocido en " + file.getFileName() + ": " + type);
+                    }
+                    lastLsn = lsn;
+                }
+                validBytes += 8 + bodyLength;
+            }
+        }
+
+        if (damaged) {
+            if (!isLast) {
+                throw new IOException("Registro dañado en medio del log: " + file.getFileName());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+        return lastLsn;
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        String value = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AttributeIndexTest {
+
+    // matches, collectMatches y estimateMatches frente a un recorrido de todos los perfiles, con
+    // géneros que solo difieren en mayúsculas, edades de 255 o más (se leen del perfil) y entradas
+    // viejas de perfiles reemplazados o eliminados
+    @Test
+    void filtersMatchProfileScan() {
+        int users = 2000;
+        UserIdRegistry registry = FriendSuggestionEngineTest.mixedRegistry(users, new Random(18));
+        Object[][] filters = {{null, -1, -1}, {"nb", -1, -1}, {"NB", 250, -1}, {"f", 255, 255},
+                {"m", 256, 1000}, {"x", -1, 30}, {"F", 20, 30}, {"z", -1, -1}, {"", 300, -1}};
+
+        for (Object[] filter : filters) {
+            String gender = (String) filter[0];
+            int minAge = (Integer) filter[1];
+            int maxAge = (Integer) filter[2];
+            String label = gender + " " + minAge + ".." + maxAge;
+            AttributeIndex.Filter resolved = registry.getAttributes().filter(gender, minAge, maxAge);
+
+            int[] expected = new int[users];
+            int expectedCount = 0;
+            for (int u = 0; u < users; u++) {
+                boolean matches = FriendSuggestionEngineTest.matchesFilter(registry.profileAt(u), gender, minAge, maxAge);
+                assertEquals(matches, resolved.matches(u), label + " usuario " + u);
+                if (matches) {
+                    expected[expectedCount++] = u;
+                }
+            }
+
+            int[] collected = new int[users];
+            int count = resolved.collectMatches(collected);
+            Arrays.sort(collected, 0, count);
+            assertArrayEquals(Arrays.copyOf(expected, expectedCount), Arrays.copyOf(collected, count), label);
+            assertTrue(resolved.estimateMatches() >= count, label);
+            if (count > 0) {
+                assertEquals(-1, resolved.collectMatches(new int[count - 1]), label);
+            }
+        }
+    }
+}
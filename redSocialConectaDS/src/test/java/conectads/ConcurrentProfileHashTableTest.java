@@ -0,0 +1,111 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentProfileHashTableTest {
+
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 4000;
+
+    // Reservar espacio para 0 perfiles (un CSV vacío) no debe pedir la capacidad máxima
+    @Test
+    void ensureCapacityForNothingKeepsTheTableUsable() {
+        UserIdRegistry registry = new UserIdRegistry();
+        ConcurrentProfileHashTable table = new ConcurrentProfileHashTable();
+        table.ensureCapacity(0);
+        table.ensureCapacity(1);
+
+        table.insert(new Profile(registry, "U1", "Ana", 30, "F"));
+        assertEquals(1, table.size());
+        assertNotNull(table.search("U1"));
+    }
+
+    // Cada hilo inserta, actualiza, borra y busca en su propio rango de claves, y además busca sin
+    // lock claves de los otros hilos. La tabla empieza con la capacidad mínima, así que los
+    // rehashing (que toman todas las franjas) ocurren en medio de la carrera. Lo que cada hilo ve
+    // de sus propias claves debe coincidir siempre con su mapa secuencial.
+    @Test
+    void concurrentWritersMatchSequentialOracle() throws Exception {
+        UserIdRegistry registry = new UserIdRegistry(THREADS * KEYS_PER_THREAD * 2);
+        Profile[][][] versions = new Profile[THREADS][KEYS_PER_THREAD][2];
+        for (int t = 0; t < THREADS; t++) {
+            for (int k = 0; k < KEYS_PER_THREAD; k++) {
+                for (int v = 0; v < 2; v++) {
+                    versions[t][k][v] = new Profile(registry, key(t, k), "Usuario " + v, 20 + v, "F");
+                }
+            }
+        }
+
+        ConcurrentProfileHashTable table = new ConcurrentProfileHashTable(1);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Map<String, Profile>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            results.add(pool.submit(() -> {
+                Random random = new Random(thread);
+                Map<String, Profile> oracle = new HashMap<>();
+                start.await();
+                for (int op = 0; op < KEYS_PER_THREAD * 6; op++) {
+                    // Primero se llenan las claves en orden para forzar el crecimiento
+                    int k = op < KEYS_PER_THREAD ? op : random.nextInt(KEYS_PER_THREAD);
+                    String key = key(thread, k);
+                    int kind = op < KEYS_PER_THREAD ? 0 : random.nextInt(4);
+                    if (kind == 0) {
+                        Profile profile = versions[thread][k][random.nextInt(2)];
+                        table.insert(profile);
+                        oracle.put(key, profile);
+                    } else if (kind == 1) {
+                        assertEquals(oracle.remove(key) != null, table.delete(key), key);
+                    } else {
+                        assertSame(oracle.get(key), table.search(key), key);
+                    }
+                    // Búsqueda sin lock de una clave ajena: puede estar o no, pero nunca con otra clave
+                    Profile other = table.search(key(random.nextInt(THREADS), random.nextInt(KEYS_PER_THREAD)));
+                    assertTrue(other == null || other.getUserID().startsWith("T"));
+                }
+                return oracle;
+            }));
+        }
+        start.countDown();
+        Map<String, Profile> expected = new HashMap<>();
+        for (Future<Map<String, Profile>> result : results) {
+            expected.putAll(result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(expected.size(), table.size());
+        Map<Profile, Boolean> listed = new IdentityHashMap<>();
+        for (Profile profile : table.getAllProfiles()) {
+            assertTrue(listed.put(profile, true) == null, "repetido " + profile.getUserID());
+        }
+        assertEquals(expected.size(), listed.size());
+        for (Profile profile : expected.values()) {
+            assertTrue(listed.containsKey(profile), profile.getUserID());
+        }
+        for (int t = 0; t < THREADS; t++) {
+            for (int k = 0; k < KEYS_PER_THREAD; k++) {
+                assertSame(expected.get(key(t, k)), table.search(key(t, k)), key(t, k));
+            }
+        }
+    }
+
+    private static String key(int thread, int k) {
+        return "T" + thread + "-" + k;
+    }
+}
@@ -0,0 +1,237 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvLoaderTest {
+
+    private static final int USERS = 2000;
+    private static int defaultChunkBytes;
+
+    @TempDir
+    Path directory;
+
+    // Bloques pequeños para que archivos de unos 100 KB se repartan en varios bloques
+    @BeforeAll
+    static void smallChunks() {
+        EventLog.clearSink();
+        defaultChunkBytes = ParallelCsvLoader.minChunkBytes;
+        ParallelCsvLoader.minChunkBytes = 2048;
+    }
+
+    @AfterAll
+    static void restoreChunks() {
+        ParallelCsvLoader.minChunkBytes = defaultChunkBytes;
+    }
+
+    // Un cargador de perfiles y uno de conexiones sobre un sistema con o sin union-find concurrente
+    private static final class Loader {
+        final String name;
+        final BiFunction<SocialNetworkSystem, String, Integer> profiles;
+        final BiFunction<SocialNetworkSystem, String, Integer> connections;
+        final boolean concurrent;
+
+        Loader(String name, BiFunction<SocialNetworkSystem, String, Integer> profiles,
+               BiFunction<SocialNetworkSystem, String, Integer> connections, boolean concurrent) {
+            this.name = name;
+            this.profiles = profiles;
+            this.connections = connections;
+            this.concurrent = concurrent;
+        }
+    }
+
+    private static final Loader SEQUENTIAL = new Loader("secuencial",
+            SocialNetworkSystem::cargarPerfilesDesdeArchivo, SocialNetworkSystem::cargarConexionesDesdeArchivo, false);
+
+    // Los paralelos y el mapeado leen bytes con MappedCsvScanner y deben dar lo mismo que el secuencial
+    private static final Loader[] OTHER_LOADERS = {
+        new Loader("paralelo", SocialNetworkSystem::cargarPerfilesEnParalelo,
+                SocialNetworkSystem::cargarConexionesEnParalelo, false),
+        new Loader("paralelo concurrente", SocialNetworkSystem::cargarPerfilesEnParalelo,
+                SocialNetworkSystem::cargarConexionesEnParalelo, true),
+        new Loader("mapeado", SocialNetworkSystem::cargarPerfilesMapeado,
+                SocialNetworkSystem::cargarConexionesMapeado, false),
+    };
+
+    // Blancos que String.trim quita (hasta U+0020)
+    private static String pad(Random random, String value) {
+        switch (random.nextInt(5)) {
+            case 0: return " " + value;
+            case 1: return value + "  ";
+            case 2: return "\t" + value + " ";
+            case 3: return "\u000B" + value + "\u001F";
+            default: return value;
+        }
+    }
+
+    // En los campos de texto, además, un U+00A0 que String.trim no quita y queda en el valor
+    private static String padText(Random random, String value) {
+        return pad(random, random.nextInt(30) == 0 ? value + "\u00A0" : value);
+    }
+
+    // Uno de cada cuatro IDs no es ASCII: la búsqueda directa sobre bytes cae al String decodificado
+    static String userID(int i) {
+        switch (i % 8) {
+            case 1: return "Ñ" + i;
+            case 5: return "usuário" + i;
+            default: return "U" + i;
+        }
+    }
+
+    private static String lineEnd(Random random) {
+        return random.nextInt(3) == 0 ? "\r\n" : "\n";
+    }
+
+    // Encabezado, finales CRLF y LF, líneas vacías y cortas (también por campos vacíos al final),
+    // IDs repetidos, espacios alrededor de los campos, nombres que contienen "id" (solo la primera
+    // línea del archivo es encabezado) y, si badLine >= 0, una edad que no es un número en esa línea
+    static String profilesCsv(Random random, int users, int badLine) {
+        StringBuilder csv = new StringBuilder("userID,nombreCompleto,edad,genero").append(lineEnd(random));
+        String[] genders = {"F", "M", "f", "m", "X", "nb", "é"};
+        String[] names = {"Ana", "David", "IDALIA", "Bruno", "José Müller", "Łucja", "李娜"};
+        for (int i = 0; i < users; i++) {
+            int kind = random.nextInt(40);
+            if (kind == 0) {
+                csv.append(random.nextBoolean() ? "" : "   ");
+            } else if (kind == 1) {
+                csv.append(userID(i)).append(",Solo nombre");
+            } else if (kind == 3) {
+                csv.append(userID(i)).append(",Sin género,30,");
+            } else {
+                // Un ID repetido con otros datos: se conserva el primero
+                String userID = kind == 2 && i > 0 ? userID(random.nextInt(i)) : userID(i);
+                String age = i == badLine ? "treinta" : String.valueOf(random.nextInt(300));
+                csv.append(padText(random, userID)).append(',')
+                   .append(padText(random, names[random.nextInt(names.length)] + " " + i)).append(',')
+                   .append(pad(random, age)).append(',')
+                   .append(padText(random, genders[random.nextInt(genders.length)]));
+            }
+            csv.append(lineEnd(random));
+        }
+        return csv.toString();
+    }
+
+    // Además de lo anterior: usuarios inexistentes (también no ASCII), calidades fuera de 1..5, amistades repetidas
+    // con otra calidad y, si badLine >= 0, una calidad que no es un número en esa línea
+    static String connectionsCsv(Random random, int users, int lines, int badLine) {
+        StringBuilder csv = new StringBuilder("userID_A,userID_B,calidad").append(lineEnd(random));
+        for (int i = 0; i < lines; i++) {
+            int kind = random.nextInt(40);
+            if (kind == 0) {
+                csv.append("");
+            } else if (kind == 1) {
+                csv.append(userID(random.nextInt(users))).append(",U2");
+            } else if (kind == 4) {
+                csv.append(userID(random.nextInt(users))).append(",U2,,");
+            } else {
+                int a = random.nextInt(users);
+                String userB = kind == 2 ? (random.nextBoolean() ? "X" : "Ø") + random.nextInt(users)
+                                         : userID(Math.floorMod(a + 1 + random.nextInt(50), users));
+                String quality = kind == 3 ? String.valueOf(random.nextInt(20) - 7) : String.valueOf(1 + random.nextInt(5));
+                if (i == badLine) {
+                    quality = "alta";
+                }
+                csv.append(padText(random, userID(a))).append(',')
+                   .append(padText(random, userB)).append(',')
+                   .append(pad(random, quality));
+            }
+            csv.append(lineEnd(random));
+        }
+        return csv.toString();
+    }
+
+    private String write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        assertTrue(ParallelCsvLoader.splitAtLines(file.toString()).size() >= 4, name + " en un solo bloque");
+        return file.toString();
+    }
+
+    // Mismos perfiles en los mismos índices, con los mismos datos y amigos, las mismas
+    // estadísticas y los mismos componentes
+    static void assertSameNetwork(SocialNetworkSystem expected, SocialNetworkSystem actual, String label) {
+        UserIdRegistry expectedRegistry = expected.obtenerRegistro();
+        UserIdRegistry actualRegistry = actual.obtenerRegistro();
+        assertEquals(expectedRegistry.size(), actualRegistry.size(), label);
+        for (int u = 0; u < expectedRegistry.size(); u++) {
+            assertEquals(expectedRegistry.userIdAt(u), actualRegistry.userIdAt(u), label);
+            Profile expectedProfile = expectedRegistry.profileAt(u);
+            Profile actualProfile = actualRegistry.profileAt(u);
+            String user = label + " " + expectedRegistry.userIdAt(u);
+            assertEquals(expectedProfile == null, actualProfile == null, user);
+            if (expectedProfile == null) continue;
+            assertEquals(expectedProfile.getFullName(), actualProfile.getFullName(), user);
+            assertEquals(expectedProfile.getAge(), actualProfile.getAge(), user);
+            assertEquals(expectedProfile.getGender(), actualProfile.getGender(), user);
+            assertEquals(expectedProfile.getFriendsList(), actualProfile.getFriendsList(), user);
+        }
+        assertEquals(expected.contarAmistades(), actual.contarAmistades(), label);
+        assertTrue(actual.verificarEstadisticas(), label);
+
+        FriendshipGraph expectedGraph = expected.obtenerGrafo();
+        FriendshipGraph actualGraph = actual.obtenerGrafo();
+        assertEquals(expectedGraph.getComponentCount(), actualGraph.getComponentCount(), label);
+        assertEquals(expectedGraph.getLargestComponentSize(), actualGraph.getLargestComponentSize(), label);
+        // Las raíces pueden ser otras, pero la partición en componentes debe ser la misma
+        Map<Integer, Integer> roots = new HashMap<>();
+        Map<Integer, Integer> reverse = new HashMap<>();
+        for (int u = 0; u < expectedRegistry.size(); u++) {
+            int expectedRoot = expectedGraph.find(u);
+            int actualRoot = actualGraph.find(u);
+            assertEquals(actualRoot, (int) roots.computeIfAbsent(expectedRoot, r -> actualRoot), label);
+            assertEquals(expectedRoot, (int) reverse.computeIfAbsent(actualRoot, r -> expectedRoot), label);
+        }
+    }
+
+    private static SocialNetworkSystem newSystem(Loader loader) {
+        return new SocialNetworkSystem(new ProfileHashTable(50), loader.concurrent);
+    }
+
+    // Carga los dos archivos con el cargador secuencial y con cada uno de los otros, y compara
+    // los conteos devueltos y la red resultante
+    private static void assertLoadersAgree(Loader[] loaders, String profiles, String connections) {
+        SocialNetworkSystem expected = newSystem(SEQUENTIAL);
+        int expectedProfiles = SEQUENTIAL.profiles.apply(expected, profiles);
+        int expectedConnections = SEQUENTIAL.connections.apply(expected, connections);
+        assertTrue(expectedProfiles > 0);
+        assertTrue(expectedConnections > 0);
+
+        for (Loader loader : loaders) {
+            SocialNetworkSystem actual = newSystem(loader);
+            assertEquals(expectedProfiles, (int) loader.profiles.apply(actual, profiles), loader.name);
+            assertEquals(expectedConnections, (int) loader.connections.apply(actual, connections), loader.name);
+            assertSameNetwork(expected, actual, loader.name);
+        }
+    }
+
+    @Test
+    void parallelLoadersMatchSequentialLoaders() throws IOException {
+        Random random = new Random(10);
+        String profiles = write("perfiles.csv", profilesCsv(random, USERS, -1));
+        String connections = write("conexiones.csv", connectionsCsv(random, USERS, 4000, -1));
+        assertLoadersAgree(OTHER_LOADERS, profiles, connections);
+    }
+
+    // Un número inválido a mitad de archivo detiene todas las cargas en la misma línea:
+    // las filas anteriores quedan cargadas y las siguientes no
+    @Test
+    void unparsableNumberStopsEveryLoaderAtTheSameLine() throws IOException {
+        Random random = new Random(11);
+        String profiles = write("perfiles.csv", profilesCsv(random, USERS, USERS / 2));
+        String connections = write("conexiones.csv", connectionsCsv(random, USERS, 4000, 2500));
+        assertLoadersAgree(OTHER_LOADERS, profiles, connections);
+    }
+}
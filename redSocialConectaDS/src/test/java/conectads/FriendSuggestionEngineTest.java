@@ -0,0 +1,443 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FriendSuggestionEngineTest {
+
+    private static final int USERS = 2000;
+    private static final int TOP_K = 10;
+
+    private static UserIdRegistry registry;
+    private static FriendshipSnapshot snapshot;
+
+    // Red en la que unos pocos usuarios concentran muchas amistades, con algunos perfiles eliminados
+    @BeforeAll
+    static void buildNetwork() {
+        EventLog.clearSink();
+        Random random = new Random(16);
+        registry = new UserIdRegistry(USERS);
+        Profile[] profiles = new Profile[USERS];
+        for (int i = 0; i < USERS; i++) {
+            profiles[i] = new Profile(registry, "U" + i, "Usuario " + i, 18 + random.nextInt(50),
+                    random.nextBoolean() ? "F" : "M");
+            registry.bindProfile(profiles[i].getIndex(), profiles[i]);
+        }
+        for (int i = 0; i < USERS * 4; i++) {
+            Profile a = profiles[random.nextInt(USERS)];
+            Profile b = profiles[(int) (Math.pow(random.nextDouble(), 2) * USERS)];
+            if (a != b) {
+                int quality = 1 + random.nextInt(5);
+                a.addFriend(b.getIndex(), quality);
+                b.addFriend(a.getIndex(), quality);
+            }
+        }
+        for (int i = 0; i < USERS; i += 97) {
+            registry.bindProfile(i, null);
+        }
+        snapshot = FriendshipSnapshot.build(registry);
+    }
+
+    // Usuario sugerido, prioridad y amigo común que más aporta
+    private static String describe(int user, int priority, String throughFriend) {
+        return registry.userIdAt(user) + "/" + priority + "/" + throughFriend;
+    }
+
+    // Candidato del cálculo por fuerza bruta con sus caminos en el orden en que se encontraron
+    private static final class BruteCandidate {
+        final int user;
+        double score;
+        int priority;
+        final List<Integer> friends = new ArrayList<>();
+        final List<Double> contributions = new ArrayList<>();
+
+        BruteCandidate(int user) {
+            this.user = user;
+        }
+    }
+
+    static boolean matchesFilter(Profile profile, String gender, int minAge, int maxAge) {
+        return profile != null
+                && (gender == null || gender.isEmpty() || profile.getGender().equalsIgnoreCase(gender))
+                && (minAge <= 0 || profile.getAge() >= minAge)
+                && (maxAge <= 0 || profile.getAge() <= maxAge);
+    }
+
+    // Sugerencias a 2 saltos recalculadas directamente sobre las listas de amigos de los perfiles,
+    // sin instantánea, columnas de atributos ni heap: cada camino X - A - B suma (o compara) su
+    // puntuación, se ordena todo y se corta en limit. Cada sugerencia se describe como
+    // "ID/prioridad/puntuación/amigos que más aportan".
+    static List<String> bruteForce(UserIdRegistry registry, int user, SuggestionRanker ranker,
+                                   String gender, int minAge, int maxAge, int limit) {
+        Profile profile = registry.profileAt(user);
+        Map<Integer, BruteCandidate> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < profile.getFriendCount(); i++) {
+            Profile friend = registry.profileAt(profile.getFriendIndexAt(i));
+            if (friend == null) continue;
+            int toFriend = profile.getFriendQualityAt(i);
+            for (int j = 0; j < friend.getFriendCount(); j++) {
+                int candidate = friend.getFriendIndexAt(j);
+                if (candidate == user || profile.isFriend(candidate)
+                        || !matchesFilter(registry.profileAt(candidate), gender, minAge, maxAge)) continue;
+                double path = ranker.pathScore(toFriend, friend.getFriendQualityAt(j), friend.getFriendCount());
+                BruteCandidate c = candidates.get(candidate);
+                if (c == null) {
+                    c = new BruteCandidate(candidate);
+                    c.score = path;
+                    candidates.put(candidate, c);
+                } else if (ranker.sumsPaths()) {
+                    c.score += path;
+                } else {
+                    c.score = Math.max(c.score, path);
+                }
+                c.priority = Math.max(c.priority, toFriend);
+                c.friends.add(friend.getIndex());
+                c.contributions.add(path);
+            }
+        }
+
+        List<BruteCandidate> sorted = new ArrayList<>(candidates.values());
+        sorted.sort(Comparator.<BruteCandidate>comparingDouble(c -> -c.score)
+                .thenComparing(c -> registry.profileAt(c.user).getFullName())
+                .thenComparingInt(c -> c.user));
+        List<String> result = new ArrayList<>();
+        for (BruteCandidate c : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            // Amigos que más aportan: orden estable por aporte, a igual aporte el que llegó antes
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < c.friends.size(); i++) order.add(i);
+            order.sort(Comparator.comparingDouble(i -> -c.contributions.get(i)));
+            List<String> contributors = new ArrayList<>();
+            for (int i = 0; i < Math.min(FriendSuggestionEngine.CONTRIBUTORS, order.size()); i++) {
+                contributors.add(registry.profileAt(c.friends.get(order.get(i))).getFullName());
+            }
+            result.add(registry.userIdAt(c.user) + "/" + c.priority + "/" + c.score + "/" + contributors);
+        }
+        return result;
+    }
+
+    static List<String> describe(List<FriendSuggestion> suggestions) {
+        List<String> result = new ArrayList<>();
+        for (FriendSuggestion suggestion : suggestions) {
+            result.add(suggestion.getSuggestedProfile().getUserID() + "/" + suggestion.getPriority() + "/"
+                    + suggestion.getScore() + "/" + suggestion.getTopContributors());
+        }
+        return result;
+    }
+
+    // sugerirAmigos frente al cálculo por fuerza bruta para los usuarios con más amigos (los primeros)
+    // y uno de cada cinco de los demás; las listas completas de la red tienen miles de candidatos
+    private static void assertMatchesBruteForce(FriendSuggestionEngine engine, SuggestionRanker ranker,
+                                                String gender, int minAge, int maxAge, int limit) {
+        for (int u = 0; u < USERS; u++) {
+            if (registry.profileAt(u) == null || (u >= 20 && u % 5 != 0)) continue;
+            assertEquals(bruteForce(registry, u, ranker, gender, minAge, maxAge, limit),
+                    describe(engine.sugerirAmigos(registry.userIdAt(u), gender, minAge, maxAge, limit)),
+                    "usuario " + u);
+        }
+    }
+
+    private static FriendSuggestionEngine uncachedEngine(SuggestionRanker ranker) {
+        FriendSuggestionEngine engine = new FriendSuggestionEngine(registry, () -> snapshot, 0);
+        engine.setRanker(ranker);
+        return engine;
+    }
+
+    @Test
+    void singleUserMatchesBruteForceForEveryRanker() {
+        for (SuggestionRanker ranker : new SuggestionRanker[] {SuggestionRanker.BEST_QUALITY,
+                SuggestionRanker.QUALITY_PRODUCT, SuggestionRanker.ADAMIC_ADAR, SuggestionRanker.MUTUAL_FRIENDS}) {
+            assertMatchesBruteForce(uncachedEngine(ranker), ranker, null, -1, -1, Integer.MAX_VALUE);
+        }
+    }
+
+    @Test
+    void singleUserMatchesBruteForceWithFilters() {
+        assertMatchesBruteForce(uncachedEngine(SuggestionRanker.QUALITY_PRODUCT), SuggestionRanker.QUALITY_PRODUCT,
+                "F", 20, 30, Integer.MAX_VALUE);
+        assertMatchesBruteForce(uncachedEngine(SuggestionRanker.ADAMIC_ADAR), SuggestionRanker.ADAMIC_ADAR,
+                "M", -1, 25, Integer.MAX_VALUE);
+    }
+
+    // El heap acotado debe dejar exactamente los primeros limit de la lista completa ordenada
+    @Test
+    void boundedHeapMatchesFullSort() {
+        for (SuggestionRanker ranker : new SuggestionRanker[] {SuggestionRanker.BEST_QUALITY,
+                SuggestionRanker.ADAMIC_ADAR}) {
+            FriendSuggestionEngine engine = uncachedEngine(ranker);
+            for (int limit : new int[] {0, 1, 3, TOP_K}) {
+                assertMatchesBruteForce(engine, ranker, null, -1, -1, limit);
+            }
+            assertMatchesBruteForce(engine, ranker, "F", 20, 30, 2);
+        }
+    }
+
+    // Una lista guardada con un límite mayor sirve para los menores sin recalcular; uno mayor
+    // solo se sirve de la caché si la lista guardada ya tenía todos los candidatos
+    @Test
+    void cachedListServesSmallerLimits() {
+        FriendSuggestionEngine engine = new FriendSuggestionEngine(registry, () -> snapshot);
+        engine.setRanker(SuggestionRanker.QUALITY_PRODUCT);
+        SuggestionCache cache = engine.getCache();
+        int checked = 0;
+        for (int u = 0; u < USERS; u += 7) {
+            if (registry.profileAt(u) == null) continue;
+            String userID = registry.userIdAt(u);
+            List<String> all = bruteForce(registry, u, SuggestionRanker.QUALITY_PRODUCT, null, -1, -1,
+                    Integer.MAX_VALUE);
+
+            long misses = cache.getMissCount();
+            assertEquals(all.subList(0, Math.min(TOP_K, all.size())),
+                    describe(engine.sugerirAmigos(userID, null, -1, -1, TOP_K)), "usuario " + u);
+            assertEquals(misses + 1, cache.getMissCount());
+            long hits = cache.getHitCount();
+            for (int limit : new int[] {TOP_K - 1, 3, 1, 0}) {
+                assertEquals(all.subList(0, Math.min(limit, all.size())),
+                        describe(engine.sugerirAmigos(userID, null, -1, -1, limit)), "usuario " + u + " límite " + limit);
+            }
+            assertEquals(hits + 4, cache.getHitCount());
+            assertEquals(misses + 1, cache.getMissCount());
+
+            // Un límite mayor: acierto solo si la lista anterior ya estaba completa
+            assertEquals(all.subList(0, Math.min(TOP_K * 2, all.size())),
+                    describe(engine.sugerirAmigos(userID, null, -1, -1, TOP_K * 2)), "usuario " + u);
+            assertEquals(misses + (all.size() > TOP_K ? 2 : 1), cache.getMissCount(), "usuario " + u);
+            checked++;
+        }
+        assertTrue(checked > 200);
+    }
+
+    // Géneros que solo difieren en mayúsculas y edades que no caben en la columna de un byte
+    static final String[] MIXED_GENDERS = {"F", "f", "M", "m", "Nb", "NB", "x"};
+    static final int[] EXTREME_AGES = {0, 254, 255, 256, 300, 1000};
+
+    // Perfiles con MIXED_GENDERS y una décima parte de edades extremas; algunos se reemplazan por
+    // otro perfil con el mismo ID y otros se eliminan, para dejar entradas viejas en el índice
+    static UserIdRegistry mixedRegistry(int users, Random random) {
+        UserIdRegistry mixed = new UserIdRegistry(users);
+        Profile[] profiles = new Profile[users];
+        for (int i = 0; i < users; i++) {
+            profiles[i] = mixedProfile(mixed, i, random);
+            mixed.bindProfile(i, profiles[i]);
+        }
+        for (int i = 0; i < users * 4; i++) {
+            Profile a = profiles[random.nextInt(users)];
+            Profile b = profiles[(int) (Math.pow(random.nextDouble(), 2) * users)];
+            if (a != b) {
+                int quality = 1 + random.nextInt(5);
+                a.addFriend(b.getIndex(), quality);
+                b.addFriend(a.getIndex(), quality);
+            }
+        }
+        // Otro perfil para el mismo usuario, con las mismas amistades para que las listas sigan siendo simétricas
+        for (int i = 5; i < users; i += 53) {
+            Profile replacement = mixedProfile(mixed, i, random);
+            for (int f = 0; f < profiles[i].getFriendCount(); f++) {
+                replacement.addFriend(profiles[i].getFriendIndexAt(f), profiles[i].getFriendQualityAt(f));
+            }
+            mixed.bindProfile(i, replacement);
+        }
+        for (int i = 7; i < users; i += 89) {
+            mixed.bindProfile(i, null);
+        }
+        return mixed;
+    }
+
+    private static Profile mixedProfile(UserIdRegistry mixed, int i, Random random) {
+        int age = random.nextInt(10) == 0 ? EXTREME_AGES[random.nextInt(EXTREME_AGES.length)] : 18 + random.nextInt(50);
+        return new Profile(mixed, "U" + i, "Usuario " + i + "-" + random.nextInt(1000), age,
+                MIXED_GENDERS[random.nextInt(MIXED_GENDERS.length)]);
+    }
+
+    // Con filtros muy selectivos sugerirAmigos parte de los usuarios que los cumplen (recorrido
+    // inverso) cuando eso es más barato que expandir los amigos. Una expansión de 2 saltos con un
+    // límite de vecinos inalcanzable obliga al recorrido normal: ambos deben dar el resultado exacto.
+    @Test
+    void selectiveFiltersMatchBruteForceOnBothPaths() {
+        int users = 1500;
+        UserIdRegistry mixed = mixedRegistry(users, new Random(18));
+        FriendshipSnapshot mixedSnapshot = FriendshipSnapshot.build(mixed);
+        HopExpansion forwardOnly = new HopExpansion(2, new int[] {Integer.MAX_VALUE - 1}, 1.0);
+        Object[][] filters = {{"nb", 250, -1}, {"f", 255, 255}, {"M", 256, 1000}, {"nB", 18, 20}, {"X", 300, -1}};
+
+        for (SuggestionRanker ranker : new SuggestionRanker[] {SuggestionRanker.QUALITY_PRODUCT,
+                SuggestionRanker.ADAMIC_ADAR}) {
+            FriendSuggestionEngine reverse = new FriendSuggestionEngine(mixed, () -> mixedSnapshot, 0);
+            reverse.setRanker(ranker);
+            FriendSuggestionEngine forward = new FriendSuggestionEngine(mixed, () -> mixedSnapshot, 0);
+            forward.setRanker(ranker);
+            forward.setExpansion(forwardOnly);
+            for (Object[] filter : filters) {
+                String gender = (String) filter[0];
+                int minAge = (Integer) filter[1];
+                int maxAge = (Integer) filter[2];
+                for (int u = 0; u < users; u++) {
+                    if (mixed.profileAt(u) == null) continue;
+                    String userID = mixed.userIdAt(u);
+                    List<String> expected = bruteForce(mixed, u, ranker, gender, minAge, maxAge, Integer.MAX_VALUE);
+                    String label = "usuario " + u + " " + gender + " " + minAge + ".." + maxAge;
+                    assertEquals(expected, describe(reverse.sugerirAmigos(userID, gender, minAge, maxAge)), label);
+                    assertEquals(expected, describe(forward.sugerirAmigos(userID, gender, minAge, maxAge)), label);
+                }
+            }
+        }
+    }
+
+    // Red fija para puntuar a mano: Xavier es amigo de Ana (5), Bruno (2) y Carla (1), en ese orden.
+    //   Ana:   Xavier, Diego (3), Elena (1)   -> grado 3
+    //   Bruno: Xavier, Diego (4)              -> grado 2
+    //   Carla: Xavier, Elena (2), Fabio (3)   -> grado 3
+    // Candidatos: Diego por Ana y Bruno, Elena por Ana y Carla, Fabio solo por Carla.
+    private static FriendSuggestionEngine handScoredEngine(SuggestionRanker ranker) {
+        UserIdRegistry small = new UserIdRegistry();
+        String[] names = {"Xavier", "Ana", "Bruno", "Carla", "Diego", "Elena", "Fabio"};
+        Profile[] p = new Profile[names.length];
+        for (int i = 0; i < names.length; i++) {
+            p[i] = new Profile(small, names[i].substring(0, 1), names[i], 30, "F");
+            small.bindProfile(p[i].getIndex(), p[i]);
+        }
+        int[][] friendships = {{0, 1, 5}, {0, 2, 2}, {0, 3, 1}, {1, 4, 3}, {1, 5, 1}, {2, 4, 4}, {3, 5, 2}, {3, 6, 3}};
+        for (int[] f : friendships) {
+            p[f[0]].addFriend(p[f[1]].getIndex(), f[2]);
+            p[f[1]].addFriend(p[f[0]].getIndex(), f[2]);
+        }
+        FriendshipSnapshot smallSnapshot = FriendshipSnapshot.build(small);
+        FriendSuggestionEngine engine = new FriendSuggestionEngine(small, () -> smallSnapshot, 0);
+        engine.setRanker(ranker);
+        return engine;
+    }
+
+    private static void assertSuggestion(FriendSuggestion suggestion, String name, int priority, double score,
+                                         String... contributors) {
+        assertEquals(name, suggestion.getSuggestedProfile().getFullName());
+        assertEquals(priority, suggestion.getPriority(), name);
+        assertEquals(score, suggestion.getScore(), 1e-12, name);
+        assertEquals(List.of(contributors), suggestion.getTopContributors(), name);
+    }
+
+    @Test
+    void rankersScoreHandComputedPaths() {
+        double ln2 = 1 / Math.log(2);
+        double ln3 = 1 / Math.log(3);
+
+        // Suma de calidad(X, A) × calidad(A, B): Diego 5·3 + 2·4, Elena 5·1 + 1·2, Fabio 1·3
+        List<FriendSuggestion> product = handScoredEngine(SuggestionRanker.QUALITY_PRODUCT).sugerirAmigos("X", null, -1, -1);
+        assertEquals(3, product.size());
+        assertSuggestion(product.get(0), "Diego", 5, 23, "Ana", "Bruno");
+        assertSuggestion(product.get(1), "Elena", 5, 7, "Ana", "Carla");
+        assertSuggestion(product.get(2), "Fabio", 1, 3, "Carla");
+
+        // Máximo de calidad(X, A); Diego y Elena empatan en 5 y se ordenan por nombre
+        List<FriendSuggestion> best = handScoredEngine(SuggestionRanker.BEST_QUALITY).sugerirAmigos("X", null, -1, -1);
+        assertSuggestion(best.get(0), "Diego", 5, 5, "Ana", "Bruno");
+        assertSuggestion(best.get(1), "Elena", 5, 5, "Ana", "Carla");
+        assertSuggestion(best.get(2), "Fabio", 1, 1, "Carla");
+
+        // Suma de 1 / log(grado de A): Bruno (grado 2) aporta más que Ana (grado 3) a Diego;
+        // a Elena Ana y Carla aportan lo mismo y queda primero Ana, que está antes en la lista de Xavier
+        List<FriendSuggestion> adamicAdar = handScoredEngine(SuggestionRanker.ADAMIC_ADAR).sugerirAmigos("X", null, -1, -1);
+        assertSuggestion(adamicAdar.get(0), "Diego", 5, ln3 + ln2, "Bruno", "Ana");
+        assertSuggestion(adamicAdar.get(1), "Elena", 5, 2 * ln3, "Ana", "Carla");
+        assertSuggestion(adamicAdar.get(2), "Fabio", 1, ln3, "Carla");
+
+        List<FriendSuggestion> mutual = handScoredEngine(SuggestionRanker.MUTUAL_FRIENDS).sugerirAmigos("X", null, -1, -1);
+        assertSuggestion(mutual.get(0), "Diego", 5, 2, "Ana", "Bruno");
+        assertSuggestion(mutual.get(1), "Elena", 5, 2, "Ana", "Carla");
+        assertSuggestion(mutual.get(2), "Fabio", 1, 1, "Carla");
+    }
+
+    // Con más de 2 saltos la búsqueda se corta en cuanto lo que falta por descubrir no puede entrar
+    // en las k mejores: el resultado debe ser siempre el prefijo de la lista completa. A 3 saltos o
+    // más la lista completa abarca casi toda la red, así que se usa una red más pequeña.
+    @Test
+    void earlyTerminationReturnsPrefixOfFullList() {
+        int users = 250;
+        UserIdRegistry small = mixedRegistry(users, new Random(20));
+        FriendshipSnapshot smallSnapshot = FriendshipSnapshot.build(small);
+        for (int hops = 3; hops <= 5; hops++) {
+            HopExpansion[] expansions = {new HopExpansion(hops, new int[] {Integer.MAX_VALUE}, 1.0),
+                    new HopExpansion(hops, new int[] {Integer.MAX_VALUE}, 0.3),
+                    new HopExpansion(hops, new int[] {8, 4, 2}, 0.5)};
+            for (HopExpansion expansion : expansions) {
+                for (SuggestionRanker ranker : new SuggestionRanker[] {SuggestionRanker.BEST_QUALITY,
+                        SuggestionRanker.QUALITY_PRODUCT, SuggestionRanker.ADAMIC_ADAR, SuggestionRanker.MUTUAL_FRIENDS}) {
+                    FriendSuggestionEngine engine = new FriendSuggestionEngine(small, () -> smallSnapshot, 0);
+                    engine.setRanker(ranker);
+                    engine.setExpansion(expansion);
+                    for (int u = 0; u < users; u += u < 10 ? 1 : 13) {
+                        if (small.profileAt(u) == null) continue;
+                        String userID = small.userIdAt(u);
+                        List<String> full = describe(engine.sugerirAmigos(userID, null, -1, -1, Integer.MAX_VALUE));
+                        for (int k : new int[] {1, TOP_K}) {
+                            assertEquals(full.subList(0, Math.min(k, full.size())),
+                                    describe(engine.sugerirAmigos(userID, null, -1, -1, k)),
+                                    "usuario " + u + ", " + hops + " saltos, k = " + k);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // sugerirParaTodos debe entregar para cada usuario exactamente la lista de sugerirAmigos
+    private static void assertBatchMatchesSingle(SuggestionRanker ranker, HopExpansion expansion,
+                                                 String gender, int minAge, int maxAge) {
+        FriendSuggestionEngine engine = new FriendSuggestionEngine(registry, () -> snapshot, 0);
+        engine.setRanker(ranker);
+        engine.setExpansion(expansion);
+
+        String[] batch = new String[USERS];
+        engine.sugerirParaTodos(TOP_K, gender, minAge, maxAge, (user, count, suggested, priorities, via) -> {
+            List<String> row = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                row.add(describe(suggested[i], priorities[i], registry.profileAt(via[i]).getFullName()));
+            }
+            batch[user] = row.toString();
+        });
+
+        int compared = 0;
+        for (int u = 0; u < USERS; u++) {
+            if (registry.profileAt(u) == null) {
+                assertEquals(null, batch[u], "sin perfil " + u);
+                continue;
+            }
+            List<String> single = new ArrayList<>();
+            for (FriendSuggestion suggestion : engine.sugerirAmigos(registry.userIdAt(u), gender, minAge, maxAge, TOP_K)) {
+                single.add(describe(suggestion.getSuggestedProfile().getIndex(), suggestion.getPriority(),
+                        suggestion.getThroughFriend()));
+            }
+            assertEquals(single.toString(), batch[u], "usuario " + u);
+            compared++;
+        }
+        assertEquals(USERS - (USERS + 96) / 97, compared);
+    }
+
+    @Test
+    void batchMatchesSingleUserForEveryRanker() {
+        for (SuggestionRanker ranker : new SuggestionRanker[] {SuggestionRanker.BEST_QUALITY,
+                SuggestionRanker.QUALITY_PRODUCT, SuggestionRanker.ADAMIC_ADAR, SuggestionRanker.MUTUAL_FRIENDS}) {
+            assertBatchMatchesSingle(ranker, HopExpansion.TWO_HOPS, null, -1, -1);
+        }
+    }
+
+    @Test
+    void batchMatchesSingleUserWithFilters() {
+        assertBatchMatchesSingle(SuggestionRanker.QUALITY_PRODUCT, HopExpansion.TWO_HOPS, "F", 20, 30);
+        assertBatchMatchesSingle(SuggestionRanker.ADAMIC_ADAR, HopExpansion.TWO_HOPS, "M", -1, 25);
+    }
+
+    @Test
+    void batchMatchesSingleUserBeyondTwoHops() {
+        HopExpansion threeHops = new HopExpansion(3, new int[] {Integer.MAX_VALUE, 5}, 0.5);
+        assertBatchMatchesSingle(SuggestionRanker.QUALITY_PRODUCT, threeHops, null, -1, -1);
+        assertBatchMatchesSingle(SuggestionRanker.BEST_QUALITY, threeHops, "F", -1, -1);
+    }
+}
@@ -0,0 +1,330 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FriendshipGraphTest {
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // Red y grafo actualizados en el mismo orden que SocialNetworkSystem: primero las listas
+    // de amigos y después el grafo. Los componentes esperados se calculan con un BFS completo.
+    private static final class Network {
+        final int users;
+        final Random random;
+        final UserIdRegistry registry;
+        final FriendshipGraph graph;
+        final int[] component;
+        final int[] componentSizes;
+        int components;
+        int largest;
+
+        Network(int users, boolean concurrent, long seed) {
+            this.users = users;
+            this.random = new Random(seed);
+            this.registry = new UserIdRegistry(users);
+            this.graph = new FriendshipGraph(registry, 16, concurrent);
+            this.component = new int[users];
+            this.componentSizes = new int[users];
+            for (int i = 0; i < users; i++) {
+                addProfile(i);
+            }
+        }
+
+        Profile profile(int user) {
+            return registry.profileAt(user);
+        }
+
+        void addProfile(int user) {
+            Profile profile = new Profile(registry, "U" + user, "Usuario " + user, 30, "F");
+            registry.bindProfile(profile.getIndex(), profile);
+            graph.registerUser(profile.getUserID());
+        }
+
+        void addFriendship(int a, int b) {
+            if (a == b || profile(a) == null || profile(b) == null) return;
+            profile(a).addFriend(b, 3);
+            profile(b).addFriend(a, 3);
+            graph.union(a, b);
+        }
+
+        // Quita una amistad existente de a (si tiene)
+        void removeFriendship(int a) {
+            Profile profile = profile(a);
+            if (profile == null || profile.getFriendCount() == 0) return;
+            int b = profile.getFriendIndexAt(random.nextInt(profile.getFriendCount()));
+            profile.removeFriend(b);
+            profile(b).removeFriend(a);
+            graph.removeConnection(a, b);
+        }
+
+        void removeUser(int user) {
+            Profile profile = profile(user);
+            if (profile == null) return;
+            int[] friends = new int[profile.getFriendCount()];
+            for (int i = 0; i < friends.length; i++) {
+                friends[i] = profile.getFriendIndexAt(i);
+            }
+            for (int friend : friends) {
+                profile.removeFriend(friend);
+                profile(friend).removeFriend(user);
+            }
+            graph.removeUser(user, friends, friends.length);
+            registry.bindProfile(user, null);
+        }
+
+        void computeComponents() {
+            Arrays.fill(component, -1);
+            Arrays.fill(componentSizes, 0);
+            int[] queue = new int[users];
+            components = 0;
+            largest = 0;
+            for (int start = 0; start < users; start++) {
+                if (profile(start) == null || component[start] >= 0) continue;
+                int head = 0;
+                int tail = 0;
+                queue[tail++] = start;
+                component[start] = start;
+                while (head < tail) {
+                    Profile profile = profile(queue[head++]);
+                    for (int i = 0; i < profile.getFriendCount(); i++) {
+                        int friend = profile.getFriendIndexAt(i);
+                        if (component[friend] < 0) {
+                            component[friend] = start;
+                            queue[tail++] = friend;
+                        }
+                    }
+                }
+                componentSizes[start] = tail;
+                components++;
+                largest = Math.max(largest, tail);
+            }
+        }
+
+        void check(String step) {
+            computeComponents();
+            assertEquals(components, graph.getComponentCount(), "componentes " + step);
+            assertEquals(largest, graph.getLargestComponentSize(), "mayor componente " + step);
+            for (int t = 0; t < 40; t++) {
+                int u = random.nextInt(users);
+                int v = random.nextInt(users);
+                boolean expected = profile(u) != null && profile(v) != null && component[u] == component[v];
+                assertEquals(expected, graph.estaConectados("U" + u, "U" + v), "U" + u + " - U" + v + " " + step);
+                int expectedSize = profile(u) == null ? 0 : componentSizes[component[u]];
+                assertEquals(expectedSize, graph.getComponentSize("U" + u), "tamaño de U" + u + " " + step);
+            }
+            int sizeOne = 0;
+            for (int u = 0; u < users; u++) {
+                if (profile(u) != null && componentSizes[component[u]] == 1) sizeOne++;
+            }
+            assertEquals(sizeOne, graph.getComponentCountOfSize(1), "usuarios aislados " + step);
+            assertTrue(graph.verifyComponentStatistics(), "histograma " + step);
+        }
+    }
+
+    // Red pequeña con muchas bajas y altas: casi todas las búsquedas tras una baja terminan
+    // dentro del presupuesto y separan componentes en el acto, y los nodos abandonados
+    // acumulados obligan a compactar el bosque varias veces
+    private static void smallNetwork(boolean concurrent) {
+        for (int round = 0; round < 4; round++) {
+            int users = 200 + round * 100;
+            Network network = new Network(users, concurrent, round);
+            Random random = network.random;
+            for (int op = 0; op < 6000; op++) {
+                int a = random.nextInt(users);
+                int kind = random.nextInt(100);
+                if (kind < 50) {
+                    network.addFriendship(a, (int) (Math.pow(random.nextDouble(), 2) * users));
+                } else if (kind < 88) {
+                    network.removeFriendship(a);
+                } else if (kind < 94) {
+                    network.removeUser(a);
+                } else if (network.profile(a) == null) {
+                    network.addProfile(a);
+                }
+                if (op % 10 == 0) {
+                    network.check("ronda " + round + " operación " + op);
+                }
+            }
+            network.check("ronda " + round + " final");
+        }
+    }
+
+    // Dos grupos grandes unidos por una amistad y por un usuario puente, más un anillo largo.
+    // Quitar esos enlaces agota el presupuesto de la búsqueda por ambos lados: el componente
+    // queda pendiente (se dividió o, en el anillo, no) y la siguiente consulta reconstruye el grafo
+    private static void largeComponents(boolean concurrent) {
+        int cluster = 15000;
+        int ring = 25000;
+        int bridgeUser = 2 * cluster + ring;
+        Network network = new Network(bridgeUser + 1, concurrent, 25);
+        Random random = network.random;
+        for (int i = 0; i < cluster * 3; i++) {
+            network.addFriendship(random.nextInt(cluster), random.nextInt(cluster));
+            network.addFriendship(cluster + random.nextInt(cluster), cluster + random.nextInt(cluster));
+        }
+        for (int i = 0; i < ring; i++) {
+            network.addFriendship(2 * cluster + i, 2 * cluster + (i + 1) % ring);
+        }
+        network.addFriendship(0, cluster);
+        network.addFriendship(bridgeUser, 1);
+        network.addFriendship(bridgeUser, cluster + 1);
+        network.check("inicial");
+
+        removeFriendship(network, 2 * cluster, 2 * cluster + 1);
+        network.check("anillo abierto");
+        network.removeUser(bridgeUser);
+        network.check("sin usuario puente");
+        removeFriendship(network, 0, cluster);
+        network.check("grupos separados");
+
+        int users = network.users;
+        for (int op = 0; op < 1500; op++) {
+            int a = random.nextInt(users);
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                network.removeFriendship(a);
+            } else if (kind < 8) {
+                network.removeUser(a);
+            } else if (kind < 9) {
+                network.addFriendship(a, random.nextInt(users));
+            } else if (network.profile(a) == null) {
+                network.addProfile(a);
+            }
+            if (op % 100 == 0) {
+                network.check("operación " + op);
+            }
+        }
+        network.check("final");
+    }
+
+    private static void removeFriendship(Network network, int a, int b) {
+        network.profile(a).removeFriend(b);
+        network.profile(b).removeFriend(a);
+        network.graph.removeConnection(a, b);
+    }
+
+    @Test
+    void smallNetworkMatchesBreadthFirstSearch() {
+        smallNetwork(false);
+    }
+
+    @Test
+    void smallNetworkMatchesBreadthFirstSearchConcurrent() {
+        smallNetwork(true);
+    }
+
+    @Test
+    void largeComponentsMatchBreadthFirstSearch() {
+        largeComponents(false);
+    }
+
+    @Test
+    void largeComponentsMatchBreadthFirstSearchConcurrent() {
+        largeComponents(true);
+    }
+
+    // Varios hilos reparten la misma lista de amistades entre llamadas a union y consultas
+    // intercaladas. La conectividad solo crece, así que lo que una consulta vea conectado debe
+    // seguir conectado al final; el resultado final debe ser el de un grafo secuencial.
+    @Test
+    void concurrentUnionsMatchSequentialGraph() throws Exception {
+        int threads = 8;
+        int users = 20000;
+        for (int round = 0; round < 3; round++) {
+            Random random = new Random(round);
+            UserIdRegistry registry = new UserIdRegistry(users);
+            FriendshipGraph sequential = new FriendshipGraph(registry, 16, false);
+            FriendshipGraph concurrent = new FriendshipGraph(registry, 16, true);
+            for (int i = 0; i < users; i++) {
+                sequential.registerUser("U" + i);
+                concurrent.registerUser("U" + i);
+            }
+            // Muchas amistades con los primeros usuarios para que los hilos compitan por las mismas raíces
+            int edges = users * 2;
+            int[] from = new int[edges];
+            int[] to = new int[edges];
+            for (int e = 0; e < edges; e++) {
+                from[e] = random.nextInt(users);
+                to[e] = (int) (Math.pow(random.nextDouble(), 3) * users);
+                sequential.union(from[e], to[e]);
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                results.add(pool.submit(() -> {
+                    Random local = new Random(thread);
+                    int merges = 0;
+                    int[] seenConnected = new int[edges];
+                    int seen = 0;
+                    start.await();
+                    for (int e = thread; e < edges; e += threads) {
+                        if (concurrent.union(from[e], to[e])) {
+                            merges++;
+                        }
+                        int u = local.nextInt(users);
+                        int v = local.nextInt(users);
+                        if (concurrent.estaConectados(u, v)) {
+                            seenConnected[seen++] = u * users + v;
+                        }
+                        // Los extremos de una amistad ya unida están conectados siempre
+                        assertTrue(concurrent.estaConectados(from[e], to[e]), "amistad " + e);
+                    }
+                    int[] result = Arrays.copyOf(seenConnected, seen + 1);
+                    result[seen] = merges;
+                    return result;
+                }));
+            }
+            start.countDown();
+            int merges = 0;
+            for (Future<int[]> result : results) {
+                int[] pairs = result.get();
+                merges += pairs[pairs.length - 1];
+                for (int i = 0; i < pairs.length - 1; i++) {
+                    int u = pairs[i] / users;
+                    int v = pairs[i] % users;
+                    assertTrue(sequential.estaConectados(u, v), "U" + u + " - U" + v);
+                }
+            }
+            pool.shutdown();
+
+            assertEquals(sequential.getComponentCount(), concurrent.getComponentCount(), "ronda " + round);
+            assertEquals(users - sequential.getComponentCount(), merges, "uniones efectivas");
+            assertEquals(sequential.getLargestComponentSize(), concurrent.getLargestComponentSize());
+            assertTrue(concurrent.verifyComponentStatistics());
+            // Misma partición: la raíz secuencial de cada usuario corresponde a una sola raíz concurrente
+            int[] rootMap = new int[users];
+            Arrays.fill(rootMap, -1);
+            for (int u = 0; u < users; u++) {
+                int root = sequential.find(u);
+                if (rootMap[root] < 0) {
+                    rootMap[root] = concurrent.find(u);
+                }
+                assertEquals(rootMap[root], concurrent.find(u), "U" + u);
+                assertEquals(sequential.getComponentSize("U" + u), concurrent.getComponentSize("U" + u), "U" + u);
+            }
+            for (int t = 0; t < 2000; t++) {
+                int u = random.nextInt(users);
+                int v = random.nextInt(users);
+                assertEquals(sequential.estaConectados(u, v), concurrent.estaConectados(u, v), "U" + u + " - U" + v);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FriendshipSnapshotTest {
+
+    private static Profile addProfile(UserIdRegistry registry, String userID) {
+        Profile profile = new Profile(registry, userID, "Usuario " + userID, 30, "F");
+        registry.bindProfile(profile.getIndex(), profile);
+        return profile;
+    }
+
+    // Cada usuario con los mismos amigos, en el mismo orden y con la misma calidad
+    private static void assertSameAdjacency(FriendshipSnapshot expected, FriendshipSnapshot actual, int users) {
+        for (int u = 0; u < users; u++) {
+            assertEquals(expected.degree(u), actual.degree(u), "grado de " + u);
+            for (int i = 0; i < expected.degree(u); i++) {
+                assertEquals(expected.neighbor(expected.edgeStart(u) + i), actual.neighbor(actual.edgeStart(u) + i));
+                assertEquals(expected.quality(expected.edgeStart(u) + i), actual.quality(actual.edgeStart(u) + i));
+            }
+        }
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+    }
+
+    // Altas, bajas, perfiles eliminados y usuarios nuevos aplicados a la vista por usuario
+    // deben dar la misma red que reconstruir la CSR, sin tocar la instantánea de partida
+    @Test
+    void overlayMatchesAFullRebuild() {
+        Random random = new Random(6);
+        UserIdRegistry registry = new UserIdRegistry();
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            profiles.add(addProfile(registry, "U" + i));
+        }
+        for (int i = 0; i < 900; i++) {
+            Profile a = profiles.get(random.nextInt(profiles.size()));
+            Profile b = profiles.get(random.nextInt(profiles.size()));
+            if (a != b) {
+                a.addFriend(b.getIndex(), 3);
+                b.addFriend(a.getIndex(), 3);
+            }
+        }
+        FriendshipSnapshot base = FriendshipSnapshot.build(registry);
+        FriendshipSnapshot original = FriendshipSnapshot.build(registry);
+        FriendshipSnapshot view = base.withOverlay();
+
+        for (int round = 0; round < 50; round++) {
+            for (int op = 0; op < 40; op++) {
+                int kind = random.nextInt(10);
+                if (kind == 0) {
+                    Profile added = addProfile(registry, "N" + profiles.size());
+                    profiles.add(added);
+                    view.markChanged(added.getIndex());
+                    continue;
+                }
+                Profile a = profiles.get(random.nextInt(profiles.size()));
+                if (registry.profileAt(a.getIndex()) == null) continue;
+                if (kind == 1) {
+                    // Baja del perfil: primero sus amistades
+                    while (a.getFriendCount() > 0) {
+                        Profile friend = registry.profileAt(a.getFriendIndexAt(0));
+                        friend.removeFriend(a.getIndex());
+                        a.removeFriend(friend.getIndex());
+                        view.markChanged(friend.getIndex());
+                    }
+                    registry.bindProfile(a.getIndex(), null);
+                    view.markChanged(a.getIndex());
+                    continue;
+                }
+                Profile b = profiles.get(random.nextInt(profiles.size()));
+                if (a == b || registry.profileAt(b.getIndex()) == null) continue;
+                if (kind < 6) {
+                    int quality = 1 + random.nextInt(5);
+                    a.addFriend(b.getIndex(), quality);
+                    b.addFriend(a.getIndex(), quality);
+                } else {
+                    a.removeFriend(b.getIndex());
+                    b.removeFriend(a.getIndex());
+                }
+                view.markChanged(a.getIndex());
+                view.markChanged(b.getIndex());
+            }
+            view.applyChanges(registry);
+            assertSameAdjacency(FriendshipSnapshot.build(registry), view, registry.size());
+        }
+        assertSameAdjacency(original, base, original.getUserCount());
+        assertEquals(registry.size(), view.getUserCount());
+        // Las listas copiadas ya superan a la base: toca construir una CSR nueva
+        assertTrue(view.shouldCompact());
+    }
+}
@@ -0,0 +1,113 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    // Los valores 0..7 tienen bucket propio; desde 8 cada bucket termina justo antes del
+    // siguiente y su ancho no pasa del 12.5% de su límite inferior
+    @Test
+    void bucketBoundaries() {
+        for (int v = 0; v < 8; v++) {
+            assertEquals(v, LatencyHistogram.bucketFor(v));
+            assertEquals(v, LatencyHistogram.upperBound(v));
+        }
+        assertEquals(0, LatencyHistogram.bucketFor(-5));
+        assertEquals(8, LatencyHistogram.bucketFor(8));
+        assertEquals(15, LatencyHistogram.bucketFor(15));
+        assertEquals(16, LatencyHistogram.bucketFor(16));
+        assertEquals(16, LatencyHistogram.bucketFor(17));
+        assertEquals(17, LatencyHistogram.bucketFor(18));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketFor(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.BUCKETS - 1));
+
+        for (int b = 8; b < LatencyHistogram.BUCKETS; b++) {
+            long upper = LatencyHistogram.upperBound(b);
+            long lower = LatencyHistogram.upperBound(b - 1) + 1;
+            assertEquals(b, LatencyHistogram.bucketFor(lower), "inicio del bucket " + b);
+            assertEquals(b, LatencyHistogram.bucketFor(upper), "fin del bucket " + b);
+            assertEquals(b - 1, LatencyHistogram.bucketFor(lower - 1), "antes del bucket " + b);
+            assertTrue(upper - lower + 1 <= lower / 8, "ancho del bucket " + b);
+        }
+    }
+
+    @Test
+    void emptyAndSingleValueSnapshots() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram.Snapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.percentile(0.99));
+        assertEquals(0.0, empty.getMean());
+
+        // El límite del bucket de 1000 es 1023, pero el percentil no pasa del máximo observado
+        histogram.record(1000);
+        LatencyHistogram.Snapshot single = histogram.snapshot();
+        assertEquals(1, single.getCount());
+        assertEquals(1000, single.getSum());
+        assertEquals(1000, single.getMax());
+        assertEquals(1000, single.percentile(0.0));
+        assertEquals(1000, single.percentile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+
+    // Cada percentil queda entre el valor exacto de las muestras ordenadas y un 12.5% por encima
+    @Test
+    void percentilesBoundTheExactValue() {
+        Random random = new Random(22);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[20000];
+        long sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            // Colas largas: la mayoría cerca de 1 µs, algunas de varios ms
+            values[i] = (long) (1000 * Math.exp(random.nextGaussian() * 2));
+            histogram.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(sum, snapshot.getSum());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+
+        double[] quantiles = {0.0, 0.01, 0.25, 0.5, 0.9, 0.99, 0.999, 1.0};
+        for (double q : quantiles) {
+            long exact = values[(int) Math.max(0, Math.ceil(q * values.length) - 1)];
+            long reported = snapshot.percentile(q);
+            assertTrue(reported >= exact, "p" + q + ": " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 8 + 1, "p" + q + ": " + reported + " > " + exact);
+        }
+        assertEquals(values[values.length - 1], snapshot.percentile(1.0));
+    }
+
+    // Los registros desde varios hilos van a franjas distintas y el snapshot las suma todas
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[6];
+        for (int t = 0; t < threads.length; t++) {
+            long value = t + 1;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    histogram.record(value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(6 * 20000, snapshot.getCount());
+        assertEquals(20000L * (1 + 2 + 3 + 4 + 5 + 6), snapshot.getSum());
+        assertEquals(6, snapshot.getMax());
+        assertEquals(3, snapshot.percentile(0.5));
+    }
+}
@@ -0,0 +1,124 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+
+    private static final String REJECTED = "operaciones.rechazadas";
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // Las métricas son estáticas: cada prueba parte de cero y las deja activadas
+    @BeforeEach
+    void resetMetrics() {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    @AfterEach
+    void enableMetrics() {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    private static long latencyCount(Metrics.Operation operation) {
+        return Metrics.snapshot().getLatency(operation).getCount();
+    }
+
+    private static SocialNetworkSystem newNetwork() {
+        SocialNetworkSystem system = new SocialNetworkSystem();
+        system.crearPerfil("U1", "Ana", 30, "F");
+        system.crearPerfil("U2", "Bruno", 31, "M");
+        system.crearPerfil("U3", "Carla", 32, "F");
+        system.generarLazo("U1", "U2", 4);
+        system.generarLazo("U2", "U3", 5);
+        return system;
+    }
+
+    // Cada operación registra su latencia haya tenido éxito o no, y las fallidas suman
+    // operaciones.rechazadas
+    @Test
+    void operationsRecordLatencyAndRejections() {
+        SocialNetworkSystem system = newNetwork();
+        Metrics.reset();
+
+        assertTrue(system.crearPerfil("U4", "Diego", 33, "M"));
+        assertFalse(system.crearPerfil("U4", "Diego", 33, "M"));
+        assertEquals(2, latencyCount(Metrics.Operation.CREAR_PERFIL));
+        assertEquals(1, Metrics.snapshot().getCounter(REJECTED));
+
+        assertTrue(system.generarLazo("U3", "U4", 2));
+        assertFalse(system.generarLazo("U3", "X9", 2));
+        assertFalse(system.generarLazo("U3", "U4", 7));
+        assertEquals(3, latencyCount(Metrics.Operation.GENERAR_LAZO));
+        assertEquals(3, Metrics.snapshot().getCounter(REJECTED));
+
+        FriendSuggestionEngine engine = system.obtenerMotorSugerencias();
+        assertEquals(1, engine.sugerirAmigos("U1", null, -1, -1).size());
+        assertTrue(engine.sugerirAmigos("X9", null, -1, -1).isEmpty());
+        assertEquals(2, latencyCount(Metrics.Operation.SUGERIR_AMIGOS));
+        assertEquals(4, Metrics.snapshot().getCounter(REJECTED));
+
+        LatencyHistogram.Snapshot latency = Metrics.snapshot().getLatency(Metrics.Operation.SUGERIR_AMIGOS);
+        assertTrue(latency.getMax() > 0);
+        assertTrue(latency.getSum() >= latency.getMax());
+    }
+
+    // Con las métricas desactivadas ni las operaciones del sistema ni las llamadas directas
+    // tocan contadores o histogramas, y start() no lee el reloj
+    @Test
+    void disabledMetricsRecordNothing() {
+        Metrics.setEnabled(false);
+        assertEquals(0, Metrics.start());
+
+        SocialNetworkSystem system = newNetwork();
+        system.crearPerfil("U1", "Ana", 30, "F");
+        system.generarLazo("U1", "X9", 3);
+        system.eliminarAmistad("U1", "U2");
+        system.eliminarPerfil("U3");
+        system.obtenerMotorSugerencias().sugerirAmigos("U2", null, -1, -1);
+        system.obtenerMotorSugerencias().sugerirAmigos("X9", null, -1, -1);
+        Metrics.profileLookup(3, false);
+        Metrics.findPath(2);
+        Metrics.connectivitySearch(10);
+        Metrics.suggestionCandidates(5);
+        Metrics.resized("prueba", 16, 32, System.nanoTime());
+        Metrics.connectivityRebuilt(System.nanoTime());
+        Metrics.operation(Metrics.Operation.CREAR_PERFIL, "U1", System.nanoTime(), false);
+
+        MetricsSnapshot snapshot = Metrics.snapshot();
+        for (Map.Entry<String, Long> counter : snapshot.getCounters().entrySet()) {
+            assertEquals(0L, counter.getValue(), counter.getKey());
+        }
+        for (Map.Entry<String, LatencyHistogram.Snapshot> histogram : snapshot.getHistograms().entrySet()) {
+            assertEquals(0, histogram.getValue().getCount(), histogram.getKey());
+        }
+    }
+
+    // Una operación que empezó con las métricas desactivadas no se registra aunque se
+    // activen antes de que termine (start() devolvió 0)
+    @Test
+    void operationStartedWhileDisabledIsNotRecorded() {
+        Metrics.setEnabled(false);
+        long start = Metrics.start();
+        Metrics.setEnabled(true);
+        Metrics.operation(Metrics.Operation.GENERAR_LAZO, "U1", start, false);
+        assertEquals(0, latencyCount(Metrics.Operation.GENERAR_LAZO));
+        assertEquals(0, Metrics.snapshot().getCounter(REJECTED));
+
+        Metrics.operation(Metrics.Operation.GENERAR_LAZO, "U1", Metrics.start(), false);
+        assertEquals(1, latencyCount(Metrics.Operation.GENERAR_LAZO));
+        assertEquals(1, Metrics.snapshot().getCounter(REJECTED));
+    }
+}
@@ -0,0 +1,86 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NetworkSnapshotTest {
+
+    private static final int USERS = 6;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // U0-U1-U2 en un componente, U3-U4 en otro y U5 eliminado
+    private String saveNetwork() {
+        SocialNetworkSystem system = new SocialNetworkSystem();
+        for (int i = 0; i < USERS; i++) {
+            system.crearPerfil("U" + i, "Usuario " + i, 20 + i, "F");
+        }
+        system.generarLazo("U0", "U1", 3);
+        system.generarLazo("U1", "U2", 4);
+        system.generarLazo("U3", "U4", 5);
+        system.eliminarPerfil("U5");
+        String filename = directory.resolve("red.snap").toString();
+        assertEquals(true, system.guardarInstantanea(filename));
+        return filename;
+    }
+
+    // Los padres y los tamaños son los dos últimos bloques antes de la marca de fin
+    private static void overwrite(String filename, boolean sizes, int index, int value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+            long block = file.length() - 4 - (sizes ? 4L : 8L) * USERS;
+            file.seek(block + 4L * index);
+            file.writeInt(value);
+        }
+    }
+
+    @Test
+    void readsAValidForest() throws IOException {
+        NetworkSnapshot snapshot = NetworkSnapshot.readFrom(saveNetwork());
+        assertEquals(USERS, snapshot.getUserCount());
+    }
+
+    @Test
+    void rejectsAParentOutOfRange() throws IOException {
+        String filename = saveNetwork();
+        overwrite(filename, false, 2, USERS);
+        assertThrows(IOException.class, () -> NetworkSnapshot.readFrom(filename));
+    }
+
+    @Test
+    void rejectsACycle() throws IOException {
+        String filename = saveNetwork();
+        overwrite(filename, false, 3, 4);
+        overwrite(filename, false, 4, 3);
+        assertThrows(IOException.class, () -> NetworkSnapshot.readFrom(filename));
+    }
+
+    @Test
+    void rejectsAUserUnderARemovedOne() throws IOException {
+        String filename = saveNetwork();
+        overwrite(filename, false, 3, 5);
+        overwrite(filename, false, 4, 5);
+        assertThrows(IOException.class, () -> NetworkSnapshot.readFrom(filename));
+    }
+
+    @Test
+    void rejectsAWrongComponentSize() throws IOException {
+        String filename = saveNetwork();
+        for (int i = 0; i < USERS; i++) {
+            overwrite(filename, true, i, 7);
+        }
+        assertThrows(IOException.class, () -> NetworkSnapshot.readFrom(filename));
+    }
+}
@@ -0,0 +1,302 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NetworkStatisticsTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // Usuario de mayor grado recorriendo todos los perfiles; en empates gana el menor índice
+    private static int expectedMaxUser(Set<Integer> profiles, int[] degree) {
+        int best = -1;
+        for (int u = 0; u < degree.length; u++) {
+            if (profiles.contains(u) && (best < 0 || degree[u] > degree[best])) {
+                best = u;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void tiesGoToTheLowestIndex() {
+        NetworkStatistics statistics = new NetworkStatistics(1);
+        for (int u = 0; u < 8; u++) {
+            statistics.profileAdded(u);
+        }
+        assertEquals(0, statistics.getMaxDegreeUser());
+
+        // 5, 3 y 6 llegan a grado 2 en ese orden: el máximo es siempre el de menor índice
+        statistics.friendshipAdded(5, 7);
+        statistics.friendshipAdded(5, 1);
+        assertEquals(5, statistics.getMaxDegreeUser());
+        statistics.friendshipAdded(3, 2);
+        statistics.friendshipAdded(3, 4);
+        assertEquals(3, statistics.getMaxDegreeUser());
+        statistics.friendshipAdded(6, 0);
+        statistics.friendshipAdded(6, 2);
+        assertEquals(2, statistics.getMaxDegreeUser());
+        assertEquals(2, statistics.getMaxDegree());
+
+        // Al bajar el grado de 2 vuelve el primero de los empatados que quedan
+        statistics.friendshipRemoved(3, 2);
+        assertEquals(5, statistics.getMaxDegreeUser());
+        statistics.friendshipRemoved(5, 7);
+        assertEquals(6, statistics.getMaxDegreeUser());
+        statistics.friendshipRemoved(6, 2);
+        assertEquals(0, statistics.getMaxDegreeUser());
+        assertEquals(1, statistics.getMaxDegree());
+
+        // Sacar del heap al primero de los empatados deja al siguiente en orden de índice
+        statistics.friendshipRemoved(6, 0);
+        statistics.profileRemoved(0);
+        assertEquals(1, statistics.getMaxDegreeUser());
+        assertEquals(2, statistics.getFriendshipCount());
+        assertEquals(4, statistics.getTotalDegree());
+    }
+
+    // Sube el grado de user con amistades hacia usuarios sin perfil (no entran al heap)
+    private static void raise(NetworkStatistics statistics, int user, int times) {
+        for (int i = 0; i < times; i++) {
+            statistics.friendshipAdded(user, 100 + user);
+        }
+    }
+
+    private static void lower(NetworkStatistics statistics, int user, int times) {
+        for (int i = 0; i < times; i++) {
+            statistics.friendshipRemoved(user, 100 + user);
+        }
+    }
+
+    // Heap [0:5, 1:1, 2:4, 3:0, 4:0, 5:2, 6:3] (usuario:grado por posición). Al eliminar 3 el
+    // último (6) pasa a la posición de 3, bajo 1, y tiene que subir: si no, queda escondido
+    // bajo un padre de menor grado y al bajar 2 y 0 el máximo saldría mal
+    @Test
+    void removingFromTheMiddleSiftsTheLastUserUp() {
+        NetworkStatistics statistics = new NetworkStatistics(7);
+        for (int u = 0; u < 7; u++) {
+            statistics.profileAdded(u);
+        }
+        raise(statistics, 0, 5);
+        raise(statistics, 2, 4);
+        raise(statistics, 1, 1);
+        raise(statistics, 5, 2);
+        raise(statistics, 6, 3);
+        assertEquals(0, statistics.getMaxDegreeUser());
+
+        statistics.profileRemoved(3);
+        lower(statistics, 2, 4);
+        lower(statistics, 0, 5);
+        assertEquals(6, statistics.getMaxDegreeUser());
+        assertEquals(3, statistics.getMaxDegree());
+
+        lower(statistics, 6, 3);
+        statistics.profileRemoved(6);
+        assertEquals(5, statistics.getMaxDegreeUser());
+        assertEquals(3, statistics.getFriendshipCount());
+    }
+
+    // Altas y bajas al azar directamente sobre las estadísticas, con bajas de perfiles que sacan
+    // elementos de cualquier posición del heap: el máximo, los grados y los totales deben coincidir
+    // con recalcularlos desde cero después de cada operación
+    @Test
+    void randomUpdatesMatchARecount() {
+        Random random = new Random(23);
+        int users = 200;
+        NetworkStatistics statistics = new NetworkStatistics(4);
+        Set<Integer> profiles = new HashSet<>();
+        List<Set<Integer>> friends = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            friends.add(new HashSet<>());
+        }
+        int[] degree = new int[users];
+        long friendships = 0;
+
+        for (int op = 0; op < 20000; op++) {
+            int a = random.nextInt(users);
+            int b = random.nextInt(users);
+            int kind = random.nextInt(100);
+            if (kind < 10 || !profiles.contains(a)) {
+                if (profiles.add(a)) {
+                    statistics.profileAdded(a);
+                }
+            } else if (kind < 60) {
+                if (a != b && profiles.contains(b) && friends.get(a).add(b)) {
+                    friends.get(b).add(a);
+                    degree[a]++;
+                    degree[b]++;
+                    friendships++;
+                    statistics.friendshipAdded(a, b);
+                }
+            } else if (kind < 95) {
+                if (friends.get(a).remove(b)) {
+                    friends.get(b).remove(a);
+                    degree[a]--;
+                    degree[b]--;
+                    friendships--;
+                    statistics.friendshipRemoved(a, b);
+                }
+            } else {
+                // Las amistades se quitan antes de sacar el perfil del heap
+                for (int friend : friends.get(a)) {
+                    friends.get(friend).remove(a);
+                    degree[a]--;
+                    degree[friend]--;
+                    friendships--;
+                    statistics.friendshipRemoved(a, friend);
+                }
+                friends.get(a).clear();
+                profiles.remove(a);
+                statistics.profileRemoved(a);
+            }
+
+            int expected = expectedMaxUser(profiles, degree);
+            assertEquals(expected, statistics.getMaxDegreeUser(), "operación " + op);
+            assertEquals(expected < 0 ? 0 : degree[expected], statistics.getMaxDegree(), "operación " + op);
+            assertEquals(friendships, statistics.getFriendshipCount());
+            assertEquals(2 * friendships, statistics.getTotalDegree());
+            assertEquals(degree[a], statistics.getDegree(a));
+            assertEquals(degree[b], statistics.getDegree(b));
+        }
+    }
+
+    // rebuild sobre unas estadísticas con datos viejos debe dejar lo mismo que haberlas mantenido
+    // en cada alta, con el usuario de mayor grado lejos del principio del orden por índice
+    @Test
+    void rebuildMatchesIncrementalUpdates() {
+        Random random = new Random(232);
+        int users = 300;
+        UserIdRegistry registry = new UserIdRegistry();
+        NetworkStatistics incremental = new NetworkStatistics(1);
+        Profile[] profiles = new Profile[users];
+        for (int u = 0; u < users; u++) {
+            profiles[u] = new Profile(registry, "U" + u, "Usuario " + u, 30, "F");
+            registry.bindProfile(u, profiles[u]);
+            incremental.profileAdded(u);
+        }
+        for (int e = 0; e < 1500; e++) {
+            // Los índices altos reciben más amistades
+            int a = users - 1 - (int) (Math.pow(random.nextDouble(), 3) * users);
+            int b = random.nextInt(users);
+            if (a != b && !profiles[a].isFriend(b)) {
+                profiles[a].addFriend(b, 3);
+                profiles[b].addFriend(a, 3);
+                incremental.friendshipAdded(a, b);
+            }
+        }
+        for (int u = 0; u < users; u += 7) {
+            for (int i = profiles[u].getFriendCount() - 1; i >= 0; i--) {
+                int friend = profiles[u].getFriendIndexAt(i);
+                profiles[friend].removeFriend(u);
+                profiles[u].removeFriend(friend);
+                incremental.friendshipRemoved(u, friend);
+            }
+            registry.bindProfile(u, null);
+            incremental.profileRemoved(u);
+        }
+
+        NetworkStatistics rebuilt = new NetworkStatistics(4);
+        for (int u = 0; u < 50; u++) {
+            rebuilt.profileAdded(u);
+            rebuilt.friendshipAdded(u, u + 1);
+        }
+        rebuilt.rebuild(registry, FriendshipSnapshot.build(registry));
+
+        assertTrue(incremental.getMaxDegreeUser() > users / 2);
+        assertEquals(incremental.getMaxDegreeUser(), rebuilt.getMaxDegreeUser());
+        assertEquals(incremental.getMaxDegree(), rebuilt.getMaxDegree());
+        assertEquals(incremental.getFriendshipCount(), rebuilt.getFriendshipCount());
+        assertEquals(incremental.getTotalDegree(), rebuilt.getTotalDegree());
+        for (int u = 0; u < users; u++) {
+            assertEquals(incremental.getDegree(u), rebuilt.getDegree(u), "grado de " + u);
+        }
+
+        // Y el heap reconstruido sigue funcionando al quitar perfiles de mayor a menor grado
+        while (incremental.getMaxDegreeUser() >= 0) {
+            int top = incremental.getMaxDegreeUser();
+            assertEquals(top, rebuilt.getMaxDegreeUser());
+            incremental.profileRemoved(top);
+            rebuilt.profileRemoved(top);
+        }
+        assertEquals(-1, rebuilt.getMaxDegreeUser());
+    }
+
+    private static void randomWrites(SocialNetworkSystem system, Random random, int users, int operations) {
+        UserIdRegistry registry = system.obtenerRegistro();
+        for (int op = 0; op < operations; op++) {
+            String a = "U" + random.nextInt(users);
+            int kind = random.nextInt(100);
+            if (kind < 50) {
+                system.generarLazo(a, "U" + (int) (Math.pow(random.nextDouble(), 2) * users), 1 + random.nextInt(5));
+            } else if (kind < 85) {
+                int index = registry.indexOf(a);
+                Profile profile = index < 0 ? null : registry.profileAt(index);
+                if (profile != null && profile.getFriendCount() > 0) {
+                    int friend = profile.getFriendIndexAt(random.nextInt(profile.getFriendCount()));
+                    system.eliminarAmistad(a, registry.userIdAt(friend));
+                }
+            } else if (kind < 93) {
+                system.eliminarPerfil(a);
+            } else {
+                system.crearPerfil(a, "Usuario " + a, 30, "F");
+            }
+        }
+    }
+
+    // Lotes de altas y bajas de amistades y perfiles a través del sistema; verificarEstadisticas
+    // recalcula los agregados desde la instantánea y los compara con los mantenidos
+    @Test
+    void systemStatisticsSurviveRandomWrites() {
+        Random random = new Random(230);
+        int users = 250;
+        SocialNetworkSystem system = new SocialNetworkSystem(new OpenAddressingProfileTable(16));
+        for (int i = 0; i < users; i++) {
+            system.crearPerfil("U" + i, "Usuario " + i, 30, "F");
+        }
+        for (int batch = 0; batch < 60; batch++) {
+            randomWrites(system, random, users, 50);
+            assertTrue(system.verificarEstadisticas(), "lote " + batch);
+        }
+    }
+
+    // Tras cargar una instantánea las estadísticas se reconstruyen desde la CSR y siguen
+    // manteniéndose bien con las escrituras posteriores
+    @Test
+    void rebuildAfterSnapshotRestore() {
+        Random random = new Random(231);
+        int users = 250;
+        SocialNetworkSystem original = new SocialNetworkSystem();
+        for (int i = 0; i < users; i++) {
+            original.crearPerfil("U" + i, "Usuario " + i, 30, "F");
+        }
+        randomWrites(original, random, users, 1500);
+        String filename = directory.resolve("red.snap").toString();
+        assertTrue(original.guardarInstantanea(filename));
+
+        SocialNetworkSystem restored = new SocialNetworkSystem();
+        assertTrue(restored.cargarInstantanea(filename) > 0);
+        assertTrue(restored.verificarEstadisticas());
+        assertEquals(original.contarAmistades(), restored.contarAmistades());
+
+        for (int batch = 0; batch < 20; batch++) {
+            randomWrites(restored, random, users, 50);
+            assertTrue(restored.verificarEstadisticas(), "lote " + batch);
+        }
+    }
+}
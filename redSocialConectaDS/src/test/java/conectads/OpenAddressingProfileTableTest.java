@@ -0,0 +1,143 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class OpenAddressingProfileTableTest {
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    @Test
+    void tableSizeForSmallRequestsIsTheMinimum() {
+        assertEquals(2, HashTables.tableSizeFor(0));
+        assertEquals(2, HashTables.tableSizeFor(1));
+        assertEquals(2, HashTables.tableSizeFor(2));
+        assertEquals(4, HashTables.tableSizeFor(3));
+        assertEquals(1024, HashTables.tableSizeFor(1000));
+        assertEquals(HashTables.MAX_CAPACITY, HashTables.tableSizeFor(Integer.MAX_VALUE));
+    }
+
+    // Reservar espacio para 0 perfiles (un CSV vacío) no debe pedir la capacidad máxima
+    @Test
+    void ensureCapacityForNothingKeepsTheTableUsable() {
+        UserIdRegistry registry = new UserIdRegistry();
+        OpenAddressingProfileTable table = new OpenAddressingProfileTable(16);
+        table.ensureCapacity(0);
+        table.ensureCapacity(1);
+
+        table.insert(new Profile(registry, "U1", "Ana", 30, "F"));
+        assertEquals(1, table.size());
+        assertNotNull(table.search("U1"));
+    }
+
+    // La tabla contiene exactamente los perfiles del mapa (los mismos objetos)
+    private static void assertSameContents(Map<String, Profile> expected, OpenAddressingProfileTable table,
+                                           String label) {
+        assertEquals(expected.size(), table.size(), label);
+        Set<Profile> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(table.getAllProfiles());
+        assertEquals(expected.size(), table.getAllProfiles().size(), label);
+        assertEquals(expected.size(), all.size(), label);
+        for (Map.Entry<String, Profile> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), table.search(entry.getKey()), label + " " + entry.getKey());
+            assertTrue(all.contains(entry.getValue()), label + " " + entry.getKey());
+        }
+    }
+
+    // Altas, actualizaciones, bajas y búsquedas al azar sobre un conjunto pequeño de claves,
+    // comparadas con un HashMap después de cada operación
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(1);
+        UserIdRegistry registry = new UserIdRegistry();
+        OpenAddressingProfileTable table = new OpenAddressingProfileTable(2);
+        Map<String, Profile> expected = new HashMap<>();
+
+        for (int op = 0; op < 20000; op++) {
+            String key = "U" + random.nextInt(400);
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                Profile profile = new Profile(registry, key, "Usuario " + op, 30, "F");
+                table.insert(profile);
+                expected.put(key, profile);
+            } else if (kind < 8) {
+                assertEquals(expected.remove(key) != null, table.delete(key), "baja de " + key);
+            } else {
+                assertSame(expected.get(key), table.search(key), "búsqueda de " + key);
+            }
+            assertEquals(expected.size(), table.size());
+            if (op % 500 == 0) {
+                assertSameContents(expected, table, "operación " + op);
+            }
+        }
+        assertSameContents(expected, table, "final");
+    }
+
+    // Claves cuya posición ideal en una tabla de 16 slots cae en los últimos slots o en los
+    // primeros: sus cadenas de sondeo dan la vuelta al final del arreglo
+    private static List<String> keysNearTheWrap() {
+        List<String> keys = new ArrayList<>();
+        for (int n = 0; keys.size() < 40; n++) {
+            String key = "W" + n;
+            int home = OpenAddressingProfileTable.hash(key) & 15;
+            if (home >= 13 || home <= 1) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    // Bajas en cualquier orden dentro de un grupo que da la vuelta al arreglo: el desplazamiento
+    // hacia atrás debe dejar cada clave restante alcanzable desde su posición ideal
+    @Test
+    void deletesInsideWrappedClustersKeepEveryKeyReachable() {
+        Random random = new Random(2);
+        UserIdRegistry registry = new UserIdRegistry();
+        List<String> candidates = keysNearTheWrap();
+
+        for (int trial = 0; trial < 2000; trial++) {
+            // Como mucho 11 claves: con 12 la tabla de 16 slots crecería
+            OpenAddressingProfileTable table = new OpenAddressingProfileTable(16);
+            Map<String, Profile> expected = new HashMap<>();
+            Collections.shuffle(candidates, random);
+            List<String> keys = new ArrayList<>(candidates.subList(0, 4 + random.nextInt(8)));
+            for (String key : keys) {
+                Profile profile = new Profile(registry, key, "Usuario " + key, 30, "F");
+                table.insert(profile);
+                expected.put(key, profile);
+            }
+
+            Collections.shuffle(keys, random);
+            for (String key : keys) {
+                assertTrue(table.delete(key), key);
+                expected.remove(key);
+                assertSameContents(expected, table, "prueba " + trial + " tras borrar " + key);
+                // A veces vuelve a entrar otra clave del mismo grupo en el hueco
+                if (random.nextInt(4) == 0 && expected.size() < 11) {
+                    String other = candidates.get(random.nextInt(candidates.size()));
+                    if (!keys.contains(other)) {
+                        Profile profile = new Profile(registry, other, "Usuario " + other, 30, "F");
+                        table.insert(profile);
+                        expected.put(other, profile);
+                    }
+                }
+            }
+        }
+    }
+}
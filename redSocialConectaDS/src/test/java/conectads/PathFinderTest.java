@@ -0,0 +1,223 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PathFinderTest {
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // Distancia en amistades desde source a cada usuario (-1 si no se alcanza), recorriendo los perfiles
+    static int[] bfs(UserIdRegistry registry, int source) {
+        int[] distance = new int[registry.size()];
+        Arrays.fill(distance, -1);
+        distance[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            Profile profile = registry.profileAt(queue.poll());
+            for (int i = 0; i < profile.getFriendCount(); i++) {
+                int friend = profile.getFriendIndexAt(i);
+                if (distance[friend] < 0) {
+                    distance[friend] = distance[profile.getIndex()] + 1;
+                    queue.add(friend);
+                }
+            }
+        }
+        return distance;
+    }
+
+    // Costo mínimo (6 - calidad por amistad) desde source a cada usuario (-1 si no se alcanza)
+    static long[] dijkstra(UserIdRegistry registry, int source) {
+        long[] cost = new long[registry.size()];
+        Arrays.fill(cost, -1);
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[] {0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int user = (int) entry[1];
+            if (cost[user] >= 0) continue;
+            cost[user] = entry[0];
+            Profile profile = registry.profileAt(user);
+            for (int i = 0; i < profile.getFriendCount(); i++) {
+                int friend = profile.getFriendIndexAt(i);
+                if (cost[friend] < 0) {
+                    queue.add(new long[] {entry[0] + 6 - profile.getFriendQualityAt(i), friend});
+                }
+            }
+        }
+        return cost;
+    }
+
+    // El camino va de source a target sin repetir usuarios, cada amistad existe con la calidad
+    // informada y getCost() es la suma de los costos de sus amistades
+    static void assertValidPath(UserIdRegistry registry, FriendshipPath path, String source, String target) {
+        assertEquals(source, path.getUserID(0));
+        assertEquals(target, path.getUserID(path.getHops()));
+        Set<String> seen = new HashSet<>();
+        int cost = 0;
+        for (int hop = 0; hop < path.getHops(); hop++) {
+            Profile from = registry.profileAt(registry.indexOf(path.getUserID(hop)));
+            String to = path.getUserID(hop + 1);
+            assertTrue(from.isFriend(to), path + ": " + from.getUserID() + " - " + to);
+            assertEquals(from.getFriendshipQuality(to), path.getQuality(hop), path.toString());
+            assertTrue(seen.add(path.getUserID(hop)), path.toString());
+            cost += PathFinder.edgeCost(path.getQuality(hop));
+        }
+        assertEquals(cost, path.getCost());
+    }
+
+    private static UserIdRegistry randomGraph(Random random, int users, int edges, int maxSpan) {
+        UserIdRegistry registry = new UserIdRegistry();
+        Profile[] profiles = new Profile[users];
+        for (int i = 0; i < users; i++) {
+            profiles[i] = new Profile(registry, "U" + i, "Usuario " + i, 30, "F");
+            registry.bindProfile(profiles[i].getIndex(), profiles[i]);
+        }
+        // maxSpan pequeño da caminos largos; maxSpan = users da un grafo aleatorio de diámetro corto
+        for (int e = 0; e < edges; e++) {
+            int a = random.nextInt(users);
+            int b = Math.floorMod(a + 1 + random.nextInt(maxSpan), users);
+            int quality = 1 + random.nextInt(5);
+            if (a != b && !profiles[a].isFriend(b)) {
+                profiles[a].addFriend(b, quality);
+                profiles[b].addFriend(a, quality);
+            }
+        }
+        return registry;
+    }
+
+    // Grafos dispersos con caminos largos, grafos con componentes sueltos y grafos densos:
+    // la BFS bidireccional y el Dijkstra por cubetas deben dar la distancia de los recorridos
+    // simples, y el corte por maxHops devolver null exactamente cuando la distancia lo supera
+    @Test
+    void pathsMatchPlainBfsAndDijkstra() {
+        Random random = new Random(24);
+        int[][] shapes = {{500, 450, 6}, {500, 700, 4}, {500, 1500, 500}, {500, 250, 500}};
+        for (int[] shape : shapes) {
+            UserIdRegistry registry = randomGraph(random, shape[0], shape[1], shape[2]);
+            FriendshipSnapshot snapshot = FriendshipSnapshot.build(registry);
+            PathFinder finder = new PathFinder(registry, () -> snapshot);
+
+            for (int s = 0; s < 40; s++) {
+                int source = random.nextInt(shape[0]);
+                int[] hops = bfs(registry, source);
+                long[] cost = dijkstra(registry, source);
+                String sourceID = registry.userIdAt(source);
+
+                for (int t = 0; t < 60; t++) {
+                    int target = t == 0 ? source : random.nextInt(shape[0]);
+                    String targetID = registry.userIdAt(target);
+                    String pair = sourceID + " -> " + targetID;
+
+                    FriendshipPath shortest = finder.shortestPath(source, target, PathFinder.NO_LIMIT);
+                    FriendshipPath cheapest = finder.cheapestPath(source, target);
+                    if (hops[target] < 0) {
+                        assertNull(shortest, pair);
+                        assertNull(cheapest, pair);
+                        continue;
+                    }
+                    assertNotNull(shortest, pair);
+                    assertEquals(hops[target], shortest.getHops(), pair);
+                    assertValidPath(registry, shortest, sourceID, targetID);
+                    assertNotNull(cheapest, pair);
+                    assertEquals(cost[target], cheapest.getCost(), pair);
+                    assertValidPath(registry, cheapest, sourceID, targetID);
+
+                    // Cortes alrededor de la distancia real
+                    int maxHops = Math.max(0, hops[target] - 2 + random.nextInt(4));
+                    FriendshipPath limited = finder.shortestPath(source, target, maxHops);
+                    if (hops[target] > maxHops) {
+                        assertNull(limited, pair + " con maxHops " + maxHops);
+                    } else {
+                        assertNotNull(limited, pair + " con maxHops " + maxHops);
+                        assertEquals(hops[target], limited.getHops(), pair);
+                        assertValidPath(registry, limited, sourceID, targetID);
+                    }
+                }
+            }
+        }
+    }
+
+    // Lo mismo a través del sistema, con altas y bajas de amistades y perfiles entre consultas:
+    // buscarCamino y buscarCaminoPonderado leen la vista vigente y devuelven null para perfiles
+    // inexistentes o usuarios sin camino
+    @Test
+    void systemPathsFollowWrites() {
+        Random random = new Random(240);
+        int users = 300;
+        SocialNetworkSystem system = new SocialNetworkSystem(new OpenAddressingProfileTable(16));
+        for (int i = 0; i < users; i++) {
+            system.crearPerfil("U" + i, "Usuario " + i, 30, "F");
+        }
+        for (int e = 0; e < 330; e++) {
+            int a = random.nextInt(users);
+            system.generarLazo("U" + a, "U" + Math.floorMod(a + 1 + random.nextInt(8), users), 1 + random.nextInt(5));
+        }
+        UserIdRegistry registry = system.obtenerRegistro();
+
+        for (int round = 0; round < 40; round++) {
+            for (int op = 0; op < 10; op++) {
+                String a = "U" + random.nextInt(users);
+                int kind = random.nextInt(10);
+                if (kind < 5) {
+                    int b = Math.floorMod(registry.indexOf(a) + 1 + random.nextInt(8), users);
+                    system.generarLazo(a, registry.userIdAt(b), 1 + random.nextInt(5));
+                } else if (kind < 9) {
+                    Profile profile = registry.profileAt(registry.indexOf(a));
+                    if (profile != null && profile.getFriendCount() > 0) {
+                        int friend = profile.getFriendIndexAt(random.nextInt(profile.getFriendCount()));
+                        system.eliminarAmistad(a, registry.userIdAt(friend));
+                    }
+                } else {
+                    system.eliminarPerfil(a);
+                }
+            }
+
+            int source = random.nextInt(users);
+            String sourceID = "U" + source;
+            if (registry.profileAt(registry.indexOf(sourceID)) == null) {
+                assertNull(system.buscarCamino(sourceID, "U0"));
+                assertNull(system.buscarCaminoPonderado(sourceID, "U0"));
+                continue;
+            }
+            source = registry.indexOf(sourceID);
+            int[] hops = bfs(registry, source);
+            long[] cost = dijkstra(registry, source);
+            for (int t = 0; t < 25; t++) {
+                String targetID = "U" + random.nextInt(users);
+                int target = registry.indexOf(targetID);
+                String pair = sourceID + " -> " + targetID;
+                FriendshipPath shortest = system.buscarCamino(sourceID, targetID);
+                FriendshipPath cheapest = system.buscarCaminoPonderado(sourceID, targetID);
+                if (target < 0 || registry.profileAt(target) == null || hops[target] < 0) {
+                    assertNull(shortest, pair);
+                    assertNull(cheapest, pair);
+                    continue;
+                }
+                assertEquals(hops[target], shortest.getHops(), pair);
+                assertValidPath(registry, shortest, sourceID, targetID);
+                assertEquals(cost[target], cheapest.getCost(), pair);
+                assertValidPath(registry, cheapest, sourceID, targetID);
+
+                int maxSaltos = Math.max(0, hops[target] - 1 + random.nextInt(3));
+                FriendshipPath limited = system.buscarCamino(sourceID, targetID, maxSaltos);
+                assertEquals(hops[target] > maxSaltos, limited == null, pair + " con maxSaltos " + maxSaltos);
+            }
+        }
+    }
+}
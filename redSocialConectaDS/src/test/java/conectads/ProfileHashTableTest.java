@@ -0,0 +1,70 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ProfileHashTableTest {
+
+    private static Profile[] newProfiles(int count) {
+        UserIdRegistry registry = new UserIdRegistry(count);
+        Profile[] profiles = new Profile[count];
+        for (int i = 0; i < count; i++) {
+            profiles[i] = new Profile(registry, "U" + i, "Usuario " + i, 20 + i % 50, i % 2 == 0 ? "F" : "M");
+        }
+        return profiles;
+    }
+
+    // Búsquedas, actualizaciones y borrados mientras hay una migración incremental a medias
+    @Test
+    void incrementalRehashKeepsEveryProfileReachable() {
+        Profile[] profiles = newProfiles(5000);
+        ProfileHashTable table = new ProfileHashTable(16, true);
+        for (int i = 0; i < profiles.length; i++) {
+            table.insert(profiles[i]);
+            assertSame(profiles[i / 2], table.search("U" + (i / 2)));
+        }
+        assertEquals(profiles.length, table.size());
+        assertNull(table.search("X1"));
+
+        for (int i = 0; i < profiles.length; i += 3) {
+            assertTrue(table.delete("U" + i));
+            assertFalse(table.delete("U" + i));
+        }
+        table.insert(profiles[1]);
+        int expected = profiles.length - (profiles.length + 2) / 3;
+        assertEquals(expected, table.size());
+        assertEquals(expected, table.getAllProfiles().size());
+        for (int i = 0; i < profiles.length; i++) {
+            assertEquals(i % 3 != 0, table.search("U" + i) != null, "U" + i);
+        }
+    }
+
+    // Mientras dura una migración ninguna inserción mueve más de MIGRATION_STEP buckets ni recorre
+    // más buckets vacíos que el tope; así la pausa de un rehashing queda repartida. La comparación
+    // de latencias (p99.9) está en ProfileTableBenchmark.insertPastRehash.
+    @Test
+    void incrementalRehashBoundsWorkPerInsert() {
+        Profile[] profiles = newProfiles(20000);
+        ProfileHashTable table = new ProfileHashTable(16, true);
+        int migratingInserts = 0;
+        for (Profile profile : profiles) {
+            boolean migrating = table.hasPendingMigration();
+            table.insert(profile);
+            if (migrating) {
+                migratingInserts++;
+                assertTrue(table.lastMigratedBuckets <= ProfileHashTable.MIGRATION_STEP,
+                        "buckets migrados: " + table.lastMigratedBuckets);
+                assertTrue(table.lastEmptyVisits <= ProfileHashTable.MIGRATION_STEP * ProfileHashTable.EMPTY_VISITS_PER_STEP,
+                        "buckets vacíos recorridos: " + table.lastEmptyVisits);
+            }
+        }
+        assertTrue(migratingInserts > 0);
+        assertEquals(profiles.length, table.size());
+        assertEquals(profiles.length, table.getAllProfiles().size());
+    }
+}
@@ -0,0 +1,174 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SuggestionCacheTest {
+
+    private static final int USERS = 300;
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    private static SocialNetworkSystem newNetwork(Random random) {
+        SocialNetworkSystem system = new SocialNetworkSystem(new OpenAddressingProfileTable(16));
+        for (int i = 0; i < USERS; i++) {
+            system.crearPerfil("U" + i, "Usuario " + i, 18 + random.nextInt(50), random.nextBoolean() ? "F" : "M");
+        }
+        for (int i = 0; i < USERS * 3; i++) {
+            system.generarLazo("U" + random.nextInt(USERS), "U" + (int) (Math.pow(random.nextDouble(), 2) * USERS),
+                    1 + random.nextInt(5));
+        }
+        return system;
+    }
+
+    // Altas y bajas de amistades y perfiles al azar a través del sistema, con consultas intercaladas:
+    // el motor del sistema (con caché e invalidación por vecindario) debe responder siempre lo mismo
+    // que un motor sin caché sobre la instantánea vigente
+    @Test
+    void cachedEngineMatchesUncachedUnderRandomWrites() {
+        Random random = new Random(17);
+        SocialNetworkSystem system = newNetwork(random);
+        system.configurarRanking(SuggestionRanker.QUALITY_PRODUCT);
+        UserIdRegistry registry = system.obtenerRegistro();
+        FriendSuggestionEngine cached = system.obtenerMotorSugerencias();
+        FriendSuggestionEngine uncached = new FriendSuggestionEngine(registry, system::obtenerInstantanea, 0);
+        uncached.setRanker(SuggestionRanker.QUALITY_PRODUCT);
+        Object[][] filters = {{null, -1, -1}, {"F", 20, 40}, {"m", -1, 30}};
+
+        for (int op = 0; op < 3000; op++) {
+            String a = "U" + random.nextInt(USERS);
+            int kind = random.nextInt(100);
+            if (kind < 40) {
+                system.generarLazo(a, "U" + (int) (Math.pow(random.nextDouble(), 2) * USERS), 1 + random.nextInt(5));
+            } else if (kind < 75) {
+                Profile profile = registry.profileAt(registry.indexOf(a));
+                if (profile != null && profile.getFriendCount() > 0) {
+                    int friend = profile.getFriendIndexAt(random.nextInt(profile.getFriendCount()));
+                    assertTrue(system.eliminarAmistad(a, registry.userIdAt(friend)));
+                }
+            } else if (kind < 80) {
+                system.eliminarPerfil(a);
+            } else if (kind < 85) {
+                system.crearPerfil(a, "Otro " + a, 18 + random.nextInt(50), random.nextBoolean() ? "F" : "M");
+            }
+
+            // Varias consultas por operación, sobre pocos usuarios para que la caché acierte
+            for (int q = 0; q < 4; q++) {
+                String userID = "U" + random.nextInt(USERS / 5);
+                Object[] filter = filters[random.nextInt(filters.length)];
+                String gender = (String) filter[0];
+                int minAge = (Integer) filter[1];
+                int maxAge = (Integer) filter[2];
+                int limit = random.nextBoolean() ? 5 : Integer.MAX_VALUE;
+                assertEquals(FriendSuggestionEngineTest.describe(uncached.sugerirAmigos(userID, gender, minAge, maxAge, limit)),
+                        FriendSuggestionEngineTest.describe(cached.sugerirAmigos(userID, gender, minAge, maxAge, limit)),
+                        "operación " + op + ", " + userID + " " + gender + " límite " + limit);
+            }
+        }
+        SuggestionCache cache = cached.getCache();
+        assertTrue(cache.getHitCount() > 1000, "aciertos: " + cache.getHitCount());
+        assertTrue(cache.getInvalidationCount() > 0);
+    }
+
+    // Una amistad nueva A-B solo descarta las entradas de A, de B y de sus amigos
+    @Test
+    void friendshipInvalidatesOnlyTwoHopNeighborhood() {
+        Random random = new Random(23);
+        SocialNetworkSystem system = newNetwork(random);
+        UserIdRegistry registry = system.obtenerRegistro();
+        FriendSuggestionEngine engine = system.obtenerMotorSugerencias();
+        SuggestionCache cache = engine.getCache();
+        for (int u = 0; u < USERS; u++) {
+            engine.sugerirAmigos("U" + u, null, -1, -1, 10);
+        }
+        assertEquals(USERS, cache.size());
+
+        for (int round = 0; round < 20; round++) {
+            int a = USERS / 2 + random.nextInt(USERS / 2);
+            int b = random.nextInt(USERS);
+            if (a == b) continue;
+            long invalidations = cache.getInvalidationCount();
+            int sizeBefore = cache.size();
+            system.generarLazo("U" + a, "U" + b, 3);
+
+            Set<Integer> affected = new HashSet<>();
+            for (int user : new int[] {a, b}) {
+                Profile profile = registry.profileAt(user);
+                affected.add(user);
+                for (int i = 0; i < profile.getFriendCount(); i++) {
+                    affected.add(profile.getFriendIndexAt(i));
+                }
+            }
+            assertEquals(sizeBefore - affected.size(), cache.size(), "ronda " + round);
+            assertEquals(invalidations + affected.size(), cache.getInvalidationCount(), "ronda " + round);
+
+            // Las entradas fuera del vecindario siguen sirviéndose desde la caché
+            for (int u = 0; u < USERS; u++) {
+                long hits = cache.getHitCount();
+                long misses = cache.getMissCount();
+                engine.sugerirAmigos("U" + u, null, -1, -1, 10);
+                if (affected.contains(u)) {
+                    assertEquals(misses + 1, cache.getMissCount(), "U" + u);
+                } else {
+                    assertEquals(hits + 1, cache.getHitCount(), "U" + u);
+                }
+            }
+            assertEquals(USERS, cache.size());
+        }
+    }
+
+    // Con más entradas de las que caben en el límite de bytes se expulsan las menos usadas
+    // recientemente, la memoria estimada nunca pasa del límite y una lista más grande que el
+    // límite entero no se guarda
+    @Test
+    void evictsLeastRecentlyUsedWithinByteBound() {
+        int users = 2000;
+        UserIdRegistry registry = FriendSuggestionEngineTest.mixedRegistry(users, new Random(31));
+        FriendshipSnapshot snapshot = FriendshipSnapshot.build(registry);
+        long maxBytes = 8 << 10;
+        FriendSuggestionEngine engine = new FriendSuggestionEngine(registry, () -> snapshot, maxBytes);
+        SuggestionCache cache = engine.getCache();
+        String hot = registry.userIdAt(1);
+        engine.sugerirAmigos(hot, null, -1, -1, 10);
+
+        int queried = 0;
+        for (int u = 2; u < users; u++) {
+            if (registry.profileAt(u) == null) continue;
+            engine.sugerirAmigos(registry.userIdAt(u), null, -1, -1, 10);
+            queried++;
+            assertTrue(cache.getUsedBytes() <= maxBytes, "bytes: " + cache.getUsedBytes());
+            // La entrada usada en cada consulta pasa al final de la cola y nunca se expulsa
+            if (u % 3 == 0) {
+                long hits = cache.getHitCount();
+                engine.sugerirAmigos(hot, null, -1, -1, 10);
+                assertEquals(hits + 1, cache.getHitCount(), "U" + u);
+            }
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+        // Cada consulta nueva guardó una entrada: las que faltan son las expulsadas
+        assertEquals(queried + 1, cache.size() + cache.getEvictionCount());
+        assertEquals(queried + 1, cache.getMissCount());
+
+        // Lista completa de un usuario con muchos candidatos: no cabe y no expulsa nada
+        long evictions = cache.getEvictionCount();
+        int size = cache.size();
+        long usedBytes = cache.getUsedBytes();
+        List<FriendSuggestion> all = engine.sugerirAmigos(registry.userIdAt(0), null, -1, -1, Integer.MAX_VALUE);
+        assertTrue(160 + 40L * all.size() > maxBytes, "sugerencias: " + all.size());
+        assertEquals(size, cache.size());
+        assertEquals(evictions, cache.getEvictionCount());
+        assertEquals(usedBytes, cache.getUsedBytes());
+        assertNull(cache.get(new SuggestionCache.Key(0, null, -1, -1), 0));
+    }
+}
@@ -0,0 +1,55 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UserIdRegistryTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    @Test
+    void ensureCapacityForNothingKeepsTheRegistryUsable() {
+        UserIdRegistry registry = new UserIdRegistry();
+        registry.ensureCapacity(0);
+        registry.ensureCapacity(1);
+
+        int index = registry.intern("U1");
+        assertEquals(index, registry.indexOf("U1"));
+        assertEquals("U1", registry.userIdAt(index));
+        assertEquals(1, registry.size());
+    }
+
+    // Un CSV vacío reserva espacio para 0 perfiles en la tabla, el registro y el grafo:
+    // ningún cargador debe terminar pidiendo la capacidad máxima
+    @Test
+    void loadingAnEmptyFileLoadsNothing() throws IOException {
+        Path empty = Files.createFile(directory.resolve("empty.csv"));
+        String filename = empty.toString();
+        for (Supplier<ProfileTable> tables : List.<Supplier<ProfileTable>>of(
+                ProfileHashTable::new, OpenAddressingProfileTable::new, ConcurrentProfileHashTable::new)) {
+            assertEquals(0, new SocialNetworkSystem(tables.get()).cargarPerfilesDesdeArchivo(filename));
+            assertEquals(0, new SocialNetworkSystem(tables.get()).cargarPerfilesEnParalelo(filename));
+            assertEquals(0, new SocialNetworkSystem(tables.get()).cargarPerfilesMapeado(filename));
+
+            SocialNetworkSystem system = new SocialNetworkSystem(tables.get());
+            assertEquals(0, system.cargarConexionesDesdeArchivo(filename));
+            assertEquals(0, system.cargarConexionesEnParalelo(filename));
+            assertEquals(0, system.cargarConexionesMapeado(filename));
+            assertEquals(0L, system.contarAmistades());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package conectads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+
+    private static final int USERS = 60;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void silenceLog() {
+        EventLog.clearSink();
+    }
+
+    // Perfiles vigentes con sus amistades (userID y calidad, ordenadas) y los componentes
+    private static String state(SocialNetworkSystem system) {
+        FriendshipSnapshot graph = system.obtenerInstantanea();
+        StringBuilder text = new StringBuilder().append(system.contarAmistades()).append('\n');
+        for (int u = 0; u < graph.getUserCount(); u++) {
+            String userID = system.obtenerUserID(u);
+            if (!system.estaConectados(userID, userID)) continue;
+            String[] friends = new String[graph.degree(u)];
+            for (int i = 0; i < friends.length; i++) {
+                int edge = graph.edgeStart(u) + i;
+                friends[i] = system.obtenerUserID(graph.neighbor(edge)) + "/" + graph.quality(edge);
+            }
+            Arrays.sort(friends);
+            text.append(userID).append(' ').append(Arrays.toString(friends))
+                .append(system.estaConectados(userID, "U0") ? " c" : " n").append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void randomOperations(SocialNetworkSystem system, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            String a = "U" + random.nextInt(USERS);
+            String b = "U" + random.nextInt(USERS);
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                system.generarLazo(a, b, 1 + random.nextInt(5));
+            } else if (kind < 8) {
+                system.eliminarAmistad(a, b);
+            } else if (kind < 9) {
+                system.eliminarPerfil(a);
+            } else {
+                system.crearPerfil(a, "Nuevo " + a, 40, "M");
+            }
+        }
+    }
+
+    private SocialNetworkSystem openSystem(Path dataDirectory) {
+        SocialNetworkSystem system = new SocialNetworkSystem();
+        assertTrue(system.iniciarPersistencia(dataDirectory.toString(), WriteAheadLog.Durability.BATCH));
+        return system;
+    }
+
+    private static List<Path> segments(Path dataDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(dataDirectory)) {
+            List<Path> result = new ArrayList<>();
+            files.filter(f -> f.getFileName().toString().endsWith(".log")).sorted().forEach(result::add);
+            return result;
+        }
+    }
+
+    @Test
+    void replayRebuildsTheNetwork() {
+        SocialNetworkSystem system = openSystem(directory);
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(system.crearPerfil("U" + i, "Usuario " + i, 20 + i % 40, i % 2 == 0 ? "F" : "M"));
+        }
+        randomOperations(system, new Random(1), 600);
+        String expected = state(system);
+        system.cerrarPersistencia();
+
+        SocialNetworkSystem recovered = openSystem(directory);
+        assertEquals(expected, state(recovered));
+        assertTrue(recovered.verificarEstadisticas());
+        recovered.cerrarPersistencia();
+    }
+
+    // Una caída a mitad de un registro deja bytes sueltos al final del último segmento:
+    // se recortan al abrir y el log sigue aceptando registros a continuación
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        List<String> replayed = new ArrayList<>();
+        WriteAheadLog.RecordHandler collect = new WriteAheadLog.RecordHandler() {
+            @Override
+            public void onProfile(long lsn, String userID, String fullName, int age, String gender) {
+                replayed.add(lsn + ":" + userID);
+            }
+
+            @Override
+            public void onFriendship(long lsn, String userID_A, String userID_B, int quality) {
+                replayed.add(lsn + ":" + userID_A + "-" + userID_B);
+            }
+
+            @Override
+            public void onFriendshipRemoved(long lsn, String userID_A, String userID_B) {
+                replayed.add(lsn + ":-" + userID_A + "-" + userID_B);
+            }
+
+            @Override
+            public void onProfileRemoved(long lsn, String userID) {
+                replayed.add(lsn + ":-" + userID);
+            }
+        };
+
+        // Sin close: así queda el log tras una caída
+        WriteAheadLog crashed = WriteAheadLog.open(directory.toString(), WriteAheadLog.Durability.BATCH, 0, collect);
+        crashed.appendProfile("A", "Ana", 30, "F");
+        crashed.appendProfile("B", "Beto", 31, "M");
+        crashed.commit(crashed.appendFriendship("A", "B", 4));
+        Path last = segments(directory).get(segments(directory).size() - 1);
+        long committedBytes = Files.size(last);
+        Files.write(last, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        WriteAheadLog reopened = WriteAheadLog.open(directory.toString(), WriteAheadLog.Durability.BATCH, 0, collect);
+        assertEquals(List.of("1:A", "2:B", "3:A-B"), replayed);
+        assertEquals(committedBytes, Files.size(last));
+
+        reopened.commit(reopened.appendFriendshipRemoved("A", "B"));
+        reopened.close();
+        crashed.close();
+        replayed.clear();
+        WriteAheadLog.open(directory.toString(), WriteAheadLog.Durability.BATCH, 0, collect).close();
+        assertEquals(List.of("1:A", "2:B", "3:A-B", "4:-A-B"), replayed);
+    }
+
+    // La compactación guarda una instantánea y borra los segmentos que ya cubre
+    @Test
+    void compactionKeepsTheStateAndDropsCoveredSegments() throws IOException {
+        SocialNetworkSystem system = openSystem(directory);
+        for (int i = 0; i < USERS; i++) {
+            system.crearPerfil("U" + i, "Usuario " + i, 20 + i % 40, i % 2 == 0 ? "F" : "M");
+        }
+        Random random = new Random(2);
+        randomOperations(system, random, 300);
+        Path first = segments(directory).get(0);
+        assertTrue(system.compactarRegistro());
+        randomOperations(system, random, 300);
+        assertTrue(system.compactarRegistro());
+        randomOperations(system, random, 100);
+
+        assertTrue(Files.isRegularFile(directory.resolve("redsocial.snap")));
+        assertFalse(Files.exists(first));
+        String expected = state(system);
+        system.cerrarPersistencia();
+
+        SocialNetworkSystem recovered = openSystem(directory);
+        assertEquals(expected, state(recovered));
+        assertTrue(recovered.verificarEstadisticas());
+        recovered.cerrarPersistencia();
+    }
+
+    // Si un commit falla la escritura se informa como fallida y las siguientes se rechazan
+    @Test
+    void failedCommitRejectsFurtherWrites() throws IOException {
+        Path dataDirectory = directory.resolve("datos");
+        SocialNetworkSystem system = openSystem(dataDirectory);
+        assertTrue(system.crearPerfil("A", "Ana", 30, "F"));
+        assertTrue(system.crearPerfil("B", "Beto", 31, "M"));
+        // Tras compactar, el próximo commit abre un segmento nuevo en un directorio que ya no existe
+        assertTrue(system.compactarRegistro());
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+
+        assertFalse(system.generarLazo("A", "B", 3));
+        assertFalse(system.crearPerfil("C", "Carla", 25, "F"));
+        assertFalse(system.eliminarAmistad("A", "B"));
+        assertFalse(system.eliminarPerfil("A"));
+        system.cerrarPersistencia();
+        assertTrue(system.crearPerfil("C", "Carla", 25, "F"));
+    }
+
+    // Con la red ya cargada la instantánea inicial es lo único que la recupera: si no se puede
+    // guardar, la persistencia no se activa
+    @Test
+    void persistenceDoesNotStartWithoutTheInitialSnapshot() throws IOException {
+        SocialNetworkSystem system = new SocialNetworkSystem();
+        system.crearPerfil("A", "Ana", 30, "F");
+        Path blocked = Files.createDirectories(directory.resolve("redsocial.snap"));
+        Files.createFile(blocked.resolve("ocupado"));
+
+        assertFalse(system.iniciarPersistencia(directory.toString(), WriteAheadLog.Durability.BATCH));
+        assertTrue(segments(directory).isEmpty());
+        assertTrue(system.crearPerfil("B", "Beto", 31, "M"));
+        assertTrue(segments(directory).isEmpty());
+    }
+}